@@ -0,0 +1,40 @@
+#!/bin/bash
+
+$HOME/scripts/confGpioPwm.sh
+
+# bash does not forward a signal to its background jobs, so the recorder is
+# stopped here, otherwise it keeps the camera after the script is killed
+stop() {
+	[ -n "$recorder" ] && kill $recorder 2>/dev/null && wait $recorder
+	gpio pwm 1 0
+	exit 143
+}
+trap stop TERM INT
+
+raspivid -n -w 720 -h 405 -fps 30 -t 9000 -b 18000000 -sg 3000 -o $HOME/store/sweepSegment%04d.h264  &
+recorder=$!
+ic="70"
+
+while [ $ic -ge 40 ]
+do	
+	gpio pwm 1 $ic
+	sleep 0.05
+	ic=$[$ic-1]
+done
+
+while [ $ic -le 100 ]
+do
+        gpio pwm 1 $ic
+        sleep 0.05
+        ic=$[$ic+1]
+done
+
+while [ $ic -ge 70 ]
+do
+        gpio pwm 1 $ic
+        sleep 0.05
+        ic=$[$ic-1]
+done
+
+wait $recorder
+gpio pwm 1 0
@@ -0,0 +1,176 @@
+package com.edfx.rpi.app.machine;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.edfx.rpi.app.machine.job.Job;
+import com.edfx.rpi.app.utils.event.EventHub;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code JobExecutor} is the {@link ThreadPoolExecutor} which executes
+ * the {@link Job} instances and records for each of them the time it waited in
+ * the queue and the time its {@code run} took, along with the number of executions
+ * and failures per {@link com.edfx.rpi.app.machine.job.JobName}. The start and
+ * the end of every Job are published to the {@link EventHub}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+class JobExecutor extends ThreadPoolExecutor {
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final EventHub eventHub = EventHub.INSTANCE;
+	private final String name;
+
+	/**
+	 * Class {@code QueuedTask} wraps the submitted task to remember when it was
+	 * queued.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private static final class QueuedTask implements Runnable {
+		private final Runnable task;
+		private final long queuedAt = System.nanoTime();
+		private long startedAt;
+
+		/**
+		 * Constructor {@code QueuedTask}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param task
+		 *            the submitted task
+		 */
+		private QueuedTask(Runnable task) {
+			this.task = task;
+		}
+
+		/**
+		 * Method {@code run}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			task.run();
+		}
+	}
+
+	/**
+	 * Constructor {@code JobExecutor}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the executor used in the metric names
+	 * @param poolSize
+	 *            the number of threads
+	 * @param workQueue
+	 *            the queue holding the tasks before they are executed
+	 * @param threadFactory
+	 *            the factory to create the threads
+	 */
+	JobExecutor(String name, int poolSize, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+		super(poolSize, poolSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS, workQueue, threadFactory);
+		this.name = name;
+
+		metricsRegistry.gauge("executor." + name + ".queue", () -> getQueue().size());
+		metricsRegistry.gauge("executor." + name + ".active", this::getActiveCount);
+	}
+
+	/**
+	 * Method {@code execute} queues the given task.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the task to execute
+	 * @see java.util.concurrent.ThreadPoolExecutor#execute(java.lang.Runnable)
+	 */
+	@Override
+	public void execute(Runnable task) {
+		super.execute(new QueuedTask(task));
+	}
+
+	/**
+	 * Method {@code beforeExecute} records the time the task waited in the
+	 * queue.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param thread
+	 *            the thread which will run the task
+	 * @param task
+	 *            the task
+	 * @see java.util.concurrent.ThreadPoolExecutor#beforeExecute(java.lang.Thread,
+	 *      java.lang.Runnable)
+	 */
+	@Override
+	protected void beforeExecute(Thread thread, Runnable task) {
+		if (task instanceof QueuedTask) {
+			QueuedTask queuedTask = (QueuedTask) task;
+			queuedTask.startedAt = System.nanoTime();
+			metricsRegistry.histogram("executor." + name + ".wait").recordNanos(queuedTask.startedAt - queuedTask.queuedAt);
+			metricsRegistry.counter(getMetricName(queuedTask.task) + ".executions").increment();
+
+			if (queuedTask.task instanceof Job) {
+				eventHub.publish("job.started", "job", ((Job) queuedTask.task).getJobName(), "executor", name);
+			}
+		}
+	}
+
+	/**
+	 * Method {@code afterExecute} records the time the task took to run and
+	 * counts the failure if it threw.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the task
+	 * @param cause
+	 *            the exception thrown by the task, or null
+	 * @see java.util.concurrent.ThreadPoolExecutor#afterExecute(java.lang.Runnable,
+	 *      java.lang.Throwable)
+	 */
+	@Override
+	protected void afterExecute(Runnable task, Throwable cause) {
+		if (task instanceof QueuedTask) {
+			QueuedTask queuedTask = (QueuedTask) task;
+			String metricName = getMetricName(queuedTask.task);
+			long duration = System.nanoTime() - queuedTask.startedAt;
+			metricsRegistry.histogram(metricName).recordNanos(duration);
+
+			if (Objects.nonNull(cause)) {
+				metricsRegistry.counter(metricName + ".failures").increment();
+			}
+
+			if (queuedTask.task instanceof Job) {
+				eventHub.publish("job.finished", "job", ((Job) queuedTask.task).getJobName(), "executor", name, "duration", TimeUnit.NANOSECONDS.toMillis(duration), "failed", Objects.nonNull(cause));
+			}
+		}
+	}
+
+	/**
+	 * Method {@code getMetricName} returns the metric name of the given task.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the task
+	 * @return the metric name
+	 */
+	private static String getMetricName(Runnable task) {
+		if (task instanceof Job) {
+			return "job." + ((Job) task).getJobName().name().toLowerCase(Locale.ENGLISH);
+		}
+
+		return "job.other";
+	}
+}
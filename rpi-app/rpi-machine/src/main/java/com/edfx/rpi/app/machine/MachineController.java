@@ -2,11 +2,8 @@ package com.edfx.rpi.app.machine;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 
@@ -14,12 +11,14 @@ import com.edfx.rpi.app.machine.job.ImmediateJob;
 import com.edfx.rpi.app.machine.job.Job;
 import com.edfx.rpi.app.machine.job.QueuingJob;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 
 /**
  * Class {@code MachineController} is core class for the machine layer. It
  * initializes the {@link ExecutorService} instances which are used to execute
- * the various {@link Job} performed by RPI.
+ * the various {@link Job} performed by RPI. The executors record the queue
+ * wait and run time of every Job in the {@link MetricsRegistry}.
  * 
  * @author Tapas Bose
  * @since RPI V1.0
@@ -31,8 +30,8 @@ public enum MachineController {
 	private final Logger logger = RpiLogger.getLogger(getClass());
 
 	private final BlockingQueue<Runnable> workQueue;
-	private final ExecutorService immediateJobExecutor;
-	private final ExecutorService queueingJobExecutor;
+	private final JobExecutor immediateJobExecutor;
+	private final JobExecutor queueingJobExecutor;
 
 	/**
 	 * Constructor {@code MachineController}
@@ -42,12 +41,11 @@ public enum MachineController {
 	 */
 	private MachineController() {
 		int corePoolSize = 4;
-		int maximumPoolSize = corePoolSize;
 
 		ThreadFactory rpiThreadFactory = RpiThreadFactory.INSTANCE;
 		workQueue = new LinkedBlockingQueue<>();
-		immediateJobExecutor = new ThreadPoolExecutor(corePoolSize, maximumPoolSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS, workQueue, rpiThreadFactory);
-		queueingJobExecutor = Executors.newSingleThreadExecutor(rpiThreadFactory);
+		immediateJobExecutor = new JobExecutor("immediate", corePoolSize, workQueue, rpiThreadFactory);
+		queueingJobExecutor = new JobExecutor("queueing", 1, new LinkedBlockingQueue<>(), rpiThreadFactory);
 	}
 
 	/**
@@ -76,6 +74,54 @@ public enum MachineController {
 		return queueingJobExecutor;
 	}
 
+	/**
+	 * Method {@code getImmediateJobQueueSize} returns the number of
+	 * {@link ImmediateJob} waiting to be executed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the number of waiting jobs
+	 */
+	public int getImmediateJobQueueSize() {
+		return immediateJobExecutor.getQueue().size();
+	}
+
+	/**
+	 * Method {@code getImmediateJobActiveCount} returns the approximate number
+	 * of {@link ImmediateJob} being executed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the number of running jobs
+	 */
+	public int getImmediateJobActiveCount() {
+		return immediateJobExecutor.getActiveCount();
+	}
+
+	/**
+	 * Method {@code getQueueingJobQueueSize} returns the number of
+	 * {@link QueuingJob} waiting to be executed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the number of waiting jobs
+	 */
+	public int getQueueingJobQueueSize() {
+		return queueingJobExecutor.getQueue().size();
+	}
+
+	/**
+	 * Method {@code getQueueingJobActiveCount} returns the approximate number
+	 * of {@link QueuingJob} being executed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the number of running jobs
+	 */
+	public int getQueueingJobActiveCount() {
+		return queueingJobExecutor.getActiveCount();
+	}
+
 	/**
 	 * Method {@code shutdown} shutdown the {@link ExecutorService} instances
 	 * which executes the {@link ImmediateJob} and {@link QueuingJob}.
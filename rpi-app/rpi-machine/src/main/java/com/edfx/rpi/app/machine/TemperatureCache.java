@@ -0,0 +1,54 @@
+package com.edfx.rpi.app.machine;
+
+import com.edfx.rpi.app.utils.event.EventHub;
+
+/**
+ * Class {@code TemperatureCache} holds the latest ambient temperature read by
+ * any Job, so that it can be reported without executing the temperature
+ * script. Every reading is published to the {@link EventHub}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum TemperatureCache {
+	INSTANCE;
+
+	private volatile TemperatureReading latest;
+
+	/**
+	 * Constructor {@code TemperatureCache}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private TemperatureCache() {
+
+	}
+
+	/**
+	 * Method {@code update} stores a new reading.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param celsius
+	 *            the temperature in degree Celsius
+	 * @return the stored reading
+	 */
+	public TemperatureReading update(double celsius) {
+		TemperatureReading reading = new TemperatureReading(celsius, System.currentTimeMillis());
+		latest = reading;
+		EventHub.INSTANCE.publish("temperature", "celsius", reading.getCelsius(), "fahrenheit", reading.getFahrenheit());
+		return reading;
+	}
+
+	/**
+	 * Method {@code getLatest} returns the latest reading.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the latest reading or null if the temperature is never read
+	 */
+	public TemperatureReading getLatest() {
+		return latest;
+	}
+}
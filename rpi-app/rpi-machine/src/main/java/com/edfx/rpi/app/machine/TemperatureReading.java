@@ -0,0 +1,62 @@
+package com.edfx.rpi.app.machine;
+
+/**
+ * Class {@code TemperatureReading} is an immutable ambient temperature reading
+ * along with the time it was taken.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class TemperatureReading {
+	private final double celsius;
+	private final long readAt;
+
+	/**
+	 * Constructor {@code TemperatureReading}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param celsius
+	 *            the temperature in degree Celsius
+	 * @param readAt
+	 *            the time of the reading in milliseconds since the epoch
+	 */
+	public TemperatureReading(double celsius, long readAt) {
+		this.celsius = celsius;
+		this.readAt = readAt;
+	}
+
+	/**
+	 * Method {@code getCelsius} returns the temperature in degree Celsius.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the celsius
+	 */
+	public double getCelsius() {
+		return celsius;
+	}
+
+	/**
+	 * Method {@code getFahrenheit} returns the temperature in degree
+	 * Fahrenheit.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the fahrenheit
+	 */
+	public double getFahrenheit() {
+		return (celsius * 1.8) + 32;
+	}
+
+	/**
+	 * Method {@code getReadAt} returns the time of the reading.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch
+	 */
+	public long getReadAt() {
+		return readAt;
+	}
+}
@@ -0,0 +1,74 @@
+package com.edfx.rpi.app.machine.capture;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.edfx.rpi.app.utils.thread.SingleFlight;
+
+/**
+ * Class {@code CaptureCoordinator} makes sure the camera does one capture of a
+ * type at a time. <br/>
+ * A Job asking for a capture while another one of the same type is running,
+ * e.g. <b>take three</b> while secure mode is taking images, gets the link of
+ * that capture instead of running the camera and uploading again. The link is
+ * also shared with the on demand requests arriving within
+ * {@link #GRACE_SECONDS} after the capture, but never with an alert, which
+ * must photograph the scene as it is now. Failed captures are never shared.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum CaptureCoordinator {
+	INSTANCE;
+
+	private static final long GRACE_SECONDS = 10;
+
+	private final SingleFlight<CaptureType, String> captures = new SingleFlight<>("capture", GRACE_SECONDS, TimeUnit.SECONDS);
+
+	/**
+	 * Constructor {@code CaptureCoordinator}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private CaptureCoordinator() {
+
+	}
+
+	/**
+	 * Method {@code capture} runs the given capture, or joins the one of the
+	 * same type which is running or just completed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param captureType
+	 *            the type of the capture
+	 * @param capture
+	 *            captures and uploads, returns the link to the upload
+	 * @return the link to the upload, or an empty String if the capture failed
+	 */
+	public String capture(CaptureType captureType, Supplier<String> capture) {
+		String url = captures.execute(captureType, () -> StringUtils.trimToNull(capture.get()));
+		return StringUtils.defaultString(url);
+	}
+
+	/**
+	 * Method {@code captureNow} runs the given capture, or joins the one of the
+	 * same type which is running. Unlike {@link #capture(CaptureType, Supplier)}
+	 * it never reuses a capture which completed before the call.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param captureType
+	 *            the type of the capture
+	 * @param capture
+	 *            captures and uploads, returns the link to the upload
+	 * @return the link to the upload, or an empty String if the capture failed
+	 */
+	public String captureNow(CaptureType captureType, Supplier<String> capture) {
+		String url = captures.execute(captureType, 0, TimeUnit.SECONDS, () -> StringUtils.trimToNull(capture.get()));
+		return StringUtils.defaultString(url);
+	}
+}
@@ -0,0 +1,15 @@
+package com.edfx.rpi.app.machine.capture;
+
+/**
+ * Class {@code CaptureType} represents the kind of capture done by the camera.
+ * The captures of the same type are coalesced by {@link CaptureCoordinator}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum CaptureType {
+
+	IMAGES,
+	VIDEO;
+
+}
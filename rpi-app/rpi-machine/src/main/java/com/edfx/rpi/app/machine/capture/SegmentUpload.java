@@ -0,0 +1,45 @@
+package com.edfx.rpi.app.machine.capture;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Interface {@code SegmentUpload} uploads the segments of a video while it is
+ * still being recorded and returns the link to all of them once the last one
+ * is uploaded.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public interface SegmentUpload {
+
+	/**
+	 * Method {@code upload} uploads a closed segment.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param segment
+	 *            the segment
+	 * @throws IOException
+	 */
+	void upload(File segment) throws IOException;
+
+	/**
+	 * Method {@code complete} completes the upload after the last segment.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link to the uploaded segments
+	 * @throws IOException
+	 */
+	String complete() throws IOException;
+
+	/**
+	 * Method {@code abort} discards the upload when no segment was uploaded.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws IOException
+	 */
+	void abort() throws IOException;
+}
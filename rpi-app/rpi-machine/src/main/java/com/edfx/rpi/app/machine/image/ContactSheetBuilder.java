@@ -0,0 +1,140 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Objects;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+
+/**
+ * Class {@code ContactSheetBuilder} stitches the images taken from the
+ * different angles side by side into one JPEG, with the name of the image and
+ * the time it was taken burned into each panel.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class ContactSheetBuilder {
+	private static final int CAPTION_HEIGHT = 20;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private final int panelWidth;
+	private final int panelHeight;
+
+	/**
+	 * Constructor {@code ContactSheetBuilder}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param panelWidth
+	 *            the maximum width of a panel
+	 * @param panelHeight
+	 *            the maximum height of a panel
+	 */
+	ContactSheetBuilder(int panelWidth, int panelHeight) {
+		this.panelWidth = panelWidth;
+		this.panelHeight = panelHeight;
+	}
+
+	/**
+	 * Method {@code build} builds the contact sheet of the given images.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param sources
+	 *            the images, from left to right
+	 * @param labels
+	 *            the captions of the images, e.g. the camera positions
+	 * @param target
+	 *            the file to write
+	 * @param quality
+	 *            the compression quality between 0 and 1
+	 * @return the sheet, e.g. to make its thumbnail
+	 * @throws IOException
+	 *             if an image can not be read or the sheet can not be written
+	 */
+	BufferedImage build(File[] sources, String[] labels, File target, float quality) throws IOException {
+		BufferedImage[] panels = new BufferedImage[sources.length];
+		int width = 0;
+		int height = 0;
+
+		for (int index = 0; index < sources.length; index++) {
+			BufferedImage decoded = ImageProcessor.read(sources[index], panelWidth, panelHeight);
+
+			if (Objects.isNull(decoded)) {
+				throw new IOException("Unable to decode image: " + sources[index]);
+			}
+
+			panels[index] = ImageProcessor.scale(decoded, panelWidth, panelHeight);
+			width += panels[index].getWidth();
+			height = Math.max(height, panels[index].getHeight());
+		}
+
+		BufferedImage sheet = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = sheet.createGraphics();
+		DateFormat formatter = new SimpleDateFormat("dd/MMM/yyyy hh:mm:ss a");
+
+		try {
+			int x = 0;
+
+			for (int index = 0; index < panels.length; index++) {
+				graphics.drawImage(panels[index], x, 0, null);
+				drawCaption(graphics, x, panels[index], labels[index] + "  " + formatter.format(new Date(sources[index].lastModified())));
+				x += panels[index].getWidth();
+			}
+		} finally {
+			graphics.dispose();
+		}
+
+		ImageProcessor.write(sheet, target, quality);
+		return sheet;
+	}
+
+	/**
+	 * Method {@code drawCaption} draws the given caption at the bottom of a
+	 * panel. A missing font only costs the caption, not the sheet.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param graphics
+	 *            the graphics of the sheet
+	 * @param x
+	 *            the left edge of the panel
+	 * @param panel
+	 *            the panel
+	 * @param caption
+	 *            the caption
+	 */
+	private void drawCaption(Graphics2D graphics, int x, BufferedImage panel, String caption) {
+		int y = panel.getHeight() - CAPTION_HEIGHT;
+
+		try {
+			graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
+			graphics.setColor(Color.BLACK);
+			graphics.fillRect(x, y, panel.getWidth(), CAPTION_HEIGHT);
+
+			graphics.setComposite(AlphaComposite.SrcOver);
+			graphics.setColor(Color.WHITE);
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+
+			FontMetrics fontMetrics = graphics.getFontMetrics();
+			graphics.drawString(caption, x + 6, y + (CAPTION_HEIGHT + fontMetrics.getAscent() - fontMetrics.getDescent()) / 2);
+		} catch (Throwable cause) {
+			logger.error("Unable to draw caption. Reason: " + cause.getMessage());
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Class {@code DifferenceHash} computes the 64 bit difference hash of an
+ * image. The image is shrunk to 9x8 gray pixels and each bit tells if a pixel
+ * is brighter than its right neighbour, so the hash survives scaling,
+ * recompression and small changes of the light, and two images of the same
+ * scene differ in a few bits only. The small image and the pixel buffer are
+ * reused, so computing a hash allocates nothing.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class DifferenceHash {
+	private static final int WIDTH = 9;
+	private static final int HEIGHT = 8;
+
+	private final BufferedImage gray = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+	private final int[] pixels = new int[WIDTH * HEIGHT];
+
+	/**
+	 * Method {@code compute} returns the difference hash of the given image.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param image
+	 *            the image
+	 * @return the hash
+	 */
+	synchronized long compute(BufferedImage image) {
+		Graphics2D graphics = gray.createGraphics();
+
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+		} finally {
+			graphics.dispose();
+		}
+
+		gray.getRaster().getPixels(0, 0, WIDTH, HEIGHT, pixels);
+
+		long hash = 0;
+
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH - 1; x++) {
+				int offset = y * WIDTH + x;
+				hash = (hash << 1) | (pixels[offset] > pixels[offset + 1] ? 1 : 0);
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Method {@code distance} returns the number of bits in which the given
+	 * hashes differ.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param first
+	 *            a hash
+	 * @param second
+	 *            another hash
+	 * @return the Hamming distance
+	 */
+	static int distance(long first, long second) {
+		return Long.bitCount(first ^ second);
+	}
+}
@@ -0,0 +1,200 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
+
+/**
+ * Class {@code FrameDeduplicator} tells if a set of captured frames shows the
+ * same scene as a recently uploaded one, so it need not be uploaded again.
+ * <br/>
+ * The frames are compared by their {@link DifferenceHash}. A set is a
+ * duplicate if each of its frames is within {@code dedup.threshold} bits of the
+ * frame at the same position of one of the last {@code dedup.history} uploaded
+ * sets. The link of each upload is kept, so it can be sent again. The default
+ * threshold is tight, as a small change, like a person at the edge of a frame,
+ * may stay under a loose one. The frames of a skipped set are kept by the
+ * {@link com.edfx.rpi.app.utils.storage.MediaStore} for a while all the same.
+ * The settings are read from {@code media.properties}.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class FrameDeduplicator {
+	private static final int HASH_SIZE = 64;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final DifferenceHash differenceHash = new DifferenceHash();
+	private final Deque<long[]> history = new ArrayDeque<>();
+	private final Deque<String> urls = new ArrayDeque<>();
+
+	private final boolean enabled;
+	private final int threshold;
+	private final int historySize;
+
+	/**
+	 * Constructor {@code FrameDeduplicator}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public FrameDeduplicator() {
+		java.util.Properties properties = PropertiesLoader.INSTANCE.getProperties(Properties.MEDIA);
+
+		enabled = Boolean.parseBoolean(getProperty(properties, "dedup.enabled", "true"));
+		threshold = Integer.parseInt(getProperty(properties, "dedup.threshold", "4"));
+		historySize = Math.max(1, Integer.parseInt(getProperty(properties, "dedup.history", "8")));
+	}
+
+	/**
+	 * Method {@code getProperty} returns the value of the given key, or the
+	 * default value if it is not set.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param properties
+	 *            the properties, may be null
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the default value
+	 * @return the value
+	 */
+	private static String getProperty(java.util.Properties properties, String key, String defaultValue) {
+		if (Objects.isNull(properties)) {
+			return defaultValue;
+		}
+
+		return StringUtils.defaultIfBlank(properties.getProperty(key), defaultValue).trim();
+	}
+
+	/**
+	 * Method {@code hash} computes the hashes of the given frames.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param frames
+	 *            the captured frames
+	 * @return the hashes in the same order, or null if disabled or a frame can
+	 *         not be decoded
+	 */
+	public long[] hash(File[] frames) {
+		if (!enabled) {
+			return null;
+		}
+
+		long startedAt = System.nanoTime();
+		long[] hashes = new long[frames.length];
+
+		try {
+			for (int index = 0; index < frames.length; index++) {
+				BufferedImage image = ImageProcessor.read(frames[index], HASH_SIZE, HASH_SIZE);
+
+				if (Objects.isNull(image)) {
+					return null;
+				}
+
+				hashes[index] = differenceHash.compute(image);
+			}
+
+			return hashes;
+		} catch (Throwable cause) {
+			logger.error("Unable to hash frames. Reason: " + cause.getMessage());
+			return null;
+		} finally {
+			metricsRegistry.histogram("image.dedup.hash").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code findDuplicate} returns the link of the recent upload which
+	 * shows the same scene as the frames of the given hashes.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hashes
+	 *            the hashes returned by {@link #hash(File[])}, may be null
+	 * @return the link, or null if the frames are to be uploaded
+	 */
+	public synchronized String findDuplicate(long[] hashes) {
+		if (Objects.isNull(hashes)) {
+			return null;
+		}
+
+		Iterator<String> urlIterator = urls.iterator();
+
+		for (long[] uploaded : history) {
+			String url = urlIterator.next();
+
+			if (isSimilar(uploaded, hashes)) {
+				metricsRegistry.counter("image.dedup.skipped").increment();
+				return url;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method {@code remember} records the hashes of uploaded frames.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hashes
+	 *            the hashes returned by {@link #hash(File[])}, may be null
+	 * @param url
+	 *            the link to the upload
+	 */
+	public synchronized void remember(long[] hashes, String url) {
+		if (Objects.isNull(hashes) || StringUtils.isBlank(url)) {
+			return;
+		}
+
+		if (history.size() == historySize) {
+			history.removeLast();
+			urls.removeLast();
+		}
+
+		history.addFirst(hashes);
+		urls.addFirst(url);
+	}
+
+	/**
+	 * Method {@code isSimilar} tells if every frame is within the threshold of
+	 * the frame at the same position.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param uploaded
+	 *            the hashes of uploaded frames
+	 * @param hashes
+	 *            the hashes of captured frames
+	 * @return true if similar
+	 */
+	private boolean isSimilar(long[] uploaded, long[] hashes) {
+		if (uploaded.length != hashes.length) {
+			return false;
+		}
+
+		for (int index = 0; index < hashes.length; index++) {
+			if (DifferenceHash.distance(uploaded[index], hashes[index]) > threshold) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
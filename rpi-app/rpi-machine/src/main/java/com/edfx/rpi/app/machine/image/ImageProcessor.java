@@ -0,0 +1,417 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Objects;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
+import com.edfx.rpi.app.utils.storage.MediaStore;
+
+/**
+ * Class {@code ImageProcessor} prepares the captured images for the upload.
+ * <br/>
+ * An image is downsized to fit in the configured dimensions and recompressed
+ * at the configured quality, and a small thumbnail is made of it, which is
+ * sent to the LAN clients as the preview of the upload. The JPEG is decoded
+ * with source subsampling when it is at least twice as large as needed, so
+ * most of the scaling is done by the decoder and only a small image is scaled
+ * afterwards. The captured image is kept and uploaded as it is if it
+ * can not be made smaller. If {@code contactSheet.enabled} is set the images
+ * are stitched into one contact sheet instead, so only one file is uploaded.
+ * The files are written next to the captured ones, named after them, so the
+ * {@link MediaStore} counts them in its budget and evicts them along with the
+ * captures. The settings are read from {@code media.properties}.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum ImageProcessor {
+	INSTANCE;
+
+	private static final String IMAGE_SUFFIX = ".upload.jpg";
+	private static final String CONTACT_SHEET_SUFFIX = ".sheet.jpg";
+	private static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final int maxWidth;
+	private final int maxHeight;
+	private final float quality;
+	private final int thumbnailSize;
+	private final float thumbnailQuality;
+	private final boolean contactSheetEnabled;
+	private final ContactSheetBuilder contactSheetBuilder;
+
+	/**
+	 * Constructor {@code ImageProcessor}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private ImageProcessor() {
+		java.util.Properties properties = PropertiesLoader.INSTANCE.getProperties(Properties.MEDIA);
+
+		maxWidth = Integer.parseInt(getProperty(properties, "image.maxWidth", "1280"));
+		maxHeight = Integer.parseInt(getProperty(properties, "image.maxHeight", "960"));
+		quality = Float.parseFloat(getProperty(properties, "image.quality", "0.8"));
+		thumbnailSize = Integer.parseInt(getProperty(properties, "thumbnail.size", "160"));
+		thumbnailQuality = Float.parseFloat(getProperty(properties, "thumbnail.quality", "0.7"));
+		contactSheetEnabled = Boolean.parseBoolean(getProperty(properties, "contactSheet.enabled", "false"));
+
+		int panelWidth = Integer.parseInt(getProperty(properties, "contactSheet.panelWidth", "640"));
+		int panelHeight = Integer.parseInt(getProperty(properties, "contactSheet.panelHeight", "480"));
+		contactSheetBuilder = new ContactSheetBuilder(panelWidth, panelHeight);
+
+		ImageIO.setUseCache(false);
+	}
+
+	/**
+	 * Method {@code getProperty} returns the value of the given key, or the
+	 * default value if it is not set.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param properties
+	 *            the properties, may be null
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the default value
+	 * @return the value
+	 */
+	private static String getProperty(java.util.Properties properties, String key, String defaultValue) {
+		if (Objects.isNull(properties)) {
+			return defaultValue;
+		}
+
+		return StringUtils.defaultIfBlank(properties.getProperty(key), defaultValue).trim();
+	}
+
+	/**
+	 * Method {@code prepareForUpload} processes the given images, or stitches
+	 * them into a contact sheet if enabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param sources
+	 *            the captured images
+	 * @param labels
+	 *            the captions of the images on the contact sheet, one per
+	 *            image
+	 * @return the images to upload, in the same order, or the contact sheet
+	 *         alone
+	 */
+	public File[] prepareForUpload(File[] sources, String[] labels) {
+		if (contactSheetEnabled && sources.length > 1) {
+			File contactSheet = buildContactSheet(sources, labels);
+
+			if (Objects.nonNull(contactSheet)) {
+				return new File[] { contactSheet };
+			}
+		}
+
+		File[] images = new File[sources.length];
+
+		for (int index = 0; index < sources.length; index++) {
+			images[index] = process(sources[index]).getImage();
+		}
+
+		return images;
+	}
+
+	/**
+	 * Method {@code buildContactSheet} stitches the given images into one.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param sources
+	 *            the captured images
+	 * @param labels
+	 *            the captions of the images
+	 * @return the contact sheet, or null if it could not be built
+	 */
+	private File buildContactSheet(File[] sources, String[] labels) {
+		long startedAt = System.nanoTime();
+		File contactSheet = getSibling(sources[0], CONTACT_SHEET_SUFFIX);
+
+		try {
+			writeThumbnail(contactSheet, contactSheetBuilder.build(sources, labels, contactSheet, quality));
+			MediaStore.INSTANCE.countDerived(contactSheet);
+
+			for (File source : sources) {
+				metricsRegistry.counter("image.bytes.in").add(source.length());
+			}
+
+			metricsRegistry.counter("image.bytes.out").add(contactSheet.length());
+			return contactSheet;
+		} catch (Throwable cause) {
+			metricsRegistry.counter("image.contactsheet.failures").increment();
+			logger.error("Unable to build contact sheet. Reason: " + cause.getMessage());
+			return null;
+		} finally {
+			metricsRegistry.histogram("image.contactsheet").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code process} downsizes and recompresses the given image and
+	 * makes its thumbnail. It never fails, the captured image is used as it
+	 * is if it can not be processed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the captured image
+	 * @return the processed image
+	 */
+	public ProcessedImage process(File source) {
+		long startedAt = System.nanoTime();
+
+		try {
+			BufferedImage decoded = read(source, maxWidth, maxHeight);
+
+			if (Objects.isNull(decoded)) {
+				logger.info("Unable to decode image: " + source);
+				return new ProcessedImage(source, source, null);
+			}
+
+			BufferedImage image = scale(decoded, maxWidth, maxHeight);
+
+			File resized = getSibling(source, IMAGE_SUFFIX);
+			write(image, resized, quality);
+
+			long sourceLength = source.length();
+
+			if (resized.length() >= sourceLength) {
+				Files.deleteIfExists(resized.toPath());
+				resized = source;
+			}
+
+			File thumbnail = writeThumbnail(resized, image);
+			MediaStore.INSTANCE.countDerived(source);
+
+			metricsRegistry.counter("image.bytes.in").add(sourceLength);
+			metricsRegistry.counter("image.bytes.out").add(resized.length());
+
+			return new ProcessedImage(source, resized, thumbnail);
+		} catch (Throwable cause) {
+			metricsRegistry.counter("image.process.failures").increment();
+			logger.error("Unable to process image: " + source + ". Reason: " + cause.getMessage());
+			return new ProcessedImage(source, source, null);
+		} finally {
+			metricsRegistry.histogram("image.process").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code writeThumbnail} writes the thumbnail of the given image
+	 * next to it. It never fails, the image is uploaded without a preview if
+	 * its thumbnail can not be written.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param image
+	 *            the image to upload
+	 * @param decoded
+	 *            the decoded image
+	 * @return the thumbnail, or null if it could not be written
+	 */
+	private File writeThumbnail(File image, BufferedImage decoded) {
+		File thumbnail = getSibling(image, THUMBNAIL_SUFFIX);
+
+		try {
+			write(scale(decoded, thumbnailSize, thumbnailSize), thumbnail, thumbnailQuality);
+			return thumbnail;
+		} catch (Throwable cause) {
+			logger.error("Unable to write thumbnail of image: " + image + ". Reason: " + cause.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Method {@code getPreview} returns the thumbnail of the given image to
+	 * upload as a {@code data:} URI, which a client shows without fetching
+	 * anything.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param image
+	 *            the image to upload, as returned by
+	 *            {@link #prepareForUpload(File[], String[])} or
+	 *            {@link #process(File)}
+	 * @return the preview, or null if the image has no thumbnail
+	 */
+	public String getPreview(File image) {
+		File thumbnail = getSibling(image, THUMBNAIL_SUFFIX);
+
+		if (!thumbnail.isFile()) {
+			return null;
+		}
+
+		try {
+			return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(Files.readAllBytes(thumbnail.toPath()));
+		} catch (Throwable cause) {
+			logger.error("Unable to read thumbnail: " + thumbnail + ". Reason: " + cause.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Method {@code read} decodes the given image, subsampling it at decode
+	 * time by the largest integral factor which keeps it larger than the given
+	 * dimensions.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the image file
+	 * @param width
+	 *            the width needed
+	 * @param height
+	 *            the height needed
+	 * @return the decoded image, or null if no reader is found
+	 * @throws IOException
+	 */
+	static BufferedImage read(File source, int width, int height) throws IOException {
+		try (ImageInputStream inputStream = ImageIO.createImageInputStream(source)) {
+			if (Objects.isNull(inputStream)) {
+				return null;
+			}
+
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+
+			if (!readers.hasNext()) {
+				return null;
+			}
+
+			ImageReader reader = readers.next();
+
+			try {
+				reader.setInput(inputStream, true, true);
+
+				ImageReadParam readParam = reader.getDefaultReadParam();
+				int subsampling = Math.min(reader.getWidth(0) / Math.max(1, width), reader.getHeight(0) / Math.max(1, height));
+
+				if (subsampling > 1) {
+					readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+
+				return reader.read(0, readParam);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Method {@code scale} scales the given image down to fit in the given
+	 * dimensions keeping its aspect ratio.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param image
+	 *            the image
+	 * @param width
+	 *            the maximum width
+	 * @param height
+	 *            the maximum height
+	 * @return the scaled image, or the given one if it already fits
+	 */
+	static BufferedImage scale(BufferedImage image, int width, int height) {
+		double ratio = Math.min((double) width / image.getWidth(), (double) height / image.getHeight());
+
+		if (ratio >= 1) {
+			return image;
+		}
+
+		int scaledWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+		int scaledHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+		BufferedImage scaled = new BufferedImage(scaledWidth, scaledHeight, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(image, 0, 0, scaledWidth, scaledHeight, null);
+		} finally {
+			graphics.dispose();
+		}
+
+		return scaled;
+	}
+
+	/**
+	 * Method {@code write} encodes the given image as JPEG.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param image
+	 *            the image
+	 * @param target
+	 *            the file to write
+	 * @param quality
+	 *            the compression quality between 0 and 1
+	 * @throws IOException
+	 */
+	static void write(BufferedImage image, File target, float quality) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+
+		if (!writers.hasNext()) {
+			throw new IOException("No JPEG writer found.");
+		}
+
+		ImageWriter writer = writers.next();
+		Files.deleteIfExists(target.toPath());
+
+		try (ImageOutputStream outputStream = ImageIO.createImageOutputStream(target)) {
+			ImageWriteParam writeParam = writer.getDefaultWriteParam();
+			writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			writeParam.setCompressionQuality(quality);
+
+			writer.setOutput(outputStream);
+			writer.write(null, new IIOImage(image, null, null), writeParam);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	/**
+	 * Method {@code getSibling} returns the file next to the given one with
+	 * the given suffix in place of its extension.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the file
+	 * @param suffix
+	 *            the suffix
+	 * @return the sibling file
+	 */
+	private static File getSibling(File source, String suffix) {
+		String name = source.getName();
+		int extension = name.lastIndexOf('.');
+		return new File(source.getParentFile(), (extension > 0 ? name.substring(0, extension) : name) + suffix);
+	}
+}
@@ -0,0 +1,213 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Class {@code ImageProcessorBenchmark} measures the cost of the processing
+ * done by {@link ImageProcessor} against the bytes it saves. It decodes,
+ * scales and encodes a sample frame the way {@link ImageProcessor#process}
+ * does, then makes its thumbnail, and prints the CPU time of each step along
+ * with the bytes in and out. <br/>
+ * Run it on the device with the same settings as {@code media.properties}:
+ *
+ * <pre>
+ * java -cp rpi-machine.jar:... com.edfx.rpi.app.machine.image.ImageProcessorBenchmark [image] [iterations] [maxWidth] [maxHeight] [quality]
+ * </pre>
+ *
+ * Without an image a synthetic 2592x1944 frame, the size of a full resolution
+ * capture of the camera, is generated. The first iterations warm up the JIT
+ * and are not counted.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class ImageProcessorBenchmark {
+	private static final int WARM_UP_ITERATIONS = 3;
+	private static final int THUMBNAIL_SIZE = 160;
+	private static final float THUMBNAIL_QUALITY = 0.7f;
+
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Constructor {@code ImageProcessorBenchmark}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private ImageProcessorBenchmark() {
+
+	}
+
+	/**
+	 * Method {@code main} runs the benchmark.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param args
+	 *            the image, the number of iterations, the maximum width, the
+	 *            maximum height and the quality, all optional
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int maxWidth = args.length > 2 ? Integer.parseInt(args[2]) : 1280;
+		int maxHeight = args.length > 3 ? Integer.parseInt(args[3]) : 960;
+		float quality = args.length > 4 ? Float.parseFloat(args[4]) : 0.8f;
+
+		File directory = Files.createTempDirectory("rpi-image-benchmark").toFile();
+		File source = args.length > 0 ? new File(args[0]) : createSample(new File(directory, "sample.jpg"));
+		File resized = new File(directory, "sample.upload.jpg");
+		File thumbnail = new File(directory, "sample.upload.thumb.jpg");
+
+		long[] totals = new long[4];
+
+		try {
+			for (int iteration = 0; iteration < WARM_UP_ITERATIONS + iterations; iteration++) {
+				long[] times = run(source, resized, thumbnail, maxWidth, maxHeight, quality);
+
+				if (iteration >= WARM_UP_ITERATIONS) {
+					for (int index = 0; index < times.length; index++) {
+						totals[index] += times[index];
+					}
+				}
+			}
+
+			System.out.println("Image: " + source + ", iterations: " + iterations + ", target: " + maxWidth + "x" + maxHeight + " at " + quality);
+			System.out.println(String.format("CPU ms per image: decode %.1f, scale %.1f, encode %.1f, thumbnail %.1f, total %.1f", toMillis(totals[0], iterations), toMillis(totals[1], iterations), toMillis(totals[2], iterations),
+					toMillis(totals[3], iterations), toMillis(totals[0] + totals[1] + totals[2] + totals[3], iterations)));
+			System.out.println(String.format("Bytes: in %d, out %d (%.1f%%), thumbnail %d", source.length(), resized.length(), 100.0 * resized.length() / source.length(), thumbnail.length()));
+		} finally {
+			Files.deleteIfExists(thumbnail.toPath());
+			Files.deleteIfExists(resized.toPath());
+			Files.deleteIfExists(new File(directory, "sample.jpg").toPath());
+			Files.deleteIfExists(directory.toPath());
+		}
+	}
+
+	/**
+	 * Method {@code run} processes the given image once.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the captured image
+	 * @param resized
+	 *            the file to write the image to upload to
+	 * @param thumbnail
+	 *            the file to write the thumbnail to
+	 * @param maxWidth
+	 *            the maximum width
+	 * @param maxHeight
+	 *            the maximum height
+	 * @param quality
+	 *            the compression quality
+	 * @return the CPU time in nanoseconds of the decoding, the scaling, the
+	 *         encoding and the thumbnail
+	 * @throws IOException
+	 */
+	private static long[] run(File source, File resized, File thumbnail, int maxWidth, int maxHeight, float quality) throws IOException {
+		long[] times = new long[4];
+
+		long startedAt = THREAD_BEAN.getCurrentThreadCpuTime();
+		BufferedImage decoded = ImageProcessor.read(source, maxWidth, maxHeight);
+
+		if (Objects.isNull(decoded)) {
+			throw new IOException("Unable to decode image: " + source);
+		}
+
+		times[0] = THREAD_BEAN.getCurrentThreadCpuTime() - startedAt;
+
+		startedAt = THREAD_BEAN.getCurrentThreadCpuTime();
+		BufferedImage image = ImageProcessor.scale(decoded, maxWidth, maxHeight);
+		times[1] = THREAD_BEAN.getCurrentThreadCpuTime() - startedAt;
+
+		startedAt = THREAD_BEAN.getCurrentThreadCpuTime();
+		ImageProcessor.write(image, resized, quality);
+		times[2] = THREAD_BEAN.getCurrentThreadCpuTime() - startedAt;
+
+		startedAt = THREAD_BEAN.getCurrentThreadCpuTime();
+		ImageProcessor.write(ImageProcessor.scale(image, THUMBNAIL_SIZE, THUMBNAIL_SIZE), thumbnail, THUMBNAIL_QUALITY);
+		times[3] = THREAD_BEAN.getCurrentThreadCpuTime() - startedAt;
+
+		return times;
+	}
+
+	/**
+	 * Method {@code createSample} writes a synthetic full resolution frame,
+	 * gradients with noise so it does not compress better than a photograph.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param target
+	 *            the file to write
+	 * @return the given file
+	 * @throws IOException
+	 */
+	private static File createSample(File target) throws IOException {
+		BufferedImage image = new BufferedImage(2592, 1944, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+
+		try {
+			graphics.setPaint(new GradientPaint(0, 0, new Color(40, 60, 90), 2592, 1944, new Color(200, 180, 150)));
+			graphics.fillRect(0, 0, 2592, 1944);
+		} finally {
+			graphics.dispose();
+		}
+
+		Random random = new Random(42);
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				int noise = random.nextInt(24) - 12;
+				int rgb = image.getRGB(x, y);
+				int red = clamp(((rgb >> 16) & 0xFF) + noise);
+				int green = clamp(((rgb >> 8) & 0xFF) + noise);
+				int blue = clamp((rgb & 0xFF) + noise);
+				image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+			}
+		}
+
+		ImageProcessor.write(image, target, 0.92f);
+		return target;
+	}
+
+	/**
+	 * Method {@code clamp} keeps the given value in the range of a color
+	 * channel.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value
+	 * @return the clamped value
+	 */
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+
+	/**
+	 * Method {@code toMillis} returns the average of the given total in
+	 * milliseconds.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param nanos
+	 *            the total in nanoseconds
+	 * @param iterations
+	 *            the number of iterations
+	 * @return the average in milliseconds
+	 */
+	private static double toMillis(long nanos, int iterations) {
+		return nanos / 1e6 / iterations;
+	}
+}
@@ -0,0 +1,68 @@
+package com.edfx.rpi.app.machine.image;
+
+import java.io.File;
+
+/**
+ * Class {@code ProcessedImage} is the outcome of {@link ImageProcessor} for
+ * one captured image.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class ProcessedImage {
+	private final File source;
+	private final File image;
+	private final File thumbnail;
+
+	/**
+	 * Constructor {@code ProcessedImage}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the captured image
+	 * @param image
+	 *            the image to upload
+	 * @param thumbnail
+	 *            the thumbnail, or null
+	 */
+	ProcessedImage(File source, File image, File thumbnail) {
+		this.source = source;
+		this.image = image;
+		this.thumbnail = thumbnail;
+	}
+
+	/**
+	 * Method {@code getSource} returns the captured image.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the captured image
+	 */
+	public File getSource() {
+		return source;
+	}
+
+	/**
+	 * Method {@code getImage} returns the image to upload, the downsized one or
+	 * the captured one if it could not be made smaller.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the image to upload
+	 */
+	public File getImage() {
+		return image;
+	}
+
+	/**
+	 * Method {@code getThumbnail} returns the thumbnail of the image.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the thumbnail, or null if the image could not be decoded
+	 */
+	public File getThumbnail() {
+		return thumbnail;
+	}
+}
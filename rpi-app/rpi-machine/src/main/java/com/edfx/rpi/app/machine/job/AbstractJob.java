@@ -1,8 +1,28 @@
 package com.edfx.rpi.app.machine.job;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collection;
+import java.util.Objects;
 import java.util.Observable;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.machine.TemperatureCache;
+import com.edfx.rpi.app.machine.TemperatureReading;
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+import com.edfx.rpi.app.utils.storage.MediaStore;
 
 /**
  * Class {@code AbstractJob} is the abstract representation of Job.
@@ -12,8 +32,13 @@ import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
  */
 public abstract class AbstractJob extends Observable implements Job {
 
-	public static final String SCRIPT_DIR = ApplicationStorageManager.INSTANCE.getScriptDirectory().getAbsolutePath();
-	public static final String STORE_DIR = ApplicationStorageManager.INSTANCE.getStoreDirectory().getAbsolutePath();
+	protected static final String[] CAMERA_POSITIONS = { "left", "center", "right" };
+
+	private static final long SCRIPT_STOP_TIMEOUT = 5;
+
+	private static final Pattern TEMPERATURE_PATTERN = Pattern.compile("(T|t)(=)(-)*[(0-9)]*");
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
 
 	private JobName jobName;
 	private String message;
@@ -65,4 +90,279 @@ public abstract class AbstractJob extends Observable implements Job {
 	public void setMessage(String message) {
 		this.message = message;
 	}
+
+	/**
+	 * Method {@code getScriptDirectory} returns the path of the script
+	 * directory. The directory is resolved on the first use, not when the
+	 * class is loaded.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the path of the script directory
+	 */
+	public static String getScriptDirectory() {
+		return ApplicationStorageManager.INSTANCE.getScriptDirectory().getAbsolutePath();
+	}
+
+	/**
+	 * Method {@code getStoreDirectory} returns the path of the store
+	 * directory. The directory is resolved on the first use, not when the
+	 * class is loaded.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the path of the store directory
+	 */
+	public static String getStoreDirectory() {
+		return ApplicationStorageManager.INSTANCE.getStoreDirectory().getAbsolutePath();
+	}
+
+	/**
+	 * Method {@code executeScript} executes the given script of the script
+	 * directory and waits for it to finish. The execution time is recorded in
+	 * the {@code script.<name>} histogram.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param scriptName
+	 *            the file name of the script
+	 * @return the exit value of the script
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	protected int executeScript(String scriptName) throws IOException, InterruptedException {
+		return runScript(scriptName, null);
+	}
+
+	/**
+	 * Method {@code executeScriptForOutput} executes the given script of the
+	 * script directory and returns its standard output. The execution time is
+	 * recorded in the {@code script.<name>} histogram.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param scriptName
+	 *            the file name of the script
+	 * @return the output of the script
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	protected String executeScriptForOutput(String scriptName) throws IOException, InterruptedException {
+		StringBuilder outputBuilder = new StringBuilder();
+		runScript(scriptName, outputBuilder);
+		return outputBuilder.toString();
+	}
+
+	/**
+	 * Method {@code startScript} starts the given script of the script
+	 * directory without waiting for it. Its output is discarded.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param scriptName
+	 *            the file name of the script
+	 * @return the process of the script
+	 * @throws IOException
+	 */
+	protected Process startScript(String scriptName) throws IOException {
+		String script = getScriptDirectory() + "/" + scriptName;
+		RpiLogger.info(logger, "Starting script: {}", script);
+
+		File devNull = new File("/dev/null");
+		return new ProcessBuilder("/bin/bash", script).redirectOutput(devNull).redirectError(devNull).start();
+	}
+
+	/**
+	 * Method {@code stopScript} stops a script started by
+	 * {@link #startScript(String)} if it is still running. The script gets a
+	 * {@code SIGTERM} first, so it can stop the processes it started in the
+	 * background, and is killed if it did not exit in time.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param process
+	 *            the process of the script, can be null
+	 */
+	protected void stopScript(Process process) {
+		if (Objects.isNull(process) || !process.isAlive()) {
+			return;
+		}
+
+		process.destroy();
+
+		try {
+			if (!process.waitFor(SCRIPT_STOP_TIMEOUT, TimeUnit.SECONDS)) {
+				logger.warn("Script did not stop in time, killing it.");
+				process.destroyForcibly();
+			}
+		} catch (InterruptedException cause) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Method {@code storeCaptures} moves the given captures into the
+	 * {@link MediaStore}, so they are kept until uploaded and are not
+	 * overwritten by the next capture. A capture which can not be stored is
+	 * used from where it is.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param captures
+	 *            the captured files
+	 * @return the stored files, in the same order
+	 */
+	protected File[] storeCaptures(File... captures) {
+		File[] stored = new File[captures.length];
+
+		for (int index = 0; index < captures.length; index++) {
+			try {
+				stored[index] = MediaStore.INSTANCE.store(captures[index], jobName.name()).getFile();
+			} catch (Throwable cause) {
+				logger.error("Unable to store capture: " + captures[index] + ". Reason: " + cause.getMessage());
+				stored[index] = captures[index];
+			}
+		}
+
+		return stored;
+	}
+
+	/**
+	 * Method {@code markUploaded} marks the given stored captures as uploaded,
+	 * so the {@link MediaStore} may evict them.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param stored
+	 *            the files returned by {@link #storeCaptures(File...)}
+	 */
+	protected void markUploaded(File... stored) {
+		for (File file : stored) {
+			try {
+				MediaStore.INSTANCE.markUploaded(StringUtils.substringBefore(file.getName(), "."));
+			} catch (Throwable cause) {
+				logger.error("Unable to mark capture uploaded: " + file + ". Reason: " + cause.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Method {@code markUploaded} marks the given stored captures as uploaded,
+	 * except the ones whose prepared file failed to upload. A prepared file is
+	 * named after the hash of its capture.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param stored
+	 *            the files returned by {@link #storeCaptures(File...)}
+	 * @param failed
+	 *            the prepared files which could not be uploaded
+	 */
+	protected void markUploaded(File[] stored, Collection<File> failed) {
+		Set<String> failedHashes = failed.stream().map(file -> StringUtils.substringBefore(file.getName(), ".")).collect(Collectors.toSet());
+
+		for (File file : stored) {
+			if (!failedHashes.contains(StringUtils.substringBefore(file.getName(), "."))) {
+				markUploaded(file);
+			}
+		}
+	}
+
+	/**
+	 * Method {@code markCovered} marks the given stored captures as covered by
+	 * an earlier upload of the same scene, so the {@link MediaStore} neither
+	 * retries their upload nor evicts them before their retention period.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param stored
+	 *            the files returned by {@link #storeCaptures(File...)}
+	 */
+	protected void markCovered(File... stored) {
+		for (File file : stored) {
+			try {
+				MediaStore.INSTANCE.markCovered(StringUtils.substringBefore(file.getName(), "."));
+			} catch (Throwable cause) {
+				logger.error("Unable to mark capture covered: " + file + ". Reason: " + cause.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Method {@code readTemperature} reads the ambient temperature by executing
+	 * the temperature script. A successful reading is stored in the
+	 * {@link TemperatureCache}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the reading or null if the output of the script is not readable
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	protected TemperatureReading readTemperature() throws IOException, InterruptedException {
+		String output = executeScriptForOutput("showTemp.sh");
+		Matcher matcher = TEMPERATURE_PATTERN.matcher(output);
+
+		if (matcher.find()) {
+			String reading = matcher.group();
+			output = reading.split("(T|t)(=)")[1];
+		}
+
+		if (StringUtils.isNotBlank(output) && NumberUtils.isNumber(output)) {
+			int temperatureInMili = Integer.parseInt(output);
+			return TemperatureCache.INSTANCE.update(temperatureInMili / 1000d);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method {@code runScript} executes the given script, collecting its
+	 * output if an output builder is given.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param scriptName
+	 *            the file name of the script
+	 * @param outputBuilder
+	 *            the builder to collect the output, or null
+	 * @return the exit value of the script
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private int runScript(String scriptName, StringBuilder outputBuilder) throws IOException, InterruptedException {
+		String script = getScriptDirectory() + "/" + scriptName;
+		String metricName = "script." + StringUtils.removeEnd(scriptName, ".sh");
+
+		RpiLogger.info(logger, "Executing script: {}", script);
+
+		long startedAt = System.nanoTime();
+		Process process = new ProcessBuilder("/bin/bash", script).start();
+
+		try {
+			if (Objects.nonNull(outputBuilder)) {
+				try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+					String line;
+
+					while ((line = bufferedReader.readLine()) != null) {
+						outputBuilder.append(line);
+						outputBuilder.append("\n");
+					}
+				}
+			}
+
+			int exitValue = process.waitFor();
+			RpiLogger.info(logger, "Script executed. Exit value: {}", exitValue);
+
+			if (exitValue != 0) {
+				MetricsRegistry.INSTANCE.counter(metricName + ".failures").increment();
+			}
+
+			return exitValue;
+		} finally {
+			MetricsRegistry.INSTANCE.histogram(metricName).recordSince(startedAt);
+			process.destroy();
+		}
+	}
 }
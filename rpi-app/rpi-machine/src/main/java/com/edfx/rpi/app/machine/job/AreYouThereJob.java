@@ -1,16 +1,11 @@
 package com.edfx.rpi.app.machine.job;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.TemperatureReading;
 import com.edfx.rpi.app.utils.audio.media.CommandResponse;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
 
@@ -82,49 +77,13 @@ public abstract class AreYouThereJob extends ImmediateJob {
 		String message = StringUtils.EMPTY;
 
 		try {
-			String shell = "/bin/bash";
-			String script = SCRIPT_DIR + "/showTemp.sh";
-			String[] command = new String[] { shell, script };
-
-			logger.info("Executing script: " + script);
-
-			ProcessBuilder processBuilder = new ProcessBuilder(command);
-			Process process = processBuilder.start();
-
-			StringBuilder outputBuilder = new StringBuilder();
-			InputStream inputStream = process.getInputStream();
-			InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-			BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-
-			String line = StringUtils.EMPTY;
-
-			while ((line = bufferedReader.readLine()) != null) {
-				outputBuilder.append(line);
-				outputBuilder.append("\n");
-			}
-
-			process.waitFor();
-
-			int exitValue = process.exitValue();
-			logger.info("Script executed. Exit value: " + exitValue);
-			process.destroy();
-
-			String output = outputBuilder.toString();
-			Pattern pattern = Pattern.compile("(T|t)(=)(-)*[(0-9)]*");
-			Matcher matcher = pattern.matcher(outputBuilder.toString());
-
-			if (matcher.find()) {
-				String reading = matcher.group();
-				output = reading.split("(T|t)(=)")[1];
-			}
-
+			TemperatureReading reading = readTemperature();
 			double celsius = 0;
 			double fahrenheit = 0;
 
-			if (StringUtils.isNotBlank(output) && NumberUtils.isNumber(output)) {
-				int temperatureInMili = Integer.parseInt(output);
-				celsius = temperatureInMili / 1000d;
-				fahrenheit = (celsius * 1.8) + 32;
+			if (Objects.nonNull(reading)) {
+				celsius = reading.getCelsius();
+				fahrenheit = reading.getFahrenheit();
 			}
 
 			message = "Current ambient temperature is: " + celsius + "°C/ " + fahrenheit + "°F.";
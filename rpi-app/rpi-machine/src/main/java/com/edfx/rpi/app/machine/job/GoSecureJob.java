@@ -4,14 +4,20 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.capture.CaptureCoordinator;
+import com.edfx.rpi.app.machine.capture.CaptureType;
+import com.edfx.rpi.app.machine.image.FrameDeduplicator;
+import com.edfx.rpi.app.machine.image.ImageProcessor;
 import com.edfx.rpi.app.utils.audio.media.CommandResponse;
+import com.edfx.rpi.app.utils.event.EventHub;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
 
 /**
@@ -28,6 +34,8 @@ public abstract class GoSecureJob extends ImmediateJob {
 
 	private final Logger logger = RpiLogger.getLogger(getClass());
 	private final AtomicBoolean running = new AtomicBoolean(true);
+	private final AtomicBoolean unchanged = new AtomicBoolean(false);
+	private final FrameDeduplicator frameDeduplicator = new FrameDeduplicator();
 	private Process process;
 
 	/**
@@ -47,38 +55,15 @@ public abstract class GoSecureJob extends ImmediateJob {
 	 * @since RPI V1.0
 	 */
 	private void takeImages() {
-		File[] files = null;
 		play(CommandResponse.INTRUDER_ALERT);
 
-		try {
-			String shell = "/bin/bash";
-			String script = SCRIPT_DIR + "/take3Pics.sh";
-			String[] command = new String[] { shell, script };
-
-			logger.info("Executing script: " + script);
-
-			ProcessBuilder processBuilder = new ProcessBuilder(command);
-			Process process = processBuilder.start();
-			process.waitFor();
-			int exitValue = process.exitValue();
-			logger.info("Script executed. Exit value: " + exitValue);
-			process.destroy();
-
-			files = new File[] { new File(STORE_DIR, "left.jpg"), new File(STORE_DIR, "center.jpg"), new File(STORE_DIR, "right.jpg") };
-		} catch (Throwable cause) {
-			logger.error(cause);
-		}
-
 		String message = StringUtils.EMPTY;
+		String url = CaptureCoordinator.INSTANCE.captureNow(CaptureType.IMAGES, this::captureImages);
 
-		if (Objects.nonNull(files)) {
-			String url = uploadFiles(files);
-
-			if (StringUtils.isNotBlank(url)) {
-				StringBuilder messageBuilder = new StringBuilder("Please click the below links to view the images: ");
-				messageBuilder.append(url);
-				message = messageBuilder.toString();
-			}
+		if (StringUtils.isNotBlank(url)) {
+			StringBuilder messageBuilder = new StringBuilder(unchanged.getAndSet(false) ? "Nothing has changed since the images at: " : "Please click the below links to view the images: ");
+			messageBuilder.append(url);
+			message = messageBuilder.toString();
 		}
 
 		if (StringUtils.isBlank(message)) {
@@ -106,7 +91,7 @@ public abstract class GoSecureJob extends ImmediateJob {
 
 			while (isRunning()) {
 				String shell = "/bin/bash";
-				String script = SCRIPT_DIR + "/startSecure.sh";
+				String script = getScriptDirectory() + "/startSecure.sh";
 				String[] command = new String[] { shell, script };
 
 				logger.info("Executing script: " + script);
@@ -131,6 +116,7 @@ public abstract class GoSecureJob extends ImmediateJob {
 				if (StringUtils.contains(outputBuilder, "MOTION_DETECTED")) {
 					process.destroy();
 					logger.info("Motion Detected.");
+					EventHub.INSTANCE.publish("motion.detected");
 
 					setMessage("Intruder alert, Sending Images soon.");
 					notifyUser();
@@ -178,6 +164,49 @@ public abstract class GoSecureJob extends ImmediateJob {
 		process.destroy();
 	}
 
+	/**
+	 * Method {@code captureImages} takes the three images, downsizes them and
+	 * uploads them. It is run through {@link CaptureCoordinator}, so it is
+	 * skipped if the images are being taken for another request. The images
+	 * are not uploaded if the {@link FrameDeduplicator} finds them the same as
+	 * recently uploaded ones, the link to those is returned instead and the
+	 * images are marked covered in the store, so they are not uploaded later
+	 * but are kept for a while.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link to the album, or an empty String if failed
+	 */
+	private String captureImages() {
+		try {
+			executeScript("take3Pics.sh");
+		} catch (Throwable cause) {
+			logger.error(cause);
+			return StringUtils.EMPTY;
+		}
+
+		File[] files = storeCaptures(new File(getStoreDirectory(), "left.jpg"), new File(getStoreDirectory(), "center.jpg"), new File(getStoreDirectory(), "right.jpg"));
+		long[] hashes = frameDeduplicator.hash(files);
+		String url = frameDeduplicator.findDuplicate(hashes);
+
+		if (StringUtils.isNotBlank(url)) {
+			logger.info("Scene unchanged, skipping upload.");
+			unchanged.set(true);
+			markCovered(files);
+			return url;
+		}
+
+		Collection<File> failed = new ArrayList<>();
+		url = uploadFiles(ImageProcessor.INSTANCE.prepareForUpload(files, CAMERA_POSITIONS), failed);
+
+		if (StringUtils.isNotBlank(url)) {
+			markUploaded(files, failed);
+			frameDeduplicator.remember(hashes, url);
+		}
+
+		return url;
+	}
+
 	/**
 	 * Method {@code sendAcknowledgement} is used to send acknowledgement on job
 	 * receive.
@@ -194,7 +223,10 @@ public abstract class GoSecureJob extends ImmediateJob {
 	 * @since RPI V1.0
 	 * @param files
 	 *            to be uploaded
-	 * @return the link to the file
+	 * @param failed
+	 *            receives the files which could not be uploaded while the
+	 *            others were
+	 * @return the link to the file, or an empty String if none is uploaded
 	 */
-	public abstract String uploadFiles(File[] files);
+	public abstract String uploadFiles(File[] files, Collection<File> failed);
 }
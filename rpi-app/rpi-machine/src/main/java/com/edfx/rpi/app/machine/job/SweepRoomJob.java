@@ -1,23 +1,37 @@
 package com.edfx.rpi.app.machine.job;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.capture.CaptureCoordinator;
+import com.edfx.rpi.app.machine.capture.CaptureType;
+import com.edfx.rpi.app.machine.capture.SegmentUpload;
 import com.edfx.rpi.app.utils.audio.media.CommandResponse;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
 
 /**
  * Class {@code SweepRoomJob} is executed when RPI receives the command
  * <b>"sweep room"</b>. Its records a video, uploads the video in Google Drive
- * and send the link to the master.
+ * and send the link to the master. <br/>
+ * If {@code video.segmented} is set in {@code media.properties} the video is
+ * recorded in segments of a few seconds and each segment is uploaded as soon
+ * as it is closed, while the next one is being recorded.
  * 
  * @author Tapas Bose
  * @since RPI V1.0
  */
 public abstract class SweepRoomJob extends QueuingJob {
+	private static final String SEGMENT_PREFIX = "sweepSegment";
+	private static final String SEGMENT_EXTENSION = ".h264";
+	private static final long POLL_INTERVAL = 250;
 
 	private final Logger logger = RpiLogger.getLogger(getClass());
 
@@ -47,52 +61,272 @@ public abstract class SweepRoomJob extends QueuingJob {
 		beginExecution();
 		setMessage("Recording started.");
 		sendAcknowledgement();
-		File file = null;
+		String message = StringUtils.EMPTY;
+		String url = CaptureCoordinator.INSTANCE.capture(CaptureType.VIDEO, this::captureVideo);
+
+		if (StringUtils.isNotBlank(url)) {
+			StringBuilder messageBuilder = new StringBuilder("Click the following link to view the video: ");
+			messageBuilder.append(url);
+			message = messageBuilder.toString();
+		}
+
+		if (StringUtils.isBlank(message)) {
+			message = "Unable to record video.";
+		}
+
+		endExecution();
+		setMessage(message);
+		notifyUser();
+
+		if (reEnableSecure) {
+			startSecure();
+		}
+	}
+
+	/**
+	 * Method {@code captureVideo} records the video and uploads it. It is run
+	 * through {@link CaptureCoordinator}, so it is skipped if the video is
+	 * being recorded for another request.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link to the video, or an empty String if failed
+	 */
+	private String captureVideo() {
+		java.util.Properties properties = PropertiesLoader.INSTANCE.getProperties(Properties.MEDIA);
+
+		if (Objects.nonNull(properties) && Boolean.parseBoolean(properties.getProperty("video.segmented"))) {
+			return captureSegmentedVideo();
+		}
+
+		try {
+			executeScript("takeSweepVid.sh");
+		} catch (Throwable cause) {
+			logger.error(cause);
+			return StringUtils.EMPTY;
+		}
+
+		File[] files = storeCaptures(new File(getStoreDirectory(), "sweepVideo.mpg"));
+		String url = uploadVideo(files[0]);
+
+		if (StringUtils.isNotBlank(url)) {
+			markUploaded(files);
+		}
+
+		return url;
+	}
+
+	/**
+	 * Method {@code captureSegmentedVideo} records the video in segments and
+	 * uploads each segment once the recorder moved on to the next one. The
+	 * last segment is uploaded when the recording script exits. The raw H.264
+	 * segments are put in an MP4 container first, without transcoding, and
+	 * kept in the {@link com.edfx.rpi.app.utils.storage.MediaStore} until
+	 * uploaded. The segments left over by an interrupted recording are stored
+	 * as pending before a new one starts. The recording never waits for the
+	 * network: a segment which can not be uploaded, or all of them if the
+	 * upload can not be started, stays pending for a later upload while the
+	 * recording goes on. If the recording itself fails partway through, the
+	 * script is stopped and the segments uploaded so far are still shared.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link to the segments, or an empty String if failed
+	 */
+	private String captureSegmentedVideo() {
+		File storeDirectory = new File(getStoreDirectory());
+		Process process = null;
+		SegmentUpload segmentUpload = null;
+		int uploaded = 0;
 
 		try {
-			String shell = "/bin/bash";
-			String script = SCRIPT_DIR + "/takeSweepVid.sh";
-			String[] command = new String[] { shell, script };
+			storeLeftoverSegments(storeDirectory);
+
+			process = startScript("takeSweepVidSegmented.sh");
+
+			try {
+				segmentUpload = startSegmentUpload();
+			} catch (Throwable cause) {
+				logger.error("Unable to start the segment upload, the segments are kept for later. Reason: " + cause.getMessage());
+			}
+
+			boolean recording = true;
+
+			while (recording) {
+				recording = process.isAlive();
+
+				File[] segments = listSegments(storeDirectory);
+				int closed = recording ? segments.length - 1 : segments.length;
 
-			logger.info("Executing script: " + script);
+				for (int index = 0; index < closed; index++) {
+					File segment = remux(segments[index]);
+					boolean segmentUploaded = Objects.nonNull(segmentUpload) && uploadSegment(segmentUpload, segment);
+					File stored = storeSegment(segments[index], segment);
 
-			ProcessBuilder processBuilder = new ProcessBuilder(command);
-			Process process = processBuilder.start();
-			process.waitFor();
-			int exitValue = process.exitValue();
-			logger.info("Script executed. Exit value: " + exitValue);
-			process.destroy();
+					if (segmentUploaded) {
+						markUploaded(stored);
+						uploaded++;
+					}
+				}
 
-			file = new File(STORE_DIR, "sweepVideo.mpg");
+				if (recording) {
+					TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL);
+				}
+			}
 		} catch (Throwable cause) {
 			logger.error(cause);
+		} finally {
+			stopScript(process);
 		}
 
-		String message = StringUtils.EMPTY;
+		return completeSegmentUpload(segmentUpload, uploaded);
+	}
 
-		if (Objects.nonNull(file)) {
-			String url = uploadVideo(file);
+	/**
+	 * Method {@code completeSegmentUpload} shares the uploaded segments, or
+	 * discards the upload if not a single segment was uploaded.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param segmentUpload
+	 *            the upload, can be null if it could not be started
+	 * @param uploaded
+	 *            the number of uploaded segments
+	 * @return the link to the segments, or an empty String if none
+	 */
+	private String completeSegmentUpload(SegmentUpload segmentUpload, int uploaded) {
+		if (Objects.isNull(segmentUpload)) {
+			return StringUtils.EMPTY;
+		}
 
-			if (StringUtils.isNotBlank(url)) {
-				StringBuilder messageBuilder = new StringBuilder("Click the following link to view the video: ");
-				messageBuilder.append(url);
-				message = messageBuilder.toString();
+		try {
+			if (uploaded > 0) {
+				return segmentUpload.complete();
 			}
+
+			segmentUpload.abort();
+		} catch (Throwable cause) {
+			logger.error(cause);
 		}
 
-		if (StringUtils.isBlank(message)) {
-			message = "Unable to record video.";
+		return StringUtils.EMPTY;
+	}
+
+	/**
+	 * Method {@code uploadSegment} uploads the given segment. A failure is
+	 * logged and counted, the recording goes on.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param segmentUpload
+	 *            the upload
+	 * @param segment
+	 *            the segment
+	 * @return true if uploaded
+	 */
+	private boolean uploadSegment(SegmentUpload segmentUpload, File segment) {
+		long startedAt = System.nanoTime();
+
+		try {
+			segmentUpload.upload(segment);
+			return true;
+		} catch (Throwable cause) {
+			MetricsRegistry.INSTANCE.counter("video.segment.upload.failures").increment();
+			logger.error("Unable to upload segment, it is kept for later: " + segment + ". Reason: " + cause.getMessage());
+			return false;
+		} finally {
+			MetricsRegistry.INSTANCE.histogram("video.segment.upload").recordSince(startedAt);
 		}
+	}
 
-		endExecution();
-		setMessage(message);
-		notifyUser();
+	/**
+	 * Method {@code storeLeftoverSegments} stores the segments left over by an
+	 * interrupted recording as pending, so they are uploaded later instead of
+	 * being overwritten.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param storeDirectory
+	 *            the store directory
+	 */
+	private void storeLeftoverSegments(File storeDirectory) {
+		for (File segment : listSegments(storeDirectory)) {
+			logger.info("Storing segment left over by an earlier recording: " + segment);
+			storeSegment(segment, remux(segment));
+		}
 
-		if (reEnableSecure) {
-			startSecure();
+		File[] remuxed = storeDirectory.listFiles((directory, name) -> name.startsWith(SEGMENT_PREFIX));
+
+		for (File segment : Objects.nonNull(remuxed) ? remuxed : new File[0]) {
+			logger.info("Storing segment left over by an earlier recording: " + segment);
+			storeCaptures(segment);
 		}
 	}
 
+	/**
+	 * Method {@code storeSegment} stores the remuxed segment and deletes the
+	 * raw one it was made from, so it is not taken again. A remuxed segment
+	 * which could not be stored is stored by the next recording.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param raw
+	 *            the raw segment
+	 * @param segment
+	 *            the remuxed segment, or the raw one if it could not be
+	 *            remuxed
+	 * @return the stored segment
+	 */
+	private File storeSegment(File raw, File segment) {
+		File stored = storeCaptures(segment)[0];
+
+		if (!segment.equals(raw)) {
+			raw.delete();
+		}
+
+		return stored;
+	}
+
+	/**
+	 * Method {@code listSegments} lists the segments in the store directory in
+	 * the order they were recorded.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param storeDirectory
+	 *            the store directory
+	 * @return the segments
+	 */
+	private static File[] listSegments(File storeDirectory) {
+		File[] segments = storeDirectory.listFiles((directory, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION));
+
+		if (Objects.isNull(segments)) {
+			return new File[0];
+		}
+
+		Arrays.sort(segments);
+		return segments;
+	}
+
+	/**
+	 * Method {@code remux} copies the given raw H.264 segment into an MP4
+	 * container so that it can be played in the browser.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param segment
+	 *            the raw segment
+	 * @return the MP4 file, or the raw segment if it could not be remuxed
+	 */
+	private File remux(File segment) {
+		File target = new File(segment.getParentFile(), StringUtils.removeEnd(segment.getName(), SEGMENT_EXTENSION) + ".mp4");
+		File devNull = new File("/dev/null");
+
+		try {
+			Process process = new ProcessBuilder("avconv", "-v", "error", "-r", "30", "-i", segment.getAbsolutePath(), "-c", "copy", "-y", target.getAbsolutePath()).redirectOutput(devNull).redirectError(devNull).start();
+
+			if (process.waitFor() == 0 && target.length() > 0) {
+				return target;
+			}
+		} catch (Throwable cause) {
+			logger.error("Unable to remux segment: " + segment + ". Reason: " + cause.getMessage());
+		}
+
+		return segment;
+	}
+
 	/**
 	 * Method {@code sendAcknowledgement} is used to send acknowledgement on job receive.
 	 * @author Tapas Bose
@@ -109,6 +343,15 @@ public abstract class SweepRoomJob extends QueuingJob {
 	 */
 	public abstract String uploadVideo(File file);
 
+	/**
+	 * Method {@code startSegmentUpload} starts the upload of a segmented video.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the upload the segments are handed to
+	 * @throws java.io.IOException
+	 */
+	public abstract SegmentUpload startSegmentUpload() throws java.io.IOException;
+
 	/**
 	 * Method {@code startSecure} motion sensor while this job is running.
 	 * @author Tapas Bose
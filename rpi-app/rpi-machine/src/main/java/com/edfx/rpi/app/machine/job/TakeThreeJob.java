@@ -1,11 +1,15 @@
 package com.edfx.rpi.app.machine.job;
 
 import java.io.File;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.capture.CaptureCoordinator;
+import com.edfx.rpi.app.machine.capture.CaptureType;
+import com.edfx.rpi.app.machine.image.ImageProcessor;
 import com.edfx.rpi.app.utils.audio.media.CommandResponse;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
 
@@ -48,37 +52,13 @@ public abstract class TakeThreeJob extends QueuingJob {
 		beginExecution();
 		setMessage("Taking Images, sending you links soon.");
 		sendAcknowledgement();
-		File[] files = null;
-
-		try {
-			String shell = "/bin/bash";
-			String script = SCRIPT_DIR + "/take3Pics.sh";
-			String[] command = new String[] { shell, script };
-
-			logger.info("Executing script: " + script);
-
-			ProcessBuilder processBuilder = new ProcessBuilder(command);
-			Process process = processBuilder.start();
-			process.waitFor();
-			int exitValue = process.exitValue();
-			logger.info("Script executed. Exit value: " + exitValue);
-			process.destroy();
-
-			files = new File[] { new File(STORE_DIR, "left.jpg"), new File(STORE_DIR, "center.jpg"), new File(STORE_DIR, "right.jpg") };
-		} catch (Throwable cause) {
-			logger.error(cause);
-		}
-
 		String message = StringUtils.EMPTY;
+		String url = CaptureCoordinator.INSTANCE.capture(CaptureType.IMAGES, this::captureImages);
 
-		if (Objects.nonNull(files)) {
-			String url = uploadFiles(files);
-
-			if (StringUtils.isNotBlank(url)) {
-				StringBuilder messageBuilder = new StringBuilder("Please click the below links to view the images: ");
-				messageBuilder.append(url);
-				message = messageBuilder.toString();
-			}
+		if (StringUtils.isNotBlank(url)) {
+			StringBuilder messageBuilder = new StringBuilder("Please click the below links to view the images: ");
+			messageBuilder.append(url);
+			message = messageBuilder.toString();
 		}
 
 		if (StringUtils.isBlank(message)) {
@@ -94,6 +74,34 @@ public abstract class TakeThreeJob extends QueuingJob {
 		}
 	}
 
+	/**
+	 * Method {@code captureImages} takes the three images, downsizes them and
+	 * uploads them. It is run through {@link CaptureCoordinator}, so it is
+	 * skipped if the images are being taken for another request.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link to the album, or an empty String if failed
+	 */
+	private String captureImages() {
+		try {
+			executeScript("take3Pics.sh");
+		} catch (Throwable cause) {
+			logger.error(cause);
+			return StringUtils.EMPTY;
+		}
+
+		File[] files = storeCaptures(new File(getStoreDirectory(), "left.jpg"), new File(getStoreDirectory(), "center.jpg"), new File(getStoreDirectory(), "right.jpg"));
+		Collection<File> failed = new ArrayList<>();
+		String url = uploadFiles(ImageProcessor.INSTANCE.prepareForUpload(files, CAMERA_POSITIONS), failed);
+
+		if (StringUtils.isNotBlank(url)) {
+			markUploaded(files, failed);
+		}
+
+		return url;
+	}
+
 	/**
 	 * Method {@code sendAcknowledgement} is used to send acknowledgement on job
 	 * receive.
@@ -110,9 +118,12 @@ public abstract class TakeThreeJob extends QueuingJob {
 	 * @since RPI V1.0
 	 * @param files
 	 *            to be uploaded
-	 * @return the link to the file
+	 * @param failed
+	 *            receives the files which could not be uploaded while the
+	 *            others were
+	 * @return the link to the file, or an empty String if none is uploaded
 	 */
-	public abstract String uploadFiles(File[] files);
+	public abstract String uploadFiles(File[] files, Collection<File> failed);
 
 	/**
 	 * Method {@code startSecure} starts the motion sensor while this job is running.
@@ -0,0 +1,39 @@
+package com.edfx.rpi.app.service.application;
+
+import com.edfx.rpi.app.utils.audio.AudioPlayer;
+import com.edfx.rpi.app.utils.config.ConfigurationManager;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
+import com.edfx.rpi.app.utils.registry.ServiceRegistry;
+import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+import com.edfx.rpi.app.utils.tasks.BlinkLedTask;
+import com.edfx.rpi.app.utils.tasks.ConnectivityCheckingTask;
+
+/**
+ * Class {@code RpiServices} registers the device services used by the
+ * {@link RpiServletContextListener} with the {@link ServiceRegistry}. The
+ * services of the social connections are registered by
+ * {@link com.edfx.rpi.app.social.SocialServices}.
+ * <br/>
+ * Each service is created on its first use, after the services it depends on,
+ * so a path of the startup which does not need a service does not pay for it.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class RpiServices {
+	static final ServiceProvider<ApplicationStorageManager> STORAGE = ServiceRegistry.INSTANCE.register("storage", () -> ApplicationStorageManager.INSTANCE);
+	static final ServiceProvider<ConfigurationManager> CONFIGURATION = ServiceRegistry.INSTANCE.register("configuration", () -> ConfigurationManager.INSTANCE, "storage");
+	static final ServiceProvider<AudioPlayer> AUDIO = ServiceRegistry.INSTANCE.register("audio", () -> AudioPlayer.INSTANCE, "storage");
+	static final ServiceProvider<ConnectivityCheckingTask> CONNECTIVITY = ServiceRegistry.INSTANCE.register("connectivity", () -> ConnectivityCheckingTask.INSTANCE, "audio");
+	static final ServiceProvider<BlinkLedTask> BLINK_LED = ServiceRegistry.INSTANCE.register("blink-led", () -> BlinkLedTask.INSTANCE, "storage");
+
+	/**
+	 * Constructor {@code RpiServices}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private RpiServices() {
+
+	}
+}
@@ -5,11 +5,11 @@ import java.time.temporal.ChronoField;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.naming.ConfigurationException;
 import javax.servlet.ServletContextEvent;
@@ -19,7 +19,9 @@ import javax.servlet.annotation.WebListener;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.MachineController;
 import com.edfx.rpi.app.social.Communicator;
+import com.edfx.rpi.app.social.SocialServices;
 import com.edfx.rpi.app.social.google.GoogleManager;
 import com.edfx.rpi.app.social.twitter.TwitterManager;
 import com.edfx.rpi.app.utils.audio.AudioPlayer;
@@ -31,11 +33,14 @@ import com.edfx.rpi.app.utils.audio.media.Minute;
 import com.edfx.rpi.app.utils.audio.media.Month;
 import com.edfx.rpi.app.utils.audio.media.Period;
 import com.edfx.rpi.app.utils.audio.media.Year;
+import com.edfx.rpi.app.utils.bootstrap.BootstrapPipeline;
 import com.edfx.rpi.app.utils.config.Configuration;
 import com.edfx.rpi.app.utils.config.ConfigurationManager;
 import com.edfx.rpi.app.utils.config.WifiConfiguration;
 import com.edfx.rpi.app.utils.config.speaker.ConfigurationExceptionSpeaker;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
+import com.edfx.rpi.app.utils.registry.ServiceRegistry;
 import com.edfx.rpi.app.utils.tasks.BlinkLedTask;
 import com.edfx.rpi.app.utils.tasks.ConnectivityCheckingTask;
 import com.edfx.rpi.app.utils.tasks.ShutdownTask;
@@ -60,17 +65,33 @@ import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 @WebListener
 public class RpiServletContextListener implements ServletContextListener {
 
+	private static final long STREAM_CONNECTION_TIMEOUT = 60;
+
 	private final Logger logger = RpiLogger.getLogger(getClass());
 
 	private final RpiThreadFactory rpiThreadFactory = RpiThreadFactory.INSTANCE;
 	private final ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(rpiThreadFactory);
-	private final ConfigurationManager configurationManager = ConfigurationManager.INSTANCE;
-	private final TwitterManager twitterManager = TwitterManager.INSTANCE;
-	private final GoogleManager googleManager = GoogleManager.INSTANCE;
-	private final Communicator communicator = Communicator.INSTANCE;
-	private final ConnectivityCheckingTask connectivityCheckingTask = ConnectivityCheckingTask.INSTANCE;
-	private final BlinkLedTask blinkLedTask = BlinkLedTask.INSTANCE;
-	private final AudioPlayer audioPlayer = AudioPlayer.INSTANCE;
+	private final ServiceProvider<ConfigurationManager> configurationManager = RpiServices.CONFIGURATION;
+	private final ServiceProvider<TwitterManager> twitterManager = SocialServices.TWITTER;
+	private final ServiceProvider<GoogleManager> googleManager = SocialServices.GOOGLE;
+	private final ServiceProvider<Communicator> communicator = SocialServices.COMMUNICATOR;
+	private final ServiceProvider<MachineController> machineController = SocialServices.MACHINE;
+	private final ServiceProvider<ConnectivityCheckingTask> connectivityCheckingTask = RpiServices.CONNECTIVITY;
+	private final ServiceProvider<BlinkLedTask> blinkLedTask = RpiServices.BLINK_LED;
+	private final ServiceProvider<AudioPlayer> audioPlayer = RpiServices.AUDIO;
+
+	private Thread awaitingAuthPinThread;
+
+	/**
+	 * Class {@code PinAuthorization} is the outcome of the authorization of a
+	 * service by the Authorization Pin received by mail.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private enum PinAuthorization {
+		AUTHORIZED, REJECTED, NOT_RECEIVED;
+	}
 
 	/**
 	 * 
@@ -97,13 +118,14 @@ public class RpiServletContextListener implements ServletContextListener {
 	public void contextInitialized(ServletContextEvent event) {
 		logger.info("RPI initialization started...");
 
-		boolean computerIsConnectedToNetwork = connectivityCheckingTask.isConnectedToNetworkWithSpeech();
+		boolean computerIsConnectedToNetwork = connectivityCheckingTask.get().isConnectedToNetworkWithSpeech();
 		logger.info("Network Status: " + (computerIsConnectedToNetwork ? "Connected." : "Not connected."));
 
 		// service.scheduleWithFixedDelay(connectivityCheckingTask, 0, 10,
 		// TimeUnit.SECONDS);
 
 		initialize(computerIsConnectedToNetwork);
+		logger.info(ServiceRegistry.INSTANCE.getReport());
 		logger.info("RPI initialization completed...");
 	}
 
@@ -127,11 +149,28 @@ public class RpiServletContextListener implements ServletContextListener {
 			service.shutdownNow();
 		}
 
-		connectivityCheckingTask.shutdown();
-		twitterManager.shutdown();
-		communicator.stopCommunication();
+		if (Objects.nonNull(awaitingAuthPinThread)) {
+			awaitingAuthPinThread.interrupt();
+		}
+
+		connectivityCheckingTask.get().shutdown();
+
+		if (twitterManager.isCreated()) {
+			twitterManager.get().shutdown();
+		}
+
+		if (communicator.isCreated()) {
+			communicator.get().stopCommunication();
+		} else if (machineController.isCreated()) {
+			machineController.get().shutdown();
+		}
+
+		if (googleManager.isCreated()) {
+			googleManager.get().shutdown();
+		}
 
 		logger.info("RPI shutdown process completed...");
+		RpiLogger.shutdown();
 	}
 
 	/**
@@ -148,7 +187,7 @@ public class RpiServletContextListener implements ServletContextListener {
 		if (!computerIsConnectedToNetwork) {
 			rpiThreadFactory.newThread(() -> {
 				while (true) {
-					boolean isConnected = connectivityCheckingTask.isConnected();
+					boolean isConnected = connectivityCheckingTask.get().isConnected();
 
 					if (isConnected) {
 						break;
@@ -168,6 +207,11 @@ public class RpiServletContextListener implements ServletContextListener {
 	 * Otherwise checks if the Social Media is configured or not. If it is not
 	 * configured then configures it. <br/>
 	 * Else initialize the Social Media components viz, Google and Twitter. <br/>
+	 * The phases run through a {@link BootstrapPipeline}, so the independent
+	 * ones run concurrently and the wake up message and speech are deferred
+	 * until the Twitter stream is connected. The Wi-Fi is configured before
+	 * any phase which uses the network, as configuring it drops the link. If a
+	 * critical phase fails the startup stops there and the LED blinks. <br/>
 	 * It also sounds appropriate messages during the initialization or
 	 * configuration.
 	 * 
@@ -176,30 +220,36 @@ public class RpiServletContextListener implements ServletContextListener {
 	 */
 	private void initialize() {
 		logger.info("Checking Application configuration...");
-		
-		checkAndConfigureWifi();
 
-		if (configurationManager.checkReset()) {
-			logger.info("Resetting configuration.");
-			configurationManager.reset();
+		BootstrapPipeline pipeline = new BootstrapPipeline("RPI startup");
+		pipeline.addTask("wifi", this::checkAndConfigureWifi);
+		pipeline.addTask("reset", this::checkAndReset);
+
+		if (!pipeline.execute()) {
+			reportStartupFailure();
+			pipeline.finish();
+			return;
 		}
 
 		try {
-			boolean twitterConfigured = twitterManager.isConfigured();
-			boolean googleConfigured = googleManager.isConfigured();
+			boolean twitterConfigured = twitterManager.get().isConfigured();
+			boolean googleConfigured = googleManager.get().isConfigured();
 
 			if (twitterConfigured & googleConfigured) {
 				logger.info("Google manager is configured.");
 				logger.info("Twitter manager is configured.");
 
-				googleManager.initialize();
-				googleManager.initializeServiceProvider();
+				pipeline.addTask("google", () -> googleManager.get().initialize(), "wifi", "reset");
+				pipeline.addTask("google-service-provider", () -> googleManager.get().initializeServiceProvider(), "google");
+				pipeline.addTask("twitter-stream", () -> twitterManager.get().initialize(), "wifi", "reset");
+				pipeline.addTask("communicator", () -> communicator.get().startCommunication(), "google-service-provider", "twitter-stream");
+				pipeline.addDeferredTask("twitter-stream-live", this::awaitStreamConnection, "twitter-stream");
+				pipeline.addDeferredTask("wake-up-message", () -> twitterManager.get().sendWakeUpMessage(), "twitter-stream-live", "google");
+				pipeline.addDeferredTask("wake-up-speech", this::playAwake, "twitter-stream-live");
 
-				twitterManager.initialize();
-
-				communicator.startCommunication();
-
-				speakAwake();
+				if (!pipeline.execute()) {
+					reportStartupFailure();
+				}
 			} else {
 				speakNotConfigured();
 
@@ -207,114 +257,233 @@ public class RpiServletContextListener implements ServletContextListener {
 				logger.info("Twitter manager is not configured.");
 
 				Configuration configuration = getConfiguration();
-				configurationManager.deleteConfigFile();
+				configurationManager.get().deleteConfigFile();
 
-				blinkLedTask.setFrequency(new String[] { "2", "2", "4" });
-				blinkLedTask.run(true);
-				Thread blinkingLedThread = rpiThreadFactory.newThread(blinkLedTask);
-				blinkingLedThread.start();
+				startConfigurationBlinking();
 
-				googleManager.configureForFirstTime(configuration);
+				googleManager.get().configureForFirstTime(configuration);
 
-				String googleAuthenticationUrl = googleManager.getAuthorizationUrl();
-				String twitterAuthenticationUrl = twitterManager.getAuthorizationUrl();
+				String googleAuthenticationUrl = googleManager.get().getAuthorizationUrl();
+				String twitterAuthenticationUrl = twitterManager.get().getAuthorizationUrl();
 
 				final String rpiGoggleHandle = configuration.rpiGmailAccount;
 				final String rpiTwitterHandle = configuration.rpiTwitterAccount;
 
-				googleManager.sendConfigurationMail(twitterAuthenticationUrl, googleAuthenticationUrl, rpiGoggleHandle, rpiTwitterHandle);
-				googleManager.startMailReceiver();
+				googleManager.get().clearTokens();
+				googleManager.get().sendConfigurationMail(twitterAuthenticationUrl, googleAuthenticationUrl, rpiGoggleHandle, rpiTwitterHandle);
+				googleManager.get().startMailReceiver();
 
-				final ScheduledExecutorService awaitingAuthPinService = Executors.newSingleThreadScheduledExecutor();
+				awaitingAuthPinThread = rpiThreadFactory.newThread(() -> awaitAuthorizationPins(configuration));
+				awaitingAuthPinThread.start();
+			}
+		} catch (Throwable cause) {
+			logger.error(cause.getMessage(), cause);
+		} finally {
+			pipeline.finish();
+		}
+	}
 
-				final AtomicBoolean googleConfiguredFirstTime = new AtomicBoolean(false);
-				final AtomicBoolean twitterConfiguredFirstTime = new AtomicBoolean(false);
+	/**
+	 * Method {@code awaitAuthorizationPins} waits for the mails containing the
+	 * Authorization Pins. As soon as a mail arrives the Google and the Twitter
+	 * authorizations are performed concurrently. If a received pin is rejected
+	 * a new authorization mail is sent only for that service, and the pins
+	 * received before it are discarded. Once both the services are authorized
+	 * the configuration is completed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param configuration
+	 *            the Configuration of the RPI Application
+	 */
+	private void awaitAuthorizationPins(final Configuration configuration) {
+		final String rpiGoggleHandle = configuration.rpiGmailAccount;
+		final String rpiTwitterHandle = configuration.rpiTwitterAccount;
+
+		ExecutorService authorizationService = Executors.newFixedThreadPool(2, rpiThreadFactory);
+
+		boolean googleConfiguredFirstTime = false;
+		boolean twitterConfiguredFirstTime = false;
+
+		try {
+			while (!(googleConfiguredFirstTime & twitterConfiguredFirstTime)) {
+				logger.info("Waiting for Authorization Pins...");
+				String[] tokens = googleManager.get().awaitTokens();
+				logger.info("Pin found.");
+
+				if (!blinkLedTask.get().isRunning()) {
+					startConfigurationBlinking();
+				}
 
-				awaitingAuthPinService.scheduleWithFixedDelay(() -> {
-					logger.info("Waiting for Authorization Pins...");
+				final String googleToken = tokens[0];
+				final String twitterToken = tokens[1];
 
-					if (!blinkLedTask.isRunning()) {
-						blinkLedTask.setFrequency(new String[] { "2", "2", "4" });
-						blinkLedTask.run(true);
-						Thread blinkingLedThreadInner = rpiThreadFactory.newThread(blinkLedTask);
-						blinkingLedThreadInner.start();
+				CompletableFuture<PinAuthorization> googleAuthorization = googleConfiguredFirstTime ? CompletableFuture.completedFuture(PinAuthorization.AUTHORIZED) : CompletableFuture.supplyAsync(() -> authorizeGoogle(googleToken), authorizationService);
+				CompletableFuture<PinAuthorization> twitterAuthorization = twitterConfiguredFirstTime ? CompletableFuture.completedFuture(PinAuthorization.AUTHORIZED) : CompletableFuture.supplyAsync(() -> authorizeTwitter(configuration, twitterToken), authorizationService);
+
+				PinAuthorization googleResult = googleAuthorization.join();
+				PinAuthorization twitterResult = twitterAuthorization.join();
+
+				googleConfiguredFirstTime = googleResult == PinAuthorization.AUTHORIZED;
+				twitterConfiguredFirstTime = twitterResult == PinAuthorization.AUTHORIZED;
+
+				try {
+					// The pins received so far belong to the authorization URLs being replaced.
+					if (googleResult == PinAuthorization.REJECTED | twitterResult == PinAuthorization.REJECTED) {
+						googleManager.get().clearTokens();
 					}
 
-					try {
-						String[] tokens = googleManager.getTokens();
-
-						if (Objects.nonNull(tokens)) {
-							logger.info("Pin found.");
-							String googleToken = tokens[0];
-							String twitterToken = tokens[1];
-
-							if (StringUtils.isNotBlank(googleToken)) {
-								logger.info("Google Pin Received: " + googleToken);
-								logger.info("Configuring Google for the first time.");
-
-								try {
-									googleManager.initializeServiceProvider(googleToken);
-									googleConfiguredFirstTime.set(true);
-								} catch (Throwable cause) {
-									logger.error(cause);
-								}
-							}
-
-							if (StringUtils.isNotBlank(twitterToken)) {
-								logger.info("Twitter Pin Received: " + twitterToken);
-								logger.info("Configuring Twitter for the first time.");
-
-								try {
-									twitterManager.configureForFirstTime(configuration, twitterToken);
-									twitterConfiguredFirstTime.set(true);
-								} catch (Throwable cause) {
-									logger.error(cause);
-								}
-							}
-
-							if (twitterConfiguredFirstTime.get() && googleConfiguredFirstTime.get()) {
-								try {
-									logger.info("Application configured to use Google and Twitter services.");
-									googleManager.stopMailReceiver();
-									awaitingAuthPinService.shutdown();
-
-									blinkLedTask.run(false);
-
-									logger.info("Configuration done.");
-									speakConfigured();
-									speakAwake();
-								} catch (Throwable ignore) {
-								}
-							} else {
-								if (!googleConfiguredFirstTime.get()) {
-									logger.info("Google configuration failed. Unable to authorize token: " + googleToken);
-									String googleReAuthenticationUrl = googleManager.getAuthorizationUrl();
-									googleManager.sendConfigurationMailForGoogle(googleReAuthenticationUrl, rpiGoggleHandle);
-								} else if (!twitterConfiguredFirstTime.get()) {
-									logger.info("Twitter configuration failed. Unable to authorize token: " + twitterToken);
-									String twitterReAuthenticationUrl = twitterManager.getAuthorizationUrl();
-									googleManager.sendConfigurationMailForTwitter(twitterReAuthenticationUrl, rpiTwitterHandle);
-								} else {
-									logger.info("Google configuration failed. Unable to authorize token: " + googleToken);
-									logger.info("Twitter configuration failed. Unable to authorize token: " + twitterToken);
-									String googleReAuthenticationUrl = googleManager.getAuthorizationUrl();
-									String twitterReAuthenticationUrl = twitterManager.getAuthorizationUrl();
-
-									googleManager.sendConfigurationMail(googleReAuthenticationUrl, twitterReAuthenticationUrl, rpiGoggleHandle, rpiTwitterHandle);
-								}
-							}
-
-							googleManager.setTokens(null);
-						} else {
-							logger.info("No pin found yet.");
-						}
-					} catch (Throwable cause) {
-						logger.error(cause.getMessage(), cause);
+					if (googleResult == PinAuthorization.REJECTED & twitterResult == PinAuthorization.REJECTED) {
+						String googleReAuthenticationUrl = googleManager.get().getAuthorizationUrl();
+						String twitterReAuthenticationUrl = twitterManager.get().getAuthorizationUrl();
+						googleManager.get().sendConfigurationMail(twitterReAuthenticationUrl, googleReAuthenticationUrl, rpiGoggleHandle, rpiTwitterHandle);
+					} else if (googleResult == PinAuthorization.REJECTED) {
+						String googleReAuthenticationUrl = googleManager.get().getAuthorizationUrl();
+						googleManager.get().sendConfigurationMailForGoogle(googleReAuthenticationUrl, rpiGoggleHandle);
+					} else if (twitterResult == PinAuthorization.REJECTED) {
+						String twitterReAuthenticationUrl = twitterManager.get().getAuthorizationUrl();
+						googleManager.get().sendConfigurationMailForTwitter(twitterReAuthenticationUrl, rpiTwitterHandle);
 					}
-				}, 0, 10, TimeUnit.SECONDS);
+				} catch (Throwable cause) {
+					logger.error(cause.getMessage(), cause);
+				}
 			}
+
+			logger.info("Application configured to use Google and Twitter services.");
+			googleManager.get().stopMailReceiver();
+			blinkLedTask.get().run(false);
+
+			logger.info("Configuration done.");
+			speakConfigured();
+			speakAwake();
+		} catch (InterruptedException cause) {
+			logger.info("Stopped waiting for Authorization Pins.");
 		} catch (Throwable cause) {
 			logger.error(cause.getMessage(), cause);
+		} finally {
+			authorizationService.shutdown();
+		}
+	}
+
+	/**
+	 * Method {@code authorizeGoogle} configures Google for the first time with
+	 * the given Authorization Pin.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param googleToken
+	 *            the Google Authorization Pin, may be blank
+	 * @return the outcome of the authorization
+	 */
+	private PinAuthorization authorizeGoogle(String googleToken) {
+		if (StringUtils.isBlank(googleToken)) {
+			return PinAuthorization.NOT_RECEIVED;
+		}
+
+		logger.info("Google Pin Received: " + googleToken);
+		logger.info("Configuring Google for the first time.");
+
+		try {
+			googleManager.get().initializeServiceProvider(googleToken);
+			return PinAuthorization.AUTHORIZED;
+		} catch (Throwable cause) {
+			logger.error(cause);
+			logger.info("Google configuration failed. Unable to authorize token: " + googleToken);
+		}
+
+		return PinAuthorization.REJECTED;
+	}
+
+	/**
+	 * Method {@code authorizeTwitter} configures Twitter for the first time
+	 * with the given Authorization Pin.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param configuration
+	 *            the Configuration of the RPI Application
+	 * @param twitterToken
+	 *            the Twitter Authorization Pin, may be blank
+	 * @return the outcome of the authorization
+	 */
+	private PinAuthorization authorizeTwitter(Configuration configuration, String twitterToken) {
+		if (StringUtils.isBlank(twitterToken)) {
+			return PinAuthorization.NOT_RECEIVED;
+		}
+
+		logger.info("Twitter Pin Received: " + twitterToken);
+		logger.info("Configuring Twitter for the first time.");
+
+		try {
+			twitterManager.get().configureForFirstTime(configuration, twitterToken);
+			return PinAuthorization.AUTHORIZED;
+		} catch (Throwable cause) {
+			logger.error(cause);
+			logger.info("Twitter configuration failed. Unable to authorize token: " + twitterToken);
+		}
+
+		return PinAuthorization.REJECTED;
+	}
+
+	/**
+	 * Method {@code startConfigurationBlinking} starts blinking the LED to
+	 * indicate that RPI is waiting to be configured.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void startConfigurationBlinking() {
+		blinkLedTask.get().setFrequency(new String[] { "2", "2", "4" });
+		blinkLedTask.get().run(true);
+		rpiThreadFactory.newThread(blinkLedTask.get()).start();
+	}
+
+	/**
+	 * Method {@code reportStartupFailure} reports that a critical phase of the
+	 * startup failed and blinks the LED, as RPI is not able to receive the
+	 * instructions of its Master. The failed phase is logged by the
+	 * {@link BootstrapPipeline}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void reportStartupFailure() {
+		logger.error("RPI startup failed, see the startup timing report for the failed phase.");
+
+		if (!blinkLedTask.get().isRunning()) {
+			blinkLedTask.get().setFrequency(new String[] { ".25", ".25", "4" });
+			blinkLedTask.get().run(true);
+			rpiThreadFactory.newThread(blinkLedTask.get()).start();
+		}
+	}
+
+	/**
+	 * Method {@code checkAndReset} resets the configuration of RPI if it is
+	 * requested.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void checkAndReset() {
+		if (configurationManager.get().checkReset()) {
+			logger.info("Resetting configuration.");
+			configurationManager.get().reset();
+		}
+	}
+
+	/**
+	 * Method {@code awaitStreamConnection} waits until the Twitter stream is
+	 * connected, i.e. until RPI is able to receive the instructions of its
+	 * Master. If it takes longer than {@link #STREAM_CONNECTION_TIMEOUT}
+	 * seconds the deferred phases are not held back any longer.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws InterruptedException
+	 */
+	private void awaitStreamConnection() throws InterruptedException {
+		if (!twitterManager.get().awaitStreamConnection(STREAM_CONNECTION_TIMEOUT, TimeUnit.SECONDS)) {
+			logger.info("Twitter stream is not connected yet, proceeding.");
 		}
 	}
 
@@ -323,15 +492,13 @@ public class RpiServletContextListener implements ServletContextListener {
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
-	private void checkAndConfigureWifi() {		
-		rpiThreadFactory.newThread(()->{
-			WifiConfiguration wifiConfiguration = configurationManager.getWifiConfiguration();
-			
-			if(Objects.nonNull(wifiConfiguration)) {
-				WifiConfigureTask.INSTANCE.configure(wifiConfiguration);
-				configurationManager.deleteWifiConfigFile();
-			}
-		}).start();
+	private void checkAndConfigureWifi() {
+		WifiConfiguration wifiConfiguration = configurationManager.get().getWifiConfiguration();
+
+		if (Objects.nonNull(wifiConfiguration)) {
+			WifiConfigureTask.INSTANCE.configure(wifiConfiguration);
+			configurationManager.get().deleteWifiConfigFile();
+		}
 	}
 
 	/**
@@ -343,7 +510,7 @@ public class RpiServletContextListener implements ServletContextListener {
 	 */
 	private void speakConfigured() {
 		rpiThreadFactory.newThread(() -> {
-			audioPlayer.play(Commons.CONFIGURATION_SUCCESSFULL);
+			audioPlayer.get().play(Commons.CONFIGURATION_SUCCESSFULL);
 		}).start();
 	}
 
@@ -354,38 +521,47 @@ public class RpiServletContextListener implements ServletContextListener {
 	 * @since RPI V1.0
 	 */
 	private void speakAwake() {
-		rpiThreadFactory.newThread(() -> {
-			List<Media> medias = new ArrayList<>();
-			medias.add(Commons.AWAKE);
-			medias.add(Commons.CURRENT_DATE_TIME);
+		rpiThreadFactory.newThread(this::playAwake).start();
+	}
 
-			LocalDateTime now = LocalDateTime.now();
+	/**
+	 * Method {@code playAwake} plays the awake message along with the current
+	 * date and time in the calling thread.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void playAwake() {
+		List<Media> medias = new ArrayList<>();
+		medias.add(Commons.AWAKE);
+		medias.add(Commons.CURRENT_DATE_TIME);
 
-			int dayOfMonth = now.get(ChronoField.DAY_OF_MONTH);
-			Day day = Day.of(dayOfMonth);
-			medias.add(day);
+		LocalDateTime now = LocalDateTime.now();
 
-			int monthOfYear = now.get(ChronoField.MONTH_OF_YEAR);
-			Month month = Month.of(monthOfYear);
-			medias.add(month);
+		int dayOfMonth = now.get(ChronoField.DAY_OF_MONTH);
+		Day day = Day.of(dayOfMonth);
+		medias.add(day);
 
-			int year = now.get(ChronoField.YEAR);
-			medias.add(Year.of(year));
+		int monthOfYear = now.get(ChronoField.MONTH_OF_YEAR);
+		Month month = Month.of(monthOfYear);
+		medias.add(month);
 
-			int hourOfDay = now.get(ChronoField.CLOCK_HOUR_OF_AMPM);
-			Hour hour = Hour.of(hourOfDay);
-			medias.add(hour);
+		int year = now.get(ChronoField.YEAR);
+		medias.add(Year.of(year));
 
-			int minuteOfHour = now.get(ChronoField.MINUTE_OF_HOUR);
-			Minute minute = Minute.of(minuteOfHour);
-			medias.add(minute);
+		int hourOfDay = now.get(ChronoField.CLOCK_HOUR_OF_AMPM);
+		Hour hour = Hour.of(hourOfDay);
+		medias.add(hour);
 
-			int ampmOfDay = now.get(ChronoField.AMPM_OF_DAY);
-			Period period = Period.of(ampmOfDay);
-			medias.add(period);
+		int minuteOfHour = now.get(ChronoField.MINUTE_OF_HOUR);
+		Minute minute = Minute.of(minuteOfHour);
+		medias.add(minute);
 
-			audioPlayer.play(medias, 100);
-		}).start();
+		int ampmOfDay = now.get(ChronoField.AMPM_OF_DAY);
+		Period period = Period.of(ampmOfDay);
+		medias.add(period);
+
+		audioPlayer.get().play(medias, 100);
 	}
 
 	/**
@@ -396,7 +572,7 @@ public class RpiServletContextListener implements ServletContextListener {
 	 */
 	private void speakNotConfigured() {
 		rpiThreadFactory.newThread(() -> {
-			audioPlayer.play(Commons.NOT_CONFIGURED);
+			audioPlayer.get().play(Commons.NOT_CONFIGURED);
 		}).start();
 	}
 
@@ -414,7 +590,7 @@ public class RpiServletContextListener implements ServletContextListener {
 		Configuration configuration = null;
 
 		try {
-			configuration = configurationManager.getConfiguration();
+			configuration = configurationManager.get().getConfiguration();
 		} catch (Throwable cause) {
 			handleConfigurationException(cause);
 		}
@@ -0,0 +1,145 @@
+package com.edfx.rpi.app.service.servlet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+
+/**
+ * Class {@code ApiAuthenticator} authenticates the callers of the local HTTP
+ * API. The token is generated on the first use and stored in the config
+ * directory, from where the owner of RPI copies it to the LAN clients. A caller
+ * passes it as {@code Authorization: Bearer <token>}, as the
+ * {@code X-Rpi-Token} header or, for the clients which cannot set headers, as
+ * the {@code token} request parameter.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+enum ApiAuthenticator {
+	INSTANCE;
+
+	private static final int TOKEN_LENGTH = 24;
+	private static final String BEARER = "Bearer ";
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final ApplicationStorageManager applicationStorageManager = ApplicationStorageManager.INSTANCE;
+
+	private volatile byte[] token;
+
+	/**
+	 * Constructor {@code ApiAuthenticator}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private ApiAuthenticator() {
+
+	}
+
+	/**
+	 * Method {@code isAuthorized} checks the token passed with the given
+	 * request. The comparison takes the same time whichever character differs.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 *            the request to check
+	 * @return true if the request carries the token
+	 */
+	boolean isAuthorized(HttpServletRequest request) {
+		String presented = getPresentedToken(request);
+
+		if (StringUtils.isBlank(presented)) {
+			return false;
+		}
+
+		try {
+			return MessageDigest.isEqual(getToken(), presented.getBytes(StandardCharsets.UTF_8));
+		} catch (Throwable cause) {
+			logger.error("Unable to load the API token. " + cause.getMessage(), cause);
+			return false;
+		}
+	}
+
+	/**
+	 * Method {@code getPresentedToken} returns the token passed with the given
+	 * request.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 *            the request
+	 * @return the token or null
+	 */
+	private String getPresentedToken(HttpServletRequest request) {
+		String authorization = request.getHeader("Authorization");
+
+		if (StringUtils.startsWithIgnoreCase(authorization, BEARER)) {
+			return StringUtils.trim(authorization.substring(BEARER.length()));
+		}
+
+		String header = request.getHeader("X-Rpi-Token");
+		return StringUtils.isNotBlank(header) ? StringUtils.trim(header) : request.getParameter("token");
+	}
+
+	/**
+	 * Method {@code getToken} returns the token, reading it from the storage
+	 * or generating it if it does not exist yet.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the token
+	 */
+	private byte[] getToken() {
+		byte[] token = this.token;
+
+		if (Objects.nonNull(token)) {
+			return token;
+		}
+
+		synchronized (this) {
+			if (Objects.isNull(this.token)) {
+				String storedToken = applicationStorageManager.readApiToken();
+
+				if (StringUtils.isBlank(storedToken)) {
+					storedToken = generateToken();
+					applicationStorageManager.writeApiToken(storedToken);
+					logger.info("API token generated: " + applicationStorageManager.getApiTokenFile());
+				}
+
+				this.token = storedToken.getBytes(StandardCharsets.UTF_8);
+			}
+
+			return this.token;
+		}
+	}
+
+	/**
+	 * Method {@code generateToken} generates a random token.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the token in hexadecimal
+	 */
+	private static String generateToken() {
+		byte[] bytes = new byte[TOKEN_LENGTH];
+		new SecureRandom().nextBytes(bytes);
+
+		StringBuilder builder = new StringBuilder(TOKEN_LENGTH * 2);
+
+		for (byte value : bytes) {
+			builder.append(String.format("%02x", value));
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,227 @@
+package com.edfx.rpi.app.service.servlet;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.social.SocialServices;
+import com.edfx.rpi.app.social.Responder;
+import com.edfx.rpi.app.social.command.Command;
+import com.edfx.rpi.app.social.command.CommandProcessor;
+import com.edfx.rpi.app.utils.common.JsonUtils;
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+
+/**
+ * Class {@code CommandServlet} is the local HTTP API to command RPI from the
+ * LAN. The {@code instruction} parameter is interpreted by the
+ * {@link CommandProcessor} exactly like a direct message and the command is
+ * submitted to the {@link Communicator}. The responses of the command are
+ * streamed back as they come, one JSON object per line, and the response ends
+ * when the command is handled. The request is processed asynchronously, no
+ * container thread waits for the Job.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@WebServlet(urlPatterns = "/command", asyncSupported = true)
+public class CommandServlet extends HttpServlet {
+	private static final long serialVersionUID = -6184163508412381544L;
+
+	private static final long RESPONSE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	/**
+	 * Class {@code HttpResponder} writes the responses of a command to the
+	 * asynchronous response.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private static final class HttpResponder implements Responder, AsyncListener {
+		private final AsyncContext asyncContext;
+		private boolean done;
+
+		/**
+		 * Constructor {@code HttpResponder}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param asyncContext
+		 *            the context of the asynchronous request
+		 */
+		private HttpResponder(AsyncContext asyncContext) {
+			this.asyncContext = asyncContext;
+		}
+
+		/**
+		 * Method {@code respond} writes and flushes a message line.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param message
+		 *            the message
+		 * @see com.edfx.rpi.app.social.Responder#respond(java.lang.String)
+		 */
+		@Override
+		public synchronized void respond(String message) {
+			write("{\"message\":" + JsonUtils.quote(message) + "}\n");
+		}
+
+		/**
+		 * Method {@code complete} ends the response.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @see com.edfx.rpi.app.social.Responder#complete()
+		 */
+		@Override
+		public synchronized void complete() {
+			if (!done) {
+				done = true;
+				asyncContext.complete();
+			}
+		}
+
+		/**
+		 * Method {@code write} writes the given line unless the response is
+		 * already ended.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param line
+		 *            the line to write
+		 */
+		private void write(String line) {
+			if (done) {
+				return;
+			}
+
+			try {
+				HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+				response.getWriter().write(line);
+				response.flushBuffer();
+			} catch (Throwable cause) {
+				complete();
+			}
+		}
+
+		/**
+		 * Method {@code onTimeout} ends the response when the command takes
+		 * too long. The command itself keeps running.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onTimeout(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public synchronized void onTimeout(AsyncEvent event) {
+			write("{\"timeout\":true}\n");
+			complete();
+		}
+
+		/**
+		 * Method {@code onError}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onError(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public synchronized void onError(AsyncEvent event) {
+			complete();
+		}
+
+		/**
+		 * Method {@code onComplete}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onComplete(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public synchronized void onComplete(AsyncEvent event) {
+			done = true;
+		}
+
+		/**
+		 * Method {@code onStartAsync}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onStartAsync(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+
+		}
+	}
+
+	/**
+	 * Method {@code doPost} submits the command.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 * @param response
+	 * @throws ServletException
+	 * @throws IOException
+	 * @see javax.servlet.http.HttpServlet#doPost(javax.servlet.http.HttpServletRequest,
+	 *      javax.servlet.http.HttpServletResponse)
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (!ApiAuthenticator.INSTANCE.isAuthorized(request)) {
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+
+		String instruction = request.getParameter("instruction");
+		Command command = CommandProcessor.INSTANCE.getCommand(instruction);
+
+		if (Objects.isNull(command)) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown instruction.");
+			return;
+		}
+
+		if (command == Command.CHANGE_MASTER || command == Command.CANCEL_CHANGE_MASTER) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN, "Change master is available over Twitter only.");
+			return;
+		}
+
+		logger.info("Local instruction received: " + instruction);
+
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.setContentType("application/x-ndjson");
+
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(RESPONSE_TIMEOUT);
+
+		HttpResponder responder = new HttpResponder(asyncContext);
+		asyncContext.addListener(responder);
+
+		try {
+			SocialServices.COMMUNICATOR.get().submit(command, responder);
+		} catch (Throwable cause) {
+			logger.error("Unable to process local instruction. " + cause.getMessage(), cause);
+			responder.respond("Unable to process the instruction.");
+			responder.complete();
+		}
+	}
+}
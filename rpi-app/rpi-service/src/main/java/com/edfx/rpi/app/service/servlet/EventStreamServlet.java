@@ -0,0 +1,424 @@
+package com.edfx.rpi.app.service.servlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.event.EventHub;
+import com.edfx.rpi.app.utils.event.RpiEvent;
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
+
+/**
+ * Class {@code EventStreamServlet} streams the events of the {@link EventHub}
+ * to the LAN clients as server-sent events: the start and end of the Jobs, the
+ * motion alerts, the completed uploads and the temperature readings. <br/>
+ * The requests are held asynchronously and a single dispatcher thread hands
+ * the new events to every subscriber, so a subscriber costs no thread. The
+ * output is non-blocking: the events are queued per subscriber and written
+ * only while the connection can take them, so a stalled client never holds up
+ * the others. A subscriber whose queue grows beyond {@link #MAX_QUEUED_BYTES}
+ * is disconnected. A client reconnecting with {@code Last-Event-ID} gets the
+ * events it missed as long as they are still in the buffer of the EventHub.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@WebServlet(urlPatterns = "/events", asyncSupported = true)
+public class EventStreamServlet extends HttpServlet {
+	private static final long serialVersionUID = 7904624283711720581L;
+
+	private static final int MAX_SUBSCRIBERS = 16;
+	private static final int MAX_QUEUED_BYTES = 64 * 1024;
+	private static final long WAIT_INTERVAL = 1;
+	private static final long HEARTBEAT_INTERVAL = TimeUnit.SECONDS.toNanos(15);
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final EventHub eventHub = EventHub.INSTANCE;
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	private volatile boolean running;
+	private transient Thread dispatcherThread;
+
+	/**
+	 * Class {@code Subscriber} is a connected client along with the sequence
+	 * of the next event to send it and the text not written to it yet.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private final class Subscriber implements AsyncListener, WriteListener {
+		private final AsyncContext asyncContext;
+		private final Queue<byte[]> pending = new ArrayDeque<>();
+		private ServletOutputStream output;
+		private int pendingBytes;
+		private boolean flushPending;
+		private long next;
+		private volatile boolean closed;
+
+		/**
+		 * Constructor {@code Subscriber}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param asyncContext
+		 *            the context of the asynchronous request
+		 * @param next
+		 *            the sequence of the first event to send
+		 */
+		private Subscriber(AsyncContext asyncContext, long next) {
+			this.asyncContext = asyncContext;
+			this.next = next;
+		}
+
+		/**
+		 * Method {@code start} switches the response to non-blocking output.
+		 * The container calls {@link #onWritePossible()} as soon as it can
+		 * take the first bytes.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		private void start() {
+			try {
+				ServletOutputStream output = asyncContext.getResponse().getOutputStream();
+
+				synchronized (this) {
+					this.output = output;
+				}
+
+				output.setWriteListener(this);
+			} catch (Throwable cause) {
+				close();
+			}
+		}
+
+		/**
+		 * Method {@code write} queues the given text and writes as much of the
+		 * queue as the connection takes without blocking. The subscriber is
+		 * disconnected if its queue is full, it is not reading the stream.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param text
+		 *            the text to write
+		 */
+		private void write(String text) {
+			if (closed) {
+				return;
+			}
+
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			boolean overflow;
+
+			synchronized (this) {
+				overflow = pendingBytes + bytes.length > MAX_QUEUED_BYTES;
+
+				if (!overflow) {
+					pending.add(bytes);
+					pendingBytes += bytes.length;
+				}
+			}
+
+			if (overflow) {
+				MetricsRegistry.INSTANCE.counter("events.subscribers.dropped").increment();
+				logger.warn("Disconnecting a subscriber which is not reading the events.");
+				close();
+				return;
+			}
+
+			drain();
+		}
+
+		/**
+		 * Method {@code drain} writes the queued text while the output is
+		 * ready, flushing after each piece. When the output stops being ready
+		 * the container calls {@link #onWritePossible()} again later.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		private synchronized void drain() {
+			if (closed || Objects.isNull(output)) {
+				return;
+			}
+
+			try {
+				while (output.isReady()) {
+					if (flushPending) {
+						flushPending = false;
+						output.flush();
+						continue;
+					}
+
+					byte[] bytes = pending.poll();
+
+					if (Objects.isNull(bytes)) {
+						return;
+					}
+
+					pendingBytes -= bytes.length;
+					output.write(bytes);
+					flushPending = true;
+				}
+			} catch (Throwable cause) {
+				close();
+			}
+		}
+
+		/**
+		 * Method {@code close} ends the stream of the subscriber.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		private void close() {
+			if (!closed) {
+				closed = true;
+				subscribers.remove(this);
+
+				try {
+					asyncContext.complete();
+				} catch (Throwable ignore) {
+				}
+			}
+		}
+
+		/**
+		 * Method {@code onComplete}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onComplete(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public void onComplete(AsyncEvent event) {
+			closed = true;
+			subscribers.remove(this);
+		}
+
+		/**
+		 * Method {@code onTimeout}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onTimeout(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			close();
+		}
+
+		/**
+		 * Method {@code onError}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onError(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public void onError(AsyncEvent event) {
+			close();
+		}
+
+		/**
+		 * Method {@code onStartAsync}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param event
+		 * @see javax.servlet.AsyncListener#onStartAsync(javax.servlet.AsyncEvent)
+		 */
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+
+		}
+
+		/**
+		 * Method {@code onWritePossible}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @see javax.servlet.WriteListener#onWritePossible()
+		 */
+		@Override
+		public void onWritePossible() {
+			drain();
+		}
+
+		/**
+		 * Method {@code onError}
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param cause
+		 * @see javax.servlet.WriteListener#onError(java.lang.Throwable)
+		 */
+		@Override
+		public void onError(Throwable cause) {
+			close();
+		}
+	}
+
+	/**
+	 * Method {@code init} starts the dispatcher thread.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws ServletException
+	 * @see javax.servlet.GenericServlet#init()
+	 */
+	@Override
+	public void init() throws ServletException {
+		running = true;
+		dispatcherThread = RpiThreadFactory.INSTANCE.newThread(this::dispatch);
+		dispatcherThread.start();
+
+		MetricsRegistry.INSTANCE.gauge("events.subscribers", subscribers::size);
+	}
+
+	/**
+	 * Method {@code doGet} subscribes the caller to the events.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 * @param response
+	 * @throws ServletException
+	 * @throws IOException
+	 * @see javax.servlet.http.HttpServlet#doGet(javax.servlet.http.HttpServletRequest,
+	 *      javax.servlet.http.HttpServletResponse)
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (!ApiAuthenticator.INSTANCE.isAuthorized(request)) {
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+
+		if (subscribers.size() >= MAX_SUBSCRIBERS) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many subscribers.");
+			return;
+		}
+
+		long next = eventHub.getCursor();
+		String lastEventId = request.getHeader("Last-Event-ID");
+
+		if (StringUtils.isNotBlank(lastEventId) && NumberUtils.isDigits(lastEventId)) {
+			next = Math.min(next, NumberUtils.toLong(lastEventId) + 1);
+		}
+
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.setContentType("text/event-stream");
+
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(0);
+
+		Subscriber subscriber = new Subscriber(asyncContext, next);
+		asyncContext.addListener(subscriber);
+		subscriber.write("retry: 3000\n\n");
+		subscribers.add(subscriber);
+		subscriber.start();
+	}
+
+	/**
+	 * Method {@code dispatch} is the loop of the dispatcher thread. It waits
+	 * for new events and queues them for the subscribers which have not
+	 * received them yet. A comment line is sent every
+	 * {@link #HEARTBEAT_INTERVAL} to detect the disconnected clients.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void dispatch() {
+		List<RpiEvent> events = new ArrayList<>();
+		StringBuilder builder = new StringBuilder(512);
+		long lastHeartbeat = System.nanoTime();
+
+		while (running) {
+			try {
+				long lowest = eventHub.getCursor();
+
+				for (Subscriber subscriber : subscribers) {
+					lowest = Math.min(lowest, subscriber.next);
+				}
+
+				eventHub.awaitEvents(lowest, WAIT_INTERVAL, TimeUnit.SECONDS);
+
+				boolean heartbeat = System.nanoTime() - lastHeartbeat >= HEARTBEAT_INTERVAL;
+
+				if (heartbeat) {
+					lastHeartbeat = System.nanoTime();
+				}
+
+				for (Subscriber subscriber : subscribers) {
+					events.clear();
+					builder.setLength(0);
+					subscriber.next = eventHub.read(subscriber.next, events);
+
+					for (RpiEvent event : events) {
+						builder.append("id: ").append(event.getSequence()).append('\n');
+						builder.append("event: ").append(event.getType()).append('\n');
+						builder.append("data: ").append(event.getData()).append("\n\n");
+					}
+
+					if (heartbeat && builder.length() == 0) {
+						builder.append(": heartbeat\n\n");
+					}
+
+					if (builder.length() > 0) {
+						subscriber.write(builder.toString());
+					}
+				}
+			} catch (InterruptedException ignore) {
+			} catch (Throwable cause) {
+				logger.error("Unable to dispatch events. " + cause.getMessage(), cause);
+			}
+		}
+	}
+
+	/**
+	 * Method {@code destroy} stops the dispatcher and ends every stream.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see javax.servlet.GenericServlet#destroy()
+	 */
+	@Override
+	public void destroy() {
+		running = false;
+		dispatcherThread.interrupt();
+
+		for (Subscriber subscriber : subscribers) {
+			subscriber.close();
+		}
+
+		MetricsRegistry.INSTANCE.removeGauge("events.subscribers");
+	}
+}
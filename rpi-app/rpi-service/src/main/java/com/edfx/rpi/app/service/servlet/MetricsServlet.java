@@ -0,0 +1,55 @@
+package com.edfx.rpi.app.service.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code MetricsServlet} exposes the metrics of RPI. By default the
+ * metrics are rendered in the Prometheus text format, with
+ * {@code ?format=json} or an {@code Accept: application/json} header they are
+ * rendered as JSON.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@WebServlet(urlPatterns = "/metrics")
+public class MetricsServlet extends HttpServlet {
+	private static final long serialVersionUID = -2430870526364957396L;
+
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	/**
+	 * Method {@code doGet} writes the metrics.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 * @param response
+	 * @throws ServletException
+	 * @throws IOException
+	 * @see javax.servlet.http.HttpServlet#doGet(javax.servlet.http.HttpServletRequest,
+	 *      javax.servlet.http.HttpServletResponse)
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		boolean json = StringUtils.equalsIgnoreCase(request.getParameter("format"), "json") || StringUtils.containsIgnoreCase(request.getHeader("Accept"), "application/json");
+
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.setContentType(json ? "application/json" : "text/plain; version=0.0.4");
+
+		PrintWriter writer = response.getWriter();
+		writer.write(json ? metricsRegistry.toJson() : metricsRegistry.toText());
+		writer.flush();
+	}
+}
@@ -0,0 +1,111 @@
+package com.edfx.rpi.app.service.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.edfx.rpi.app.machine.MachineController;
+import com.edfx.rpi.app.machine.TemperatureCache;
+import com.edfx.rpi.app.machine.TemperatureReading;
+import com.edfx.rpi.app.machine.job.JobName;
+import com.edfx.rpi.app.social.Communicator;
+import com.edfx.rpi.app.social.SocialServices;
+import com.edfx.rpi.app.social.twitter.TwitterManager;
+import com.edfx.rpi.app.utils.common.JsonUtils;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
+import com.edfx.rpi.app.utils.tasks.ConnectivityCheckingTask;
+
+/**
+ * Class {@code StatusServlet} reports the health of RPI as a JSON document.
+ * Every value is read from the in-memory state of the components, no script is
+ * executed and no network call is made, so the endpoint answers immediately
+ * even while the Jobs are running. It never creates a service, the ones not
+ * created yet are reported as idle. Since the document tells whether RPI is
+ * secured, the caller must present the API token like for the other
+ * endpoints.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@WebServlet(urlPatterns = "/status")
+public class StatusServlet extends HttpServlet {
+	private static final long serialVersionUID = 3580476618120945376L;
+
+	private final ConnectivityCheckingTask connectivityCheckingTask = ConnectivityCheckingTask.INSTANCE;
+	private final ServiceProvider<TwitterManager> twitterManager = SocialServices.TWITTER;
+	private final ServiceProvider<Communicator> communicator = SocialServices.COMMUNICATOR;
+	private final ServiceProvider<MachineController> machineController = SocialServices.MACHINE;
+	private final TemperatureCache temperatureCache = TemperatureCache.INSTANCE;
+
+	/**
+	 * Method {@code doGet} writes the status.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param request
+	 * @param response
+	 * @throws ServletException
+	 * @throws IOException
+	 * @see javax.servlet.http.HttpServlet#doGet(javax.servlet.http.HttpServletRequest,
+	 *      javax.servlet.http.HttpServletResponse)
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (!ApiAuthenticator.INSTANCE.isAuthorized(request)) {
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+
+		boolean communicating = communicator.isCreated();
+		boolean twitterCreated = twitterManager.isCreated();
+		JobName currentJob = communicating ? communicator.get().getCurrentJob() : null;
+		TemperatureReading temperature = temperatureCache.getLatest();
+
+		StringBuilder builder = new StringBuilder(512);
+		builder.append("{\"uptime\":").append(ManagementFactory.getRuntimeMXBean().getUptime());
+		builder.append(",\"network\":{\"connected\":").append(connectivityCheckingTask.isLastKnownConnected());
+		builder.append(",\"checkedAt\":").append(connectivityCheckingTask.getLastCheckedAt()).append('}');
+		builder.append(",\"twitterStream\":{\"connected\":").append(twitterCreated && twitterManager.get().isStreamConnected());
+		builder.append(",\"changedAt\":").append(twitterCreated ? twitterManager.get().getStreamStateChangedAt() : 0).append('}');
+		builder.append(",\"secure\":").append(communicating && communicator.get().isSecure());
+		builder.append(",\"currentJob\":").append(Objects.nonNull(currentJob) ? JsonUtils.quote(currentJob.name()) : "null");
+		builder.append(",\"executors\":");
+
+		if (machineController.isCreated()) {
+			MachineController controller = machineController.get();
+			builder.append("{\"immediate\":{\"queued\":").append(controller.getImmediateJobQueueSize());
+			builder.append(",\"active\":").append(controller.getImmediateJobActiveCount());
+			builder.append("},\"queueing\":{\"queued\":").append(controller.getQueueingJobQueueSize());
+			builder.append(",\"active\":").append(controller.getQueueingJobActiveCount()).append("}}");
+		} else {
+			builder.append("null");
+		}
+
+		builder.append(",\"temperature\":");
+
+		if (Objects.nonNull(temperature)) {
+			builder.append("{\"celsius\":").append(temperature.getCelsius());
+			builder.append(",\"fahrenheit\":").append(temperature.getFahrenheit());
+			builder.append(",\"readAt\":").append(temperature.getReadAt()).append('}');
+		} else {
+			builder.append("null");
+		}
+
+		builder.append('}');
+
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.setContentType("application/json");
+
+		PrintWriter writer = response.getWriter();
+		writer.write(builder.toString());
+		writer.flush();
+	}
+}
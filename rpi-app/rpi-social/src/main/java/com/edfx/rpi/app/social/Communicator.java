@@ -2,31 +2,47 @@ package com.edfx.rpi.app.social;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.edfx.rpi.app.machine.MachineController;
+import com.edfx.rpi.app.machine.capture.SegmentUpload;
+import com.edfx.rpi.app.machine.image.ImageProcessor;
 import com.edfx.rpi.app.machine.job.AreYouThereJob;
 import com.edfx.rpi.app.machine.job.GoSecureJob;
 import com.edfx.rpi.app.machine.job.GoToSleepJob;
 import com.edfx.rpi.app.machine.job.IPJob;
 import com.edfx.rpi.app.machine.job.JobName;
+import com.edfx.rpi.app.machine.job.QueuingJob;
 import com.edfx.rpi.app.machine.job.RebootJob;
 import com.edfx.rpi.app.machine.job.SweepRoomJob;
 import com.edfx.rpi.app.machine.job.TakeThreeJob;
 import com.edfx.rpi.app.machine.job.TemperatureJob;
 import com.edfx.rpi.app.social.command.Command;
 import com.edfx.rpi.app.social.command.CommandProcessor;
+import com.edfx.rpi.app.social.google.DriveFolderUpload;
 import com.edfx.rpi.app.social.google.GoogleManager;
+import com.edfx.rpi.app.social.google.PartialUploadException;
+import com.edfx.rpi.app.social.google.UploadPriority;
 import com.edfx.rpi.app.social.master.Master;
 import com.edfx.rpi.app.social.master.MasterProcessor;
 import com.edfx.rpi.app.social.master.MasterType;
@@ -36,7 +52,11 @@ import com.edfx.rpi.app.utils.audio.AudioPlayer;
 import com.edfx.rpi.app.utils.audio.media.CommandResponse;
 import com.edfx.rpi.app.utils.config.SecondaryUserConfiguration;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
 import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+import com.edfx.rpi.app.utils.storage.MediaItem;
+import com.edfx.rpi.app.utils.storage.MediaStore;
 import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 
 /**
@@ -49,17 +69,23 @@ import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 public enum Communicator implements Observer {
 	INSTANCE;
 
+	private static final long PENDING_UPLOAD_AGE_MINUTES = 10;
+	private static final long PENDING_UPLOAD_INTERVAL_MINUTES = 15;
+
 	private final Logger logger = RpiLogger.getLogger(getClass());
 	private final ApplicationStorageManager applicationStorageManager = ApplicationStorageManager.INSTANCE;
 
-	private final GoogleManager googleManager = GoogleManager.INSTANCE;
-	private final TwitterManager twitterManager = TwitterManager.INSTANCE;
-	private final MachineController machineController = MachineController.INSTANCE;
+	private final ServiceProvider<GoogleManager> googleManager = SocialServices.GOOGLE;
+	private final ServiceProvider<TwitterManager> twitterManager = SocialServices.TWITTER;
+	private final ServiceProvider<MachineController> machineController = SocialServices.MACHINE;
 	private final CommandProcessor commandProcessor = CommandProcessor.INSTANCE;
 	private final MasterProcessor masterProcessor = MasterProcessor.INSTANCE;
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final Responder twitterResponder = message -> twitterManager.get().sendDirectMessage(message);
 
-	private final ExecutorService immediateJobExecutor = machineController.getImmediateJobExecutor();
-	private final ExecutorService queueingJobExecutor = machineController.getQueueingJobExecutor();
+	private final ExecutorService immediateJobExecutor = machineController.get().getImmediateJobExecutor();
+	private final ExecutorService queueingJobExecutor = machineController.get().getQueueingJobExecutor();
+	private final ScheduledExecutorService pendingUploadService = Executors.newSingleThreadScheduledExecutor(RpiThreadFactory.INSTANCE);
 
 	private final AtomicBoolean secureModeRunning = new AtomicBoolean(false);
 
@@ -72,7 +98,7 @@ public enum Communicator implements Observer {
 	private final AtomicInteger changeMasterStep = new AtomicInteger(0);
 
 	private GoSecureJob goSecureJob;
-	private JobName currentJob;
+	private volatile JobName currentJob;
 
 	private SecondaryUserConfiguration secondaryUserConfiguration;
 
@@ -89,13 +115,15 @@ public enum Communicator implements Observer {
 	 * Method {@code sayHello} says Hello
 	 * @author Tapas Bose
 	 * @since RPI V1.0
+	 * @param responder the receiver of the response
 	 */
-	private void sayHello() {
+	private void sayHello(final Responder responder) {
 		AreYouThereJob areYouThereJob = new AreYouThereJob(getCurrentJob(), isSecure()) {
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 		};
 
@@ -108,6 +136,17 @@ public enum Communicator implements Observer {
 	 * @since RPI V1.0
 	 */
 	private void startSecure() {
+		startSecure(twitterResponder);
+	}
+
+	/**
+	 * Method {@code startSecure} starts the motion sensor. The acknowledgement
+	 * goes to the given responder, the intruder alerts always go to the master.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param responder the receiver of the acknowledgement
+	 */
+	private void startSecure(final Responder responder) {
 		applicationStorageManager.addSecureLock();
 		setSecure(true);
 
@@ -115,25 +154,18 @@ public enum Communicator implements Observer {
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				twitterManager.get().sendDirectMessage(getMessage());
 			}
 
 			@Override
 			public void sendAcknowledgement() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 
 			@Override
-			public String uploadFiles(File[] files) {
-				try {
-					String url = googleManager.uploadImages(files, "RPI Album: Go Secure");
-					String shortUrl = googleManager.getShortenUrl(url);
-					return shortUrl;
-				} catch (Throwable cause) {
-					logger.error(cause);
-				}
-
-				return StringUtils.EMPTY;
+			public String uploadFiles(File[] files, Collection<File> failed) {
+				return uploadImages(files, "RPI Album: Go Secure", UploadPriority.ALERT, failed);
 			}
 		};
 
@@ -146,8 +178,9 @@ public enum Communicator implements Observer {
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @param stopped
+	 * @param responder the receiver of the response
 	 */
-	private void stopSecure(boolean stopped) {
+	private void stopSecure(boolean stopped, Responder responder) {
 		if (Objects.nonNull(goSecureJob)) {
 			goSecureJob.setRunning(false);
 			goSecureJob.killProcess();
@@ -160,7 +193,7 @@ public enum Communicator implements Observer {
 					AudioPlayer.INSTANCE.play(CommandResponse.STOP_SECURE);
 				}).start();
 
-				twitterManager.sendDirectMessage("Monitoring stopped.");
+				responder.respond("Monitoring stopped.");
 			}
 
 			goSecureJob = null;
@@ -173,7 +206,7 @@ public enum Communicator implements Observer {
 	 * @since RPI V1.0
 	 */
 	private void pasueSecure() {
-		stopSecure(false);
+		stopSecure(false, twitterResponder);
 	}
 
 	/**
@@ -225,27 +258,29 @@ public enum Communicator implements Observer {
 	 * @since RPI V1.0
 	 * @param sendAcknowledgement
 	 * @param reEnableSecure
+	 * @param responder the receiver of the responses
 	 */
-	private void sweepRoom(final boolean sendAcknowledgement, final boolean reEnableSecure) {
+	private void sweepRoom(final boolean sendAcknowledgement, final boolean reEnableSecure, final Responder responder) {
 		SweepRoomJob sweepRoomJob = new SweepRoomJob(reEnableSecure) {
 
 			@Override
 			public void sendAcknowledgement() {
 				if (sendAcknowledgement) {
-					twitterManager.sendDirectMessage(getMessage());
+					responder.respond(getMessage());
 				}
 			}
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 
 			@Override
 			public String uploadVideo(File file) {
 				try {
-					String url = googleManager.uploadVideo(file);
-					String shortUrl = googleManager.getShortenUrl(url);
+					String url = googleManager.get().uploadVideo(file);
+					String shortUrl = googleManager.get().getShortenUrl(url);
 					return shortUrl;
 				} catch (Throwable cause) {
 					logger.error(cause);
@@ -254,6 +289,29 @@ public enum Communicator implements Observer {
 				return StringUtils.EMPTY;
 			}
 
+			@Override
+			public SegmentUpload startSegmentUpload() throws IOException {
+				DriveFolderUpload driveFolderUpload = googleManager.get().startVideoUpload();
+
+				return new SegmentUpload() {
+
+					@Override
+					public void upload(File segment) throws IOException {
+						driveFolderUpload.upload(segment, "video/*");
+					}
+
+					@Override
+					public String complete() throws IOException {
+						return googleManager.get().getShortenUrl(driveFolderUpload.complete());
+					}
+
+					@Override
+					public void abort() throws IOException {
+						driveFolderUpload.abort();
+					}
+				};
+			}
+
 			@Override
 			public void startSecure() {
 				Communicator.INSTANCE.startSecure();
@@ -270,33 +328,27 @@ public enum Communicator implements Observer {
 	 * @since RPI V1.0
 	 * @param sendAcknowledgement
 	 * @param reEnableSecure
+	 * @param responder the receiver of the responses
 	 */
-	private void takeThree(final boolean sendAcknowledgement, final boolean reEnableSecure) {
+	private void takeThree(final boolean sendAcknowledgement, final boolean reEnableSecure, final Responder responder) {
 		TakeThreeJob takeThreeJob = new TakeThreeJob(reEnableSecure) {
 
 			@Override
 			public void sendAcknowledgement() {
 				if (sendAcknowledgement) {
-					twitterManager.sendDirectMessage(getMessage());
+					responder.respond(getMessage());
 				}
 			}
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 
 			@Override
-			public String uploadFiles(File[] files) {
-				try {
-					String url = googleManager.uploadImages(files, "RPI Album: Take Three");
-					String shortUrl = googleManager.getShortenUrl(url);
-					return shortUrl;
-				} catch (Throwable cause) {
-					logger.error(cause);
-				}
-
-				return StringUtils.EMPTY;
+			public String uploadFiles(File[] files, Collection<File> failed) {
+				return uploadImages(files, "RPI Album: Take Three", UploadPriority.ON_DEMAND, failed);
 			}
 
 			@Override
@@ -313,13 +365,15 @@ public enum Communicator implements Observer {
 	 * Method {@code takeTemperature} takes temperature
 	 * @author Tapas Bose
 	 * @since RPI V1.0
+	 * @param responder the receiver of the response
 	 */
-	private void takeTemperature() {
+	private void takeTemperature(final Responder responder) {
 		TemperatureJob temperatureJob = new TemperatureJob() {
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 		};
 
@@ -330,13 +384,15 @@ public enum Communicator implements Observer {
 	 * Method {@code getIp} gets the IP
 	 * @author Tapas Bose
 	 * @since RPI V1.0
+	 * @param responder the receiver of the response
 	 */
-	private void getIp() {
+	private void getIp(final Responder responder) {
 		IPJob ipJob = new IPJob() {
 
 			@Override
 			public void notifyUser() {
-				twitterManager.sendDirectMessage(getMessage());
+				responder.respond(getMessage());
+				responder.complete();
 			}
 		};
 
@@ -344,26 +400,47 @@ public enum Communicator implements Observer {
 	}
 
 	/**
-	 * Method {@code processCommand} process the command
+	 * Method {@code processCommand} process the command, counting the commands
+	 * by name and recording the time taken to dispatch them.
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @param command the command to process
+	 * @param responder the receiver of the responses
+	 */
+	private synchronized void processCommand(final Command command, final Responder responder) {
+		long startedAt = System.nanoTime();
+		metricsRegistry.counter("command." + command.name().toLowerCase(Locale.ENGLISH)).increment();
+
+		try {
+			dispatchCommand(command, responder);
+		} finally {
+			metricsRegistry.histogram("command.dispatch").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code dispatchCommand} launches the Job of the command
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param command the command to dispatch
+	 * @param responder the receiver of the responses
 	 */
-	private void processCommand(final Command command) {
+	private void dispatchCommand(final Command command, final Responder responder) {
 		if (command == Command.ARE_YOU_THERE) {
-			sayHello();
+			sayHello(responder);
 		} else if (command == Command.GO_SECURE) {
 			if (isSecure()) {
-				twitterManager.sendDirectMessage("Already secure.");
+				responder.respond("Already secure.");
+				responder.complete();
 			} else {
-				startSecure();
+				startSecure(responder);
 			}
 		} else if (command == Command.GO_TO_SLEEP) {
 			if (Objects.nonNull(currentJob)) {
 				if (currentJob == JobName.TAKE_THREE) {
-					twitterManager.sendDirectMessage("Will process \"Go to sleep\" after executing \"Take 3\".");
+					responder.respond("Will process \"Go to sleep\" after executing \"Take 3\".");
 				} else if (currentJob == JobName.SWEEP_ROOM) {
-					twitterManager.sendDirectMessage("Will process \"Go to Sleep\" after executing \"Sweep Room\".");
+					responder.respond("Will process \"Go to Sleep\" after executing \"Sweep Room\".");
 				}
 			}
 
@@ -372,12 +449,13 @@ public enum Communicator implements Observer {
 			}
 
 			goToSleep();
+			responder.complete();
 		} else if (command == Command.REBOOT) {
 			if (Objects.nonNull(currentJob)) {
 				if (currentJob == JobName.TAKE_THREE) {
-					twitterManager.sendDirectMessage("Will process \"Reboot\" after executing \"Take 3\".");
+					responder.respond("Will process \"Reboot\" after executing \"Take 3\".");
 				} else if (currentJob == JobName.SWEEP_ROOM) {
-					twitterManager.sendDirectMessage("Will process \"Reboot\" after executing \"Sweep Room\".");
+					responder.respond("Will process \"Reboot\" after executing \"Sweep Room\".");
 				}
 			}
 
@@ -386,18 +464,21 @@ public enum Communicator implements Observer {
 			}
 
 			reboot();
+			responder.complete();
 		} else if (command == Command.STOP_SECURE) {
 			if (isSecure()) {
-				stopSecure(true);
+				stopSecure(true, responder);
 			} else {
-				twitterManager.sendDirectMessage("Secure mode not started.");
+				responder.respond("Secure mode not started.");
 			}
+
+			responder.complete();
 		} else if (command == Command.SWEEP_ROOM) {
 			if (Objects.nonNull(currentJob)) {
 				if (currentJob == JobName.TAKE_THREE) {
-					twitterManager.sendDirectMessage("Will process \"Sweep Room\" after executing \"Take 3\" .");
+					responder.respond("Will process \"Sweep Room\" after executing \"Take 3\" .");
 				} else if (currentJob == JobName.SWEEP_ROOM) {
-					twitterManager.sendDirectMessage("Already sweeping room.");
+					responder.respond("Already sweeping room.");
 				}
 			}
 
@@ -407,17 +488,17 @@ public enum Communicator implements Observer {
 			if (isSecure()) {
 				sendAcknowledgement = false;
 				reEnableSecure = true;
-				twitterManager.sendDirectMessage("Secured mode paused, recording started.");
+				responder.respond("Secured mode paused, recording started.");
 				pasueSecure();
 			}
 
-			sweepRoom(sendAcknowledgement, reEnableSecure);
+			sweepRoom(sendAcknowledgement, reEnableSecure, responder);
 		} else if (command == Command.TAKE_THREE) {
 			if (Objects.nonNull(currentJob)) {
 				if (currentJob == JobName.TAKE_THREE) {
-					twitterManager.sendDirectMessage("Already taking 3.");
+					responder.respond("Already taking 3.");
 				} else if (currentJob == JobName.SWEEP_ROOM) {
-					twitterManager.sendDirectMessage("Will process \"Take 3\" after executing \"Sweep Room\".");
+					responder.respond("Will process \"Take 3\" after executing \"Sweep Room\".");
 				}
 			}
 
@@ -427,15 +508,17 @@ public enum Communicator implements Observer {
 			if (isSecure()) {
 				sendAcknowledgement = false;
 				reEnableSecure = true;
-				twitterManager.sendDirectMessage("Secured mode paused, taking images, sending them soon.");
+				responder.respond("Secured mode paused, taking images, sending them soon.");
 				pasueSecure();
 			}
 
-			takeThree(sendAcknowledgement, reEnableSecure);
+			takeThree(sendAcknowledgement, reEnableSecure, responder);
 		} else if (command == Command.TEMPERATURE) {
-			takeTemperature();
+			takeTemperature(responder);
 		} else if (command == Command.IP) {
-			getIp();
+			getIp(responder);
+		} else {
+			responder.complete();
 		}
 	}
 
@@ -456,7 +539,7 @@ public enum Communicator implements Observer {
 
 			}
 
-			twitterManager.setSecondaryTwitterAccount(null);
+			twitterManager.get().setSecondaryTwitterAccount(null);
 		} catch (Throwable cause) {
 			logger.error(cause.getMessage(), cause);
 		}
@@ -475,14 +558,14 @@ public enum Communicator implements Observer {
 		changeMasterRunningForPrimaryGiveControl.set(false);
 		changeMasterStep.set(0);
 
-		TwitterConfiguration twitterConfiguration = twitterManager.getConfiguration();
+		TwitterConfiguration twitterConfiguration = twitterManager.get().getConfiguration();
 		String primaryMaster = twitterConfiguration.getUserAccount();
 		String secondaryMaster = secondaryUserConfiguration.getTwitterAccount();
 
-		twitterManager.setSecondaryTwitterAccount(secondaryMaster);
+		twitterManager.get().setSecondaryTwitterAccount(secondaryMaster);
 		String primaryMasterMessage = "Thanks, I will now communicate with the secondary master: " + secondaryMaster;
 		String secondaryMasterMessage = "Hello, You are my new master, I am ready to receive commands.";
-		twitterManager.sendDirectMessageOnChangeMaster(primaryMaster, secondaryMaster, primaryMasterMessage, secondaryMasterMessage);
+		twitterManager.get().sendDirectMessageOnChangeMaster(primaryMaster, secondaryMaster, primaryMasterMessage, secondaryMasterMessage);
 
 		if (changeMasterWhereSecondaryMasterExists.get()) {
 			changeMasterWhereSecondaryMasterExists.set(false);
@@ -499,7 +582,7 @@ public enum Communicator implements Observer {
 		if (isAValidEmail(instruction)) {
 			if (isNotSameGoogleAccount(instruction)) {
 				secondaryUserConfiguration.setGoogleAccount(instruction);
-				twitterManager.sendDirectMessage("Got it, now tell me secondary masters Twitter handle.");
+				twitterManager.get().sendDirectMessage("Got it, now tell me secondary masters Twitter handle.");
 
 				if (changeMasterWhereSecondaryMasterExists.get()) {
 					changeMasterStep.set(3);
@@ -507,10 +590,10 @@ public enum Communicator implements Observer {
 					changeMasterStep.set(2);
 				}
 			} else {
-				twitterManager.sendDirectMessage("Google handle: " + instruction + " is already assign to Primary Master. Please provide a different Google handle.");
+				twitterManager.get().sendDirectMessage("Google handle: " + instruction + " is already assign to Primary Master. Please provide a different Google handle.");
 			}
 		} else {
-			twitterManager.sendDirectMessage("\"" + instruction + "\" is not a valid Google handle.");
+			twitterManager.get().sendDirectMessage("\"" + instruction + "\" is not a valid Google handle.");
 		}
 	}
 
@@ -521,7 +604,7 @@ public enum Communicator implements Observer {
 	 * @param instruction
 	 */
 	private void processTwitterAccount(String instruction) {
-		boolean isAValidTwitterAccount = twitterManager.validate(instruction);
+		boolean isAValidTwitterAccount = twitterManager.get().validate(instruction);
 
 		if (isAValidTwitterAccount) {
 			if (isNotSameTwitterAccount(instruction)) {
@@ -529,13 +612,13 @@ public enum Communicator implements Observer {
 					secondaryUserConfiguration.setTwitterAccount(instruction);
 					endChangeMasterInstructionFromPrimaryMasterToGiveControl();
 				} else {
-					twitterManager.sendDirectMessage("You are kidding right!! :-). I cannot make myself as my master.");
+					twitterManager.get().sendDirectMessage("You are kidding right!! :-). I cannot make myself as my master.");
 				}
 			} else {
-				twitterManager.sendDirectMessage("Twitter handle: " + instruction + " is already assign to Primary Master. Please provide a different Twitter handle.");
+				twitterManager.get().sendDirectMessage("Twitter handle: " + instruction + " is already assign to Primary Master. Please provide a different Twitter handle.");
 			}
 		} else {
-			twitterManager.sendDirectMessage("Unable to validate Twitter account.");
+			twitterManager.get().sendDirectMessage("Unable to validate Twitter account.");
 		}
 	}
 
@@ -555,9 +638,9 @@ public enum Communicator implements Observer {
 				} else if (StringUtils.equalsIgnoreCase(instruction, "no")) {
 					changeMasterStep.set(2);
 					secondaryUserConfiguration = new SecondaryUserConfiguration();
-					twitterManager.sendDirectMessage("OK, Tell me secondary masters Google handle.");
+					twitterManager.get().sendDirectMessage("OK, Tell me secondary masters Google handle.");
 				} else {
-					twitterManager.sendDirectMessage("I didn't understand. Please respond in \"Yes\" or \"No\".");
+					twitterManager.get().sendDirectMessage("I didn't understand. Please respond in \"Yes\" or \"No\".");
 				}
 			} else if (changeMasterStep.get() == 2) {
 				processGoogleAccount(instruction);
@@ -588,14 +671,14 @@ public enum Communicator implements Observer {
 		if (StringUtils.equalsIgnoreCase(instruction, "yes")) {
 			String primaryMasterMessage = "Bye, my primary master is back. It was nice talking to you.";
 			String secondaryMasterMessage = "OK, I am ready to communicate with you again.";
-			twitterManager.sendDirectMessageOnChangeMaster(secondaryMaster.getTwitterAccount(), primaryMasterScreenName, primaryMasterMessage, secondaryMasterMessage);
+			twitterManager.get().sendDirectMessageOnChangeMaster(secondaryMaster.getTwitterAccount(), primaryMasterScreenName, primaryMasterMessage, secondaryMasterMessage);
 			changeMasterRunningForPrimaryTakeControl.set(false);
 			eraseSecondaryMasterDetails();
 		} else if (StringUtils.equalsIgnoreCase(instruction, "no")) {
 			changeMasterRunningForPrimaryTakeControl.set(false);
-			twitterManager.sendDirectMessage(primaryMasterScreenName, "OK, See you later.");
+			twitterManager.get().sendDirectMessage(primaryMasterScreenName, "OK, See you later.");
 		} else {
-			twitterManager.sendDirectMessage(primaryMasterScreenName, "I didn't understand. I am still communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?.");
+			twitterManager.get().sendDirectMessage(primaryMasterScreenName, "I didn't understand. I am still communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?.");
 		}
 	}
 
@@ -616,12 +699,12 @@ public enum Communicator implements Observer {
 			changeMasterRunningForSecondaryGiveControl.set(false);
 			String primaryMasterMessage = "OK, Bye, See you later.";
 			String secondaryMasterMessage = "Hello, I am ready to communicate with you again.";
-			twitterManager.sendDirectMessageOnChangeMaster(secondaryMaster.getTwitterAccount(), primaryMasterScreenName, primaryMasterMessage, secondaryMasterMessage);
+			twitterManager.get().sendDirectMessageOnChangeMaster(secondaryMaster.getTwitterAccount(), primaryMasterScreenName, primaryMasterMessage, secondaryMasterMessage);
 		} else if (StringUtils.equalsIgnoreCase(instruction, "no")) {
 			changeMasterRunningForSecondaryGiveControl.set(false);
-			twitterManager.sendDirectMessage("OK.");
+			twitterManager.get().sendDirectMessage("OK.");
 		} else {
-			twitterManager.sendDirectMessage(primaryMasterScreenName, "I didn't understand. I am still communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?.");
+			twitterManager.get().sendDirectMessage(primaryMasterScreenName, "I didn't understand. I am still communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?.");
 		}
 	}
 
@@ -677,10 +760,36 @@ public enum Communicator implements Observer {
 	 * @return
 	 */
 	private boolean isItMe(String twitterAccount) {
-		TwitterConfiguration configuration = twitterManager.getConfiguration();
+		TwitterConfiguration configuration = twitterManager.get().getConfiguration();
 		return StringUtils.equalsIgnoreCase(configuration.getRpiAccount(), twitterAccount);
 	}
 
+	/**
+	 * Method {@code submit} processes a command received from the local HTTP
+	 * API on behalf of the current master. The responses go to the given
+	 * responder instead of Twitter. The Change Master commands are conversations
+	 * with the masters over Twitter and are not accepted.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param command the command to process
+	 * @param responder the receiver of the responses
+	 * @return false if the command is not accepted
+	 */
+	public boolean submit(Command command, Responder responder) {
+		if (Objects.isNull(command) || command == Command.CHANGE_MASTER || command == Command.CANCEL_CHANGE_MASTER) {
+			return false;
+		}
+
+		if (changeMasterRunningForPrimaryGiveControl.get() || changeMasterRunningForPrimaryTakeControl.get() || changeMasterRunningForSecondaryGiveControl.get()) {
+			responder.respond("Change master is in progress, try again later.");
+			responder.complete();
+			return true;
+		}
+
+		processCommand(command, responder);
+		return true;
+	}
+
 	/**
 	 * Method {@code communicate}
 	 * @author Tapas Bose
@@ -699,7 +808,7 @@ public enum Communicator implements Observer {
 		if (Objects.nonNull(masterType)) {
 			if (Objects.nonNull(currentMasterType) && masterType != currentMasterType && Objects.nonNull(command) && command != Command.CHANGE_MASTER && command != Command.CANCEL_CHANGE_MASTER) {
 				Master currentMaster = masterProcessor.getMaster();
-				twitterManager.sendDirectMessage(screenName, "Currently I am communicationg with " + currentMaster.getTwitterAccount() + ".");
+				twitterManager.get().sendDirectMessage(screenName, "Currently I am communicationg with " + currentMaster.getTwitterAccount() + ".");
 				return;
 			}
 
@@ -727,18 +836,18 @@ public enum Communicator implements Observer {
 								messageDescribingCurrentStep = changeMasterStep.get() == 1 ? " secondary master's Google handle." : " secondary master's Twitter handle.";
 							}
 
-							twitterManager.sendDirectMessage("Already processing, waiting for " + messageDescribingCurrentStep);
+							twitterManager.get().sendDirectMessage("Already processing, waiting for " + messageDescribingCurrentStep);
 						} else if (command == Command.CANCEL_CHANGE_MASTER) {
 							// requested for Cancel Change Master
 
 							changeMasterRunningForPrimaryGiveControl.set(false);
 							changeMasterStep.set(0);
-							twitterManager.sendDirectMessage("OK, See you later.");
+							twitterManager.get().sendDirectMessage("OK, See you later.");
 							eraseSecondaryMasterDetails();
 						} else {
 							// other commands will not work
 
-							twitterManager.sendDirectMessage("Sorry, cannot process the command, you need to complete or cancel the change master process first.");
+							twitterManager.get().sendDirectMessage("Sorry, cannot process the command, you need to complete or cancel the change master process first.");
 						}
 
 						return;
@@ -750,14 +859,14 @@ public enum Communicator implements Observer {
 						if (command == Command.CHANGE_MASTER) {
 							// requested for Change Master while running Change
 							// Master
-							twitterManager.sendDirectMessage(screenName, "Already processing, waiting for confirmation.");
+							twitterManager.get().sendDirectMessage(screenName, "Already processing, waiting for confirmation.");
 						} else if (command == Command.CANCEL_CHANGE_MASTER) {
 							changeMasterRunningForPrimaryTakeControl.set(false);
-							twitterManager.sendDirectMessage(screenName, "OK, See you later.");
+							twitterManager.get().sendDirectMessage(screenName, "OK, See you later.");
 						} else {
 							// other commands will not work
 
-							twitterManager.sendDirectMessage(screenName, "Sorry, cannot process the command, you need to complete or cancel the change master process first.");
+							twitterManager.get().sendDirectMessage(screenName, "Sorry, cannot process the command, you need to complete or cancel the change master process first.");
 						}
 
 						return;
@@ -767,7 +876,7 @@ public enum Communicator implements Observer {
 						// requested for Change Master
 
 						if (changeMasterRunningForSecondaryGiveControl.get()) {
-							twitterManager.sendDirectMessage(screenName, "Already processing change master on secondary master's request.");
+							twitterManager.get().sendDirectMessage(screenName, "Already processing change master on secondary master's request.");
 							return;
 						}
 
@@ -786,10 +895,10 @@ public enum Communicator implements Observer {
 
 							if (Objects.isNull(secondaryUserConfiguration)) {
 								secondaryUserConfiguration = new SecondaryUserConfiguration();
-								twitterManager.sendDirectMessage("Understood, tell me secondary masters Google handle.");
+								twitterManager.get().sendDirectMessage("Understood, tell me secondary masters Google handle.");
 							} else {
 								changeMasterWhereSecondaryMasterExists.set(true);
-								twitterManager.sendDirectMessage("Understood, do you want to give control to " + secondaryUserConfiguration.getTwitterAccount() + " or a new master?");
+								twitterManager.get().sendDirectMessage("Understood, do you want to give control to " + secondaryUserConfiguration.getTwitterAccount() + " or a new master?");
 							}
 						} else {
 							// primary master requested it for taking the
@@ -801,11 +910,11 @@ public enum Communicator implements Observer {
 							Master primaryMaster = masterProcessor.getPrimaryMaster();
 
 							if (Objects.nonNull(secondaryMaster)) {
-								twitterManager.sendDirectMessage(primaryMaster.getTwitterAccount(), "I am currently communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?");
+								twitterManager.get().sendDirectMessage(primaryMaster.getTwitterAccount(), "I am currently communicating with " + secondaryMaster.getTwitterAccount() + ", are you sure you want me to communicate with you?");
 							}
 						}
 					} else {
-						processCommand(command);
+						processCommand(command, twitterResponder);
 					}
 				} else {
 					if (changeMasterRunningForPrimaryGiveControl.get()) {
@@ -817,7 +926,7 @@ public enum Communicator implements Observer {
 
 						processChangeMasterInstructionFromPrimaryMasterToTakeControl(instruction);
 					} else {
-						twitterManager.sendDirectMessage("Unable to understand command: " + instruction);
+						twitterManager.get().sendDirectMessage("Unable to understand command: " + instruction);
 					}
 				}
 			} else { // secondary master
@@ -826,14 +935,14 @@ public enum Communicator implements Observer {
 						// secondary master is giving control
 
 						if (command == Command.CHANGE_MASTER) {
-							twitterManager.sendDirectMessage("Already processing, waiting for confirmation.");
+							twitterManager.get().sendDirectMessage("Already processing, waiting for confirmation.");
 						} else if (command == Command.CANCEL_CHANGE_MASTER) {
 							changeMasterRunningForSecondaryGiveControl.set(false);
-							twitterManager.sendDirectMessage("OK, See you later.");
+							twitterManager.get().sendDirectMessage("OK, See you later.");
 						} else {
 							// other commands will not work
 
-							twitterManager.sendDirectMessage("Sorry, cannot process the command, you need to complete or cancel the change master process first.");
+							twitterManager.get().sendDirectMessage("Sorry, cannot process the command, you need to complete or cancel the change master process first.");
 						}
 
 						return;
@@ -841,14 +950,14 @@ public enum Communicator implements Observer {
 
 					if (command == Command.CHANGE_MASTER) {
 						if (changeMasterRunningForPrimaryTakeControl.get()) {
-							twitterManager.sendDirectMessage("Already processing change master on primary master's request.");
+							twitterManager.get().sendDirectMessage("Already processing change master on primary master's request.");
 							return;
 						}
 
 						changeMasterRunningForSecondaryGiveControl.set(true);
-						twitterManager.sendDirectMessage("Are you sure? If I change master, I won’t be able to communicate with you.");
+						twitterManager.get().sendDirectMessage("Are you sure? If I change master, I won’t be able to communicate with you.");
 					} else {
-						processCommand(command);
+						processCommand(command, twitterResponder);
 					}
 				} else {
 					if (changeMasterRunningForSecondaryGiveControl.get()) {
@@ -856,7 +965,7 @@ public enum Communicator implements Observer {
 
 						processChangeMasterInstructionFromSecondaryMasterToGiveControl(instruction);
 					} else {
-						twitterManager.sendDirectMessage("Unable to understand command: " + instruction);
+						twitterManager.get().sendDirectMessage("Unable to understand command: " + instruction);
 					}
 				}
 			}
@@ -900,6 +1009,13 @@ public enum Communicator implements Observer {
 		secureModeRunning.set(secure);
 	}
 
+	/**
+	 * Method {@code getCurrentJob} returns the {@link JobName} of the
+	 * {@link QueuingJob} being executed.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the current job or null if no QueuingJob is running
+	 */
 	public JobName getCurrentJob() {
 		return currentJob;
 	}
@@ -913,6 +1029,118 @@ public enum Communicator implements Observer {
 		if (applicationStorageManager.isSecureLocked()) {
 			startSecure();
 		}
+
+		pendingUploadService.scheduleWithFixedDelay(this::retryPendingUploads, PENDING_UPLOAD_INTERVAL_MINUTES, PENDING_UPLOAD_INTERVAL_MINUTES, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Method {@code uploadImages} uploads the given images into the album and
+	 * returns the short link to it.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param files
+	 *            the images
+	 * @param albumName
+	 *            the name of the album
+	 * @param priority
+	 *            the priority class of the upload
+	 * @param failed
+	 *            receives the images which could not be uploaded while the
+	 *            others were
+	 * @return the link, or an empty String if none of the images is uploaded
+	 */
+	private String uploadImages(File[] files, String albumName, UploadPriority priority, Collection<File> failed) {
+		String url;
+
+		try {
+			url = googleManager.get().uploadImages(files, albumName, priority);
+		} catch (PartialUploadException cause) {
+			logger.error(cause.getMessage());
+			failed.addAll(Arrays.asList(cause.getFailed()));
+			url = cause.getLink();
+		} catch (Throwable cause) {
+			logger.error(cause);
+			return StringUtils.EMPTY;
+		}
+
+		try {
+			return googleManager.get().getShortenUrl(url);
+		} catch (Throwable cause) {
+			logger.error(cause);
+			return url;
+		}
+	}
+
+	/**
+	 * Method {@code retryPendingUploads} uploads the captures which are still
+	 * pending in the {@link MediaStore} some time after they were taken, i.e.
+	 * the ones whose upload failed, and sends their links to the master. The
+	 * images are uploaded together into one album, the videos one by one. A
+	 * capture which fails again stays pending for the next pass.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void retryPendingUploads() {
+		long capturedBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(PENDING_UPLOAD_AGE_MINUTES);
+		List<MediaItem> images = new ArrayList<>();
+		List<String> videoUrls = new ArrayList<>();
+
+		try {
+			for (MediaItem item : MediaStore.INSTANCE.getPendingUploads()) {
+				if (item.getCapturedAt() > capturedBefore) {
+					continue;
+				}
+
+				if (StringUtils.endsWithIgnoreCase(item.getFile().getName(), ".jpg")) {
+					images.add(item);
+					continue;
+				}
+
+				try {
+					String url = googleManager.get().uploadVideo(item.getFile());
+					MediaStore.INSTANCE.markUploaded(item.getHash());
+					metricsRegistry.counter("media.store.retried").increment();
+					videoUrls.add(googleManager.get().getShortenUrl(url));
+				} catch (Throwable cause) {
+					logger.error("Unable to retry the upload of " + item.getFile() + ". Reason: " + cause.getMessage());
+				}
+			}
+
+			if (!videoUrls.isEmpty()) {
+				twitterManager.get().sendDirectMessage("Videos which could not be uploaded earlier: " + StringUtils.join(videoUrls, " "));
+			}
+		} catch (Throwable cause) {
+			logger.error("Unable to retry the pending videos. Reason: " + cause.getMessage(), cause);
+		}
+
+		if (images.isEmpty()) {
+			return;
+		}
+
+		try {
+			File[] files = images.stream().map(item -> ImageProcessor.INSTANCE.process(item.getFile()).getImage()).toArray(File[]::new);
+			Collection<File> failed = new ArrayList<>();
+			String url = uploadImages(files, "RPI Album: Pending Uploads", UploadPriority.BACKGROUND, failed);
+
+			if (StringUtils.isBlank(url)) {
+				return;
+			}
+
+			Set<String> failedHashes = failed.stream().map(file -> StringUtils.substringBefore(file.getName(), ".")).collect(Collectors.toSet());
+
+			for (MediaItem item : images) {
+				if (!failedHashes.contains(item.getHash())) {
+					MediaStore.INSTANCE.markUploaded(item.getHash());
+				}
+			}
+
+			metricsRegistry.counter("media.store.retried").add(images.size() - failedHashes.size());
+			twitterManager.get().sendDirectMessage("Images which could not be uploaded earlier: " + url);
+		} catch (Throwable cause) {
+			logger.error("Unable to retry the pending images. Reason: " + cause.getMessage(), cause);
+		}
 	}
 
 	/**
@@ -921,6 +1149,7 @@ public enum Communicator implements Observer {
 	 * @since RPI V1.0
 	 */
 	public void stopCommunication() {
-		machineController.shutdown();
+		pendingUploadService.shutdownNow();
+		machineController.get().shutdown();
 	}
 }
@@ -0,0 +1,35 @@
+package com.edfx.rpi.app.social;
+
+/**
+ * Interface {@code Responder} receives the responses of a command processed by
+ * the {@link Communicator}. The commands received through Twitter are answered
+ * with direct messages to the master, the commands of the local HTTP API are
+ * answered to the HTTP caller.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@FunctionalInterface
+public interface Responder {
+
+	/**
+	 * Method {@code respond} sends a response message.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the message to send
+	 */
+	void respond(String message);
+
+	/**
+	 * Method {@code complete} is called once the command is handled and no
+	 * more response will follow.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	default void complete() {
+
+	}
+}
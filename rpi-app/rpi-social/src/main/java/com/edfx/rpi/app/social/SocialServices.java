@@ -0,0 +1,38 @@
+package com.edfx.rpi.app.social;
+
+import com.edfx.rpi.app.machine.MachineController;
+import com.edfx.rpi.app.social.google.GoogleManager;
+import com.edfx.rpi.app.social.twitter.TwitterManager;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
+import com.edfx.rpi.app.utils.registry.ServiceRegistry;
+
+/**
+ * Class {@code SocialServices} registers the services of the social
+ * connections with the {@link ServiceRegistry}.
+ * <br/>
+ * Every access to these services goes through the providers below, never
+ * through their {@code INSTANCE}, so a service is created only after the ones
+ * it depends on and {@link ServiceProvider#isCreated()} tells reliably if it
+ * must be shut down. The {@link Communicator} resolves its own dependencies
+ * through them as well, so creating it never initializes another service from
+ * within its class initialization.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class SocialServices {
+	public static final ServiceProvider<MachineController> MACHINE = ServiceRegistry.INSTANCE.register("machine", () -> MachineController.INSTANCE);
+	public static final ServiceProvider<GoogleManager> GOOGLE = ServiceRegistry.INSTANCE.register("google", () -> GoogleManager.INSTANCE);
+	public static final ServiceProvider<TwitterManager> TWITTER = ServiceRegistry.INSTANCE.register("twitter", () -> TwitterManager.INSTANCE);
+	public static final ServiceProvider<Communicator> COMMUNICATOR = ServiceRegistry.INSTANCE.register("communicator", () -> Communicator.INSTANCE, "machine", "google", "twitter");
+
+	/**
+	 * Constructor {@code SocialServices}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private SocialServices() {
+
+	}
+}
@@ -5,17 +5,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.registry.ServiceProvider;
+import com.edfx.rpi.app.utils.registry.ServiceRegistry;
 
 /**
  * Class {@code Command}
@@ -37,37 +36,7 @@ public enum Command {
 	REBOOT("reboot.dictionary", new ArrayList<String>());
 		
 	private final static Logger LOGGER = RpiLogger.getLogger(Command.class);
-	private final static Set<Command> COMMANDS = Collections.unmodifiableSet(new HashSet<Command>() {
-
-		private static final long serialVersionUID = 4956239571125261800L;
-
-		{
-			addAll(Arrays.asList(values()).stream().map(new Function<Command, Command>() {
-
-				@Override
-				public Command apply(Command command) {
-					String filename = command.getFilename();
-					ArrayList<String> tokens = command.getTokens();
-					InputStream stream = Command.class.getResourceAsStream(filename);
-					try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
-						for (;;) {
-							String line = reader.readLine();
-							
-							if (StringUtils.isBlank(line)) {
-								break;
-							}
-							
-							tokens.add(StringUtils.lowerCase(StringUtils.normalizeSpace(line.replaceAll("[^a-zA-Z\\d\\s]", ""))));
-						}
-					} catch (IOException e) {
-						LOGGER.error(e);
-					}
-
-					return command;
-				}
-			}).collect(Collectors.toSet()));
-		}
-	});
+	private final static ServiceProvider<Set<Command>> DICTIONARIES = ServiceRegistry.INSTANCE.register("command-dictionaries", Command::loadDictionaries);
 	
 	private String filename;
 	private ArrayList<String> tokens;
@@ -103,6 +72,7 @@ public enum Command {
 	 * @return the tokens
 	 */
 	public ArrayList<String> getTokens() {
+		DICTIONARIES.get();
 		return tokens;
 	}
 
@@ -113,6 +83,35 @@ public enum Command {
 	 * @return
 	 */
 	public static Set<Command> getCommands() {
-		return COMMANDS;
+		return DICTIONARIES.get();
+	}
+
+	/**
+	 * Method {@code loadDictionaries} reads the tokens of every command from
+	 * its dictionary. It is called once, on the first use of the commands.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the commands
+	 */
+	private static Set<Command> loadDictionaries() {
+		for (Command command : values()) {
+			InputStream stream = Command.class.getResourceAsStream(command.getFilename());
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+				for (;;) {
+					String line = reader.readLine();
+					
+					if (StringUtils.isBlank(line)) {
+						break;
+					}
+					
+					command.tokens.add(StringUtils.lowerCase(StringUtils.normalizeSpace(line.replaceAll("[^a-zA-Z\\d\\s]", ""))));
+				}
+			} catch (IOException e) {
+				LOGGER.error(e);
+			}
+		}
+
+		return Collections.unmodifiableSet(EnumSet.allOf(Command.class));
 	}
 }
@@ -0,0 +1,220 @@
+package com.edfx.rpi.app.social.google;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+
+/**
+ * Class {@code AlbumFolderCache} keeps one Google Drive folder per album, day
+ * and person it is shared with.
+ * <br/>
+ * The folder of the day is created and shared on the first upload, and the
+ * later uploads of the day go straight into it, which saves the two requests
+ * and keeps Drive tidy. The folders are persisted by
+ * {@link ApplicationStorageManager}, so they survive a restart. The folders of
+ * the previous days are forgotten.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+enum AlbumFolderCache {
+	INSTANCE;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final ApplicationStorageManager applicationStorageManager = ApplicationStorageManager.INSTANCE;
+
+	private final HashMap<String, AlbumFolder> folders = new HashMap<>();
+
+	private boolean loaded;
+
+	/**
+	 * Constructor {@code AlbumFolderCache}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private AlbumFolderCache() {
+
+	}
+
+	/**
+	 * Method {@code getFolder} returns the folder of today of the given album,
+	 * creating and sharing it if needed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param drive
+	 *            is the instance of Drive
+	 * @param albumName
+	 *            is the name of the album
+	 * @param shareWith
+	 *            is the email address of the person with whom the folder is
+	 *            shared
+	 * @return the folder
+	 * @throws IOException
+	 */
+	synchronized AlbumFolder getFolder(Drive drive, String albumName, String shareWith) throws IOException {
+		load();
+
+		Date now = new Date();
+		String day = new SimpleDateFormat("yyyy-MM-dd").format(now);
+		String key = getKey(albumName, day, shareWith);
+		AlbumFolder folder = folders.get(key);
+
+		if (Objects.nonNull(folder)) {
+			metricsRegistry.counter("drive.album.reused").increment();
+			return folder;
+		}
+
+		DateFormat formatter = new SimpleDateFormat("dd/MMM/yyyy");
+		String description = "Images taken by RPI on " + formatter.format(now);
+		File created = new File().setTitle(albumName + " - " + formatter.format(now)).setDescription(description).setMimeType("application/vnd.google-apps.folder");
+
+		created = drive.files().insert(created).execute();
+		DriveClient.INSTANCE.share(drive, created.getId(), shareWith);
+		metricsRegistry.counter("drive.album.created").increment();
+
+		folder = new AlbumFolder(created.getId(), created.getAlternateLink());
+		folders.keySet().removeIf(existing -> !existing.contains("|" + day + "|"));
+		folders.put(key, folder);
+		store();
+
+		return folder;
+	}
+
+	/**
+	 * Method {@code invalidate} forgets the given folder, e.g. when it has been
+	 * deleted from Drive.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param folder
+	 *            is the folder
+	 */
+	synchronized void invalidate(AlbumFolder folder) {
+		if (folders.values().remove(folder)) {
+			store();
+		}
+	}
+
+	/**
+	 * Method {@code getKey} returns the key of the folder of the given album.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param albumName
+	 *            is the name of the album
+	 * @param day
+	 *            is the day
+	 * @param shareWith
+	 *            is the email address of the person with whom the folder is
+	 *            shared
+	 * @return the key
+	 */
+	private static String getKey(String albumName, String day, String shareWith) {
+		return albumName + "|" + day + "|" + shareWith;
+	}
+
+	/**
+	 * Method {@code load} loads the persisted folders on the first use.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	@SuppressWarnings("unchecked")
+	private void load() {
+		if (loaded) {
+			return;
+		}
+
+		loaded = true;
+
+		try {
+			Serializable serializable = applicationStorageManager.readAlbumFolders();
+
+			if (serializable instanceof Map) {
+				folders.putAll((Map<String, AlbumFolder>) serializable);
+			}
+		} catch (Throwable cause) {
+			logger.error("Unable to read the album folders. Reason: " + cause.getMessage());
+		}
+	}
+
+	/**
+	 * Method {@code store} persists the folders.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void store() {
+		try {
+			applicationStorageManager.writeAlbumFolders(new HashMap<>(folders));
+		} catch (Throwable cause) {
+			logger.error("Unable to write the album folders. Reason: " + cause.getMessage());
+		}
+	}
+
+	/**
+	 * Class {@code AlbumFolder} is a shared folder of an album.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	static final class AlbumFolder implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final String id;
+		private final String link;
+
+		/**
+		 * Constructor {@code AlbumFolder}
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param id
+		 *            is the id of the folder
+		 * @param link
+		 *            is the URL to the folder
+		 */
+		AlbumFolder(String id, String link) {
+			this.id = id;
+			this.link = link;
+		}
+
+		/**
+		 * Method {@code getId} returns the id of the folder.
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @return the id
+		 */
+		String getId() {
+			return id;
+		}
+
+		/**
+		 * Method {@code getLink} returns the URL to the folder.
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @return the URL
+		 */
+		String getLink() {
+			return link;
+		}
+	}
+}
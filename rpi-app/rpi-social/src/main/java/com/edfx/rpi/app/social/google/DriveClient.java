@@ -1,15 +1,24 @@
 package com.edfx.rpi.app.social.google;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.social.google.AlbumFolderCache.AlbumFolder;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+import com.google.api.client.googleapis.media.MediaHttpUploader.UploadState;
 import com.google.api.client.http.FileContent;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
@@ -27,7 +36,12 @@ public enum DriveClient {
 
 	INSTANCE;
 
+	private static final int CHUNK_SIZE = 2 * MediaHttpUploader.MINIMUM_CHUNK_SIZE;
+
 	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final UploadScheduler uploadScheduler = UploadScheduler.INSTANCE;
+	private final AlbumFolderCache albumFolderCache = AlbumFolderCache.INSTANCE;
 
 	/**
 	 * Constructor {@code DriveClient}
@@ -77,11 +91,10 @@ public enum DriveClient {
 		File file = new File().setTitle(fileName).setDescription(description).setMimeType("video/*");
 		FileContent mediaContent = new FileContent("video/*", content);
 
-		File uploadedFile = drive.files().insert(file, mediaContent).execute();
-
-		Permission permission = new Permission().setValue(shareWith).setRole("reader").setType("user");
-
-		drive.permissions().insert(uploadedFile.getId(), permission).setSendNotificationEmails(false).execute();
+		long startedAt = System.nanoTime();
+		File uploadedFile = insertFile(drive, file, mediaContent, UploadPriority.BACKGROUND);
+		share(drive, uploadedFile.getId(), shareWith);
+		metricsRegistry.histogram("drive.upload.video").recordSince(startedAt);
 
 		String url = uploadedFile.getAlternateLink();
 
@@ -90,8 +103,14 @@ public enum DriveClient {
 
 	/**
 	 * Method {@code uploadImages} uploads given images in Google Drive and
-	 * place these image files into an album with the specified name. It also
-	 * share the album with the given person. The album is private by default.
+	 * place these image files into the album of the day with the specified
+	 * name. The album is created and shared with the given person by
+	 * {@link AlbumFolderCache} on its first upload of the day. The album is
+	 * private by default. A single image, e.g. a contact sheet, goes into the
+	 * album as well and inherits its sharing, its own link is returned so the
+	 * caller can point at the image itself. An image which can not be inserted
+	 * does not stop the others, the failures are reported once all the images
+	 * are tried.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -104,42 +123,197 @@ public enum DriveClient {
 	 * @param shareWith
 	 *            is the email address of the person with whom the video will be
 	 *            shared
-	 * @return the URL to uploaded album
+	 * @param priority
+	 *            is the priority class of the upload
+	 * @return the URL to uploaded album, or to the image if only one is given
+	 * @throws PartialUploadException
+	 *             if some of the images could not be uploaded
 	 * @throws IOException
+	 *             if none of the images could be uploaded
 	 * @see Drive
 	 */
-	public String uploadImages(final Drive drive, final java.io.File[] contents, String albumName, String shareWith) throws IOException {
-		Date now = new Date();
-		DateFormat formatter = new SimpleDateFormat("dd/MMM/yyyy hh:mm:ss a");
-		String folderName = albumName + " - " + formatter.format(now);
-		String description = "Images taken by RPI at @" + formatter.format(now);
+	public String uploadImages(final Drive drive, final java.io.File[] contents, String albumName, String shareWith, UploadPriority priority) throws IOException {
+		long startedAt = System.nanoTime();
+		String prefix = new SimpleDateFormat("hh-mm-ss a").format(new Date());
 
-		File folder = new File().setTitle(folderName).setDescription(description).setMimeType("application/vnd.google-apps.folder");
+		AlbumFolder folder = albumFolderCache.getFolder(drive, albumName, shareWith);
+		boolean retried = false;
 
-		File uploadedFolder = drive.files().insert(folder).execute();
+		List<java.io.File> failed = new ArrayList<>();
+		IOException failure = null;
+		File uploadedFile = null;
 
-		final String folderId = uploadedFolder.getId();
+		for (int index = 0; index < contents.length; index++) {
+			ParentReference parent = new ParentReference().setId(folder.getId());
 
-		Arrays.asList(contents).forEach(content -> {
-			ParentReference parent = new ParentReference().setId(folderId);
+			File file = new File().setTitle(prefix + " - " + (index + 1) + ".jpg").setMimeType("image/*").setParents(Arrays.asList(parent));
 
-			File file = new File().setTitle(content.getName()).setMimeType("image/*").setParents(Arrays.asList(parent));
-
-			FileContent mediaContent = new FileContent("image/*", content);
+			FileContent mediaContent = new FileContent("image/*", contents[index]);
 
 			try {
-				drive.files().insert(file, mediaContent).execute();
-			} catch (Throwable cause) {
+				uploadedFile = insertFile(drive, file, mediaContent, priority);
+			} catch (GoogleJsonResponseException cause) {
+				if (!retried && cause.getStatusCode() == 404) {
+					logger.info("Album folder no longer exists, creating a new one: " + albumName);
+					albumFolderCache.invalidate(folder);
+					folder = albumFolderCache.getFolder(drive, albumName, shareWith);
+					retried = true;
+					index--;
+				} else {
+					logger.error(cause);
+					failed.add(contents[index]);
+					failure = cause;
+				}
+			} catch (IOException cause) {
 				logger.error(cause);
+				failed.add(contents[index]);
+				failure = cause;
 			}
-		});
+		}
 
-		Permission permission = new Permission().setValue(shareWith).setRole("reader").setType("user");
+		metricsRegistry.histogram("drive.upload.images").recordSince(startedAt);
 
-		drive.permissions().insert(folderId, permission).setSendNotificationEmails(false).execute();
+		String url = contents.length == 1 && Objects.nonNull(uploadedFile) ? uploadedFile.getAlternateLink() : folder.getLink();
 
-		String url = uploadedFolder.getAlternateLink();
+		if (failed.isEmpty()) {
+			return url;
+		}
 
-		return url;
+		if (failed.size() == contents.length) {
+			throw failure;
+		}
+
+		throw new PartialUploadException(url, failed.toArray(new java.io.File[failed.size()]));
+	}
+
+	/**
+	 * Method {@code openFolderUpload} creates a folder with the given name and
+	 * returns the upload which puts files into it.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param drive
+	 *            is the instance of Drive
+	 * @param folderName
+	 *            is the name of the folder
+	 * @param shareWith
+	 *            is the email address of the person with whom the folder will
+	 *            be shared once completed
+	 * @return the upload
+	 * @throws IOException
+	 * @see DriveFolderUpload
+	 */
+	public DriveFolderUpload openFolderUpload(Drive drive, String folderName, String shareWith) throws IOException {
+		Date now = new Date();
+		DateFormat formatter = new SimpleDateFormat("dd/MMM/yyyy hh:mm:ss a");
+		String description = "Video taken by RPI at @" + formatter.format(now);
+
+		File folder = new File().setTitle(folderName + " - " + formatter.format(now)).setDescription(description).setMimeType("application/vnd.google-apps.folder");
+		File createdFolder = drive.files().insert(folder).execute();
+
+		return new DriveFolderUpload(drive, createdFolder, shareWith);
+	}
+
+	/**
+	 * Method {@code insertFile} uploads the given content through the
+	 * {@link UploadScheduler}, recording the time taken, the number of bytes
+	 * and the failures. A content larger than one chunk is uploaded in chunks,
+	 * so it can be paused for an upload of a higher class.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param drive
+	 *            is the instance of Drive
+	 * @param file
+	 *            is the metadata of the file
+	 * @param mediaContent
+	 *            is the content of the file
+	 * @param priority
+	 *            is the priority class of the upload
+	 * @return the uploaded file
+	 * @throws IOException
+	 */
+	File insertFile(Drive drive, File file, FileContent mediaContent, UploadPriority priority) throws IOException {
+		long startedAt = System.nanoTime();
+		long length = mediaContent.getLength();
+		long uploaded = 0;
+
+		Drive.Files.Insert insert = drive.files().insert(file, mediaContent);
+		MediaHttpUploader uploader = insert.getMediaHttpUploader();
+		uploadScheduler.begin(priority);
+
+		try {
+			if (length <= CHUNK_SIZE) {
+				uploader.setDirectUploadEnabled(true);
+				acquire(priority, length);
+			} else {
+				uploader.setChunkSize(CHUNK_SIZE);
+				uploader.setProgressListener(progress -> {
+					UploadState uploadState = progress.getUploadState();
+
+					if (uploadState == UploadState.INITIATION_COMPLETE || uploadState == UploadState.MEDIA_IN_PROGRESS) {
+						acquire(priority, Math.min(CHUNK_SIZE, length - progress.getNumBytesUploaded()));
+					}
+				});
+			}
+
+			File uploadedFile = insert.execute();
+			uploaded = length;
+			metricsRegistry.counter("drive.upload.bytes").add(length);
+			return uploadedFile;
+		} catch (IOException | RuntimeException cause) {
+			metricsRegistry.counter("drive.upload.failures").increment();
+			throw cause;
+		} finally {
+			uploadScheduler.end(priority, uploaded, startedAt);
+			metricsRegistry.histogram("drive.upload.file").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code acquire} waits for the {@link UploadScheduler} to let a
+	 * chunk of the given size through.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            is the priority class of the upload
+	 * @param size
+	 *            is the size of the chunk
+	 * @throws InterruptedIOException
+	 *             if interrupted while waiting
+	 */
+	private void acquire(UploadPriority priority, long size) throws InterruptedIOException {
+		try {
+			uploadScheduler.acquire(priority, size);
+		} catch (InterruptedException cause) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to upload.");
+		}
+	}
+
+	/**
+	 * Method {@code share} shares the given file with the given person as
+	 * reader, recording the time taken.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param drive
+	 *            is the instance of Drive
+	 * @param fileId
+	 *            is the id of the file or folder
+	 * @param shareWith
+	 *            is the email address of the person
+	 * @throws IOException
+	 */
+	void share(Drive drive, String fileId, String shareWith) throws IOException {
+		long startedAt = System.nanoTime();
+		Permission permission = new Permission().setValue(shareWith).setRole("reader").setType("user");
+
+		try {
+			drive.permissions().insert(fileId, permission).setSendNotificationEmails(false).execute();
+		} finally {
+			metricsRegistry.histogram("drive.permission").recordSince(startedAt);
+		}
 	}
 }
@@ -0,0 +1,95 @@
+package com.edfx.rpi.app.social.google;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.edfx.rpi.app.utils.event.EventHub;
+import com.google.api.client.http.FileContent;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.ParentReference;
+
+/**
+ * Class {@code DriveFolderUpload} uploads files one by one into a Google Drive
+ * folder created up front, and shares the folder once all the files are
+ * uploaded. It is used to upload the segments of a video while it is being
+ * recorded. If nothing could be uploaded the folder is deleted by
+ * {@link #abort()}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class DriveFolderUpload {
+	private final Drive drive;
+	private final File folder;
+	private final String shareWith;
+	private final AtomicInteger uploaded = new AtomicInteger();
+
+	/**
+	 * Constructor {@code DriveFolderUpload}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param drive
+	 *            is the instance of Drive
+	 * @param folder
+	 *            is the created folder
+	 * @param shareWith
+	 *            is the email address of the person with whom the folder will
+	 *            be shared
+	 */
+	DriveFolderUpload(Drive drive, File folder, String shareWith) {
+		this.drive = drive;
+		this.folder = folder;
+		this.shareWith = shareWith;
+	}
+
+	/**
+	 * Method {@code upload} uploads the given file into the folder.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param content
+	 *            is the file to upload
+	 * @param mimeType
+	 *            is the MIME type of the file
+	 * @throws IOException
+	 */
+	public void upload(java.io.File content, String mimeType) throws IOException {
+		ParentReference parent = new ParentReference().setId(folder.getId());
+		File file = new File().setTitle(content.getName()).setMimeType(mimeType).setParents(Arrays.asList(parent));
+
+		DriveClient.INSTANCE.insertFile(drive, file, new FileContent(mimeType, content), UploadPriority.BACKGROUND);
+		uploaded.incrementAndGet();
+	}
+
+	/**
+	 * Method {@code complete} shares the folder.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the URL to the folder
+	 * @throws IOException
+	 */
+	public String complete() throws IOException {
+		DriveClient.INSTANCE.share(drive, folder.getId(), shareWith);
+
+		String link = folder.getAlternateLink();
+		EventHub.INSTANCE.publish("upload.completed", "kind", "video", "files", uploaded.get(), "url", link);
+		return link;
+	}
+
+	/**
+	 * Method {@code abort} deletes the folder. It is called instead of
+	 * {@link #complete()} when nothing could be uploaded, so no empty folder is
+	 * left behind.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws IOException
+	 */
+	public void abort() throws IOException {
+		drive.files().delete(folder.getId()).execute();
+	}
+}
@@ -1,34 +1,32 @@
 package com.edfx.rpi.app.social.google;
 
-import java.io.IOException;
 import java.util.Objects;
 import java.util.Observable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.mail.Authenticator;
 import javax.mail.Folder;
 import javax.mail.Message;
 import javax.mail.MessagingException;
-import javax.mail.Multipart;
-import javax.mail.Part;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
 import javax.mail.Store;
-import javax.mail.Transport;
-import javax.mail.event.MessageCountAdapter;
-import javax.mail.event.MessageCountEvent;
+import javax.mail.UIDFolder;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
-import org.jsoup.Jsoup;
 
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 import com.sun.mail.imap.IMAPFolder;
 import com.sun.mail.imap.IMAPStore;
 
@@ -41,7 +39,13 @@ import com.sun.mail.imap.IMAPStore;
  * @since RPI V1.0
  */
 public class GmailClient extends Observable {
+	// Minutes, well below the 29 minutes after which an IMAP server may drop an idle client.
+	private static final long KEEP_ALIVE_INTERVAL = 9;
+	private static final long MIN_RECONNECT_DELAY = 1000;
+	private static final long MAX_RECONNECT_DELAY = 300000;
+
 	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
 
 	private final java.util.Properties gmailProperties;
 
@@ -50,8 +54,13 @@ public class GmailClient extends Observable {
 	private String username;
 	private String password;
 	private Session session;
+	private MailSender mailSender;
 	private MailReciever mailReciever;
 
+	// The checkpoint of the MailReciever, kept here so a restarted receiver resumes from it.
+	private volatile long uidValidity = -1;
+	private volatile long lastUid = -1;
+
 	/**
 	 * Constructor {@code GmailClient}.
 	 * 
@@ -84,6 +93,8 @@ public class GmailClient extends Observable {
 				return new PasswordAuthentication(username, password);
 			}
 		});
+
+		mailSender = new MailSender(session, username, password);
 	}
 
 	/**
@@ -96,13 +107,15 @@ public class GmailClient extends Observable {
 	 *            is the subject of the mail
 	 * @param body
 	 *            is the body of the mail
+	 * @return a future which completes when the mail is sent
 	 */
-	public void sendMail(String subject, String body) {
-		sendMail(subject, body, configuration.getRpiGmailAccount());
+	public CompletableFuture<Void> sendMail(String subject, String body) {
+		return sendMail(subject, body, configuration.getRpiGmailAccount());
 	}
 
 	/**
-	 * Method {@code sendMail} is used to send mail.
+	 * Method {@code sendMail} is used to send mail. The mail is queued to the
+	 * {@link MailSender} and sent asynchronously, the caller is never blocked.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -112,33 +125,63 @@ public class GmailClient extends Observable {
 	 *            is the body of the mail
 	 * @param recipient
 	 *            is the email address of the recipient
+	 * @return a future which completes when the mail is sent or fails
 	 */
-	public void sendMail(String subject, String body, String recipient) {
+	public CompletableFuture<Void> sendMail(String subject, String body, String recipient) {
 		logger.info("Sending mail...");
 
+		long startedAt = System.nanoTime();
+		CompletableFuture<Void> future;
+
 		try {
 			MimeMessage message = new MimeMessage(session);
 			message.setFrom(new InternetAddress(username));
 			message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
 			message.setSubject(subject);
 			message.setContent(body, "text/html; charset=utf-8");
-			Transport.send(message);
-		} catch (MessagingException e) {
-			e.printStackTrace();
-			throw new RuntimeException(e);
+			future = mailSender.send(message);
+		} catch (MessagingException cause) {
+			future = new CompletableFuture<>();
+			future.completeExceptionally(cause);
 		}
 
-		logger.info("Mail sent...");
+		return future.whenComplete((ignore, cause) -> {
+			metricsRegistry.histogram("gmail.send").recordSince(startedAt);
+
+			if (Objects.isNull(cause)) {
+				metricsRegistry.counter("gmail.sent").increment();
+				logger.info("Mail sent: " + subject);
+			} else {
+				metricsRegistry.counter("gmail.send.failures").increment();
+				logger.error("Unable to send mail: " + subject + ". Reason is: " + cause.getMessage(), cause);
+			}
+		});
+	}
+
+	/**
+	 * Method {@code shutdown} stops the mail receiver and the mail sender.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public void shutdown() {
+		stopMailReceiver();
+		mailSender.shutdown();
 	}
 
 	/**
 	 * Method {@code startMailReceiver} starts the {@link MailReciever} to
-	 * receive the mail.
+	 * receive the mail. A restarted receiver fetches the mails arrived since
+	 * the checkpoint of the previous one.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
-	public void startMailReceiver() {
+	public synchronized void startMailReceiver() {
+		if (Objects.nonNull(mailReciever)) {
+			mailReciever.stop();
+		}
+
 		mailReciever = new MailReciever();
 	}
 
@@ -148,8 +191,11 @@ public class GmailClient extends Observable {
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
-	public void stopMailReceiver() {
-		mailReciever.idleThread.kill();
+	public synchronized void stopMailReceiver() {
+		if (Objects.nonNull(mailReciever)) {
+			mailReciever.stop();
+			mailReciever = null;
+		}
 	}
 
 	/**
@@ -170,16 +216,24 @@ public class GmailClient extends Observable {
 
 	/**
 	 * Class {@code MailReciever} is used as a receiver of incoming mail. It
-	 * polls in the Inbox of RPI's gmail account and if new mail arrives it
-	 * process that mail for Twitter Authorization Token and Google
-	 * Authorization Token.
+	 * keeps the Inbox of RPI's gmail account open in IMAP IDLE mode and if new
+	 * mail arrives it process that mail for Twitter Authorization Token and
+	 * Google Authorization Token. <br/>
+	 * The UID of the last processed mail is checkpointed in the
+	 * {@link GmailClient}, so the mails arrived while the connection was lost
+	 * or the receiver was restarted are fetched after reconnecting. Failed
+	 * connections are retried with exponential backoff and jitter.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
 	private class MailReciever {
 
-		private IdleThread idleThread;
+		private final IdleThread idleThread;
+		private final ScheduledExecutorService keepAliveService = Executors.newSingleThreadScheduledExecutor(RpiThreadFactory.INSTANCE);
+
+		private volatile IMAPStore store;
+		private volatile IMAPFolder inbox;
 
 		/**
 		 * Constructor {@code MailReciever}.
@@ -188,207 +242,171 @@ public class GmailClient extends Observable {
 		 * @since RPI V1.0
 		 */
 		public MailReciever() {
-			init();
+			idleThread = new IdleThread();
+			idleThread.setDaemon(false);
+			idleThread.start();
+
+			keepAliveService.scheduleWithFixedDelay(this::keepAlive, KEEP_ALIVE_INTERVAL, KEEP_ALIVE_INTERVAL, TimeUnit.MINUTES);
 		}
 
 		/**
-		 * Method {@code init} initializes the {@link MailReciever}.
+		 * Method {@code connect} connects to the IMAP store, opens the Inbox
+		 * and fetches the mails missed since the last checkpoint.
 		 * 
 		 * @author Tapas Bose
 		 * @since RPI V1.0
+		 * @throws MessagingException
 		 */
-		private void init() {
-			IMAPStore store = null;
-
-			Folder inbox = null;
+		private void connect() throws MessagingException {
+			IMAPStore store = (IMAPStore) session.getStore("imaps");
+			this.store = store;
+			store.connect(username, password);
 
-			try {
-				store = (IMAPStore) session.getStore("imaps");
-				store.connect(username, password);
+			if (!store.hasCapability("IDLE")) {
+				throw new MessagingException("IDLE not supported");
+			}
 
-				if (!store.hasCapability("IDLE")) {
-					throw new RuntimeException("IDLE not supported");
-				}
+			IMAPFolder inbox = (IMAPFolder) store.getFolder("INBOX");
+			inbox.open(Folder.READ_ONLY);
+			this.inbox = inbox;
 
-				inbox = (IMAPFolder) store.getFolder("INBOX");
-				inbox.addMessageCountListener(new MessageCountAdapter() {
-
-					@Override
-					public void messagesAdded(MessageCountEvent event) {
-						Message[] messages = event.getMessages();
-
-						for (Message message : messages) {
-							String from = StringUtils.EMPTY;
-
-							try {
-								from = InternetAddress.toString(message.getFrom());
-								logger.info("Mail recieved with subject: " + message.getSubject() + " - From: " + from);
-							} catch (Throwable cause) {
-								logger.error(cause);
-							}
-
-							try {
-								if (StringUtils.containsIgnoreCase(message.getSubject(), "RPI Authorization") || StringUtils.containsIgnoreCase(from, username)) {
-									String content = getText(message);
-									String sanitezedContent = Jsoup.parse(content).text();
-									String[] tokens = processMessage(sanitezedContent);
-
-									if (Objects.nonNull(tokens)) {
-										setTokens(tokens);
-									}
-								}
-							} catch (Throwable cause) {
-								logger.error(cause);
-							}
-						}
-					}
-				});
+			long currentUidValidity = inbox.getUIDValidity();
 
-				idleThread = new IdleThread(inbox);
-				idleThread.setDaemon(false);
-				idleThread.start();
-			} catch (Exception cause) {
-				logger.error(cause);
-			} finally {
-				close(inbox);
-				close(store);
+			if (lastUid < 0 || currentUidValidity != uidValidity) {
+				uidValidity = currentUidValidity;
+				lastUid = inbox.getUIDNext() - 1;
+				logger.info("Mail receiver checkpoint set to UID: " + lastUid);
+			} else {
+				fetchNewMessages();
 			}
 		}
 
 		/**
-		 * Method {@code getText} process the mail content and takes out the
-		 * text. Basically it convert {@link Part} to {@link String}.
+		 * Method {@code disconnect} closes the Inbox and the store quietly.
 		 * 
 		 * @author Tapas Bose
 		 * @since RPI V1.0
-		 * @param part
-		 *            is the mail content to be processed
-		 * @return the string representation of the mail content
-		 * @throws MessagingException
-		 * @throws IOException
 		 */
-		private String getText(Part part) throws MessagingException, IOException {
-			if (part.isMimeType("text/*")) {
-				String s = (String) part.getContent();
-				return s;
-			}
+		private void disconnect() {
+			close(inbox);
+			close(store);
 
-			if (part.isMimeType("multipart/alternative")) {
-				Multipart mp = (Multipart) part.getContent();
-				String text = null;
+			inbox = null;
+			store = null;
+		}
 
-				for (int i = 0; i < mp.getCount(); i++) {
-					Part bp = mp.getBodyPart(i);
+		/**
+		 * Method {@code fetchNewMessages} fetches and processes the mails
+		 * having an UID greater than the checkpointed one.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @throws MessagingException
+		 */
+		private void fetchNewMessages() throws MessagingException {
+			IMAPFolder inbox = this.inbox;
+			Message[] messages = inbox.getMessagesByUID(lastUid + 1, UIDFolder.LASTUID);
 
-					if (bp.isMimeType("text/plain")) {
-						if (text == null) {
-							text = getText(bp);
-						}
+			for (Message message : messages) {
+				long uid = inbox.getUID(message);
 
-						continue;
-					} else if (bp.isMimeType("text/html")) {
-						String s = getText(bp);
-						if (Objects.nonNull(s)) {
-							return s;
-						}
-					} else {
-						return getText(bp);
-					}
+				// A stopped receiver leaves the checkpoint to the one replacing it.
+				if (!idleThread.running) {
+					break;
 				}
 
-				return text;
-			} else if (part.isMimeType("multipart/*")) {
-				Multipart mp = (Multipart) part.getContent();
-				for (int i = 0; i < mp.getCount(); i++) {
-					String s = getText(mp.getBodyPart(i));
-
-					if (Objects.nonNull(s)) {
-						return s;
-					}
+				// A range beyond the last UID returns the last mail.
+				if (uid <= lastUid) {
+					continue;
 				}
-			}
 
-			return null;
+				processMail(message);
+				lastUid = uid;
+			}
 		}
 
 		/**
-		 * Method {@code processMessage} process the message and searches for
-		 * Twitter Authorization Token and Google Authorization Token by using
-		 * regular expression.
+		 * Method {@code processMail} processes a received mail and passes the
+		 * Authorization Tokens found in it to the observers.
 		 * 
 		 * @author Tapas Bose
 		 * @since RPI V1.0
 		 * @param message
-		 *            is the message to process
-		 * @return an array of String which contains the Twitter Authorization
-		 *         Token at the zeroth index and the Google Authorization Token
-		 *         at the first index.
+		 *            the received mail
 		 */
-		private String[] processMessage(String message) {
-			logger.info("Processing message");
+		private void processMail(Message message) {
+			String from = StringUtils.EMPTY;
+			metricsRegistry.counter("gmail.received").increment();
 
 			try {
-				message = StringUtils.normalizeSpace(message);
-
-				String googleToken = "";
-				String twitterToken = "";
-
-				String googleRegex = "(R|r)(P|p)(I|i) *(G|g)(O|o){2}(G|g)(L|l)(E|e) *(P|p)(I|i)(N|n) *(:) *[\\x00-\\x7F][^\\s]*";
-				String twitterRegex = "(R|r)(P|p)(I|i) *(T|t)(W|w)(I|i)(T|t){2}(E|e)(R|r) *(P|p)(I|i)(N|n) *(:) *[0-9]*";
-
-				Pattern pattern = Pattern.compile(googleRegex);
-
-				Matcher matcher = pattern.matcher(message);
-
-				String googlePart = "";
-
-				if (matcher.find()) {
-					googlePart = matcher.group();
-				}
+				from = InternetAddress.toString(message.getFrom());
+				RpiLogger.info(logger, "Mail recieved with subject: {} - From: {}", message.getSubject(), from);
+			} catch (Throwable cause) {
+				logger.error(cause);
+			}
 
-				if (StringUtils.isNotBlank(googlePart)) {
-					googleRegex = "(R|r)(P|p)(I|i) *(G|g)(O|o){2}(G|g)(L|l)(E|e) *(P|p)(I|i)(N|n) *(:)";
-					googleToken = StringUtils.trim(googlePart.split(googleRegex)[1]);
-				}
+			try {
+				if (StringUtils.containsIgnoreCase(message.getSubject(), "RPI Authorization") || StringUtils.containsIgnoreCase(from, username)) {
+					logger.info("Processing message");
+					String[] tokens = MailTokenScanner.scan(message);
 
-				if (StringUtils.containsIgnoreCase(googleToken, "your_pin")) {
-					googleToken = StringUtils.EMPTY;
+					if (Objects.nonNull(tokens)) {
+						setTokens(tokens);
+					}
 				}
+			} catch (Throwable cause) {
+				logger.error(cause);
+			}
+		}
 
-				pattern = Pattern.compile(twitterRegex);
-				matcher = pattern.matcher(message);
-
-				String twitterPart = "";
-
-				if (matcher.find()) {
-					twitterPart = matcher.group();
-				}
+		/**
+		 * Method {@code keepAlive} terminates the running IDLE command by
+		 * sending a NOOP, so that the {@link IdleThread} re-issues it before
+		 * the server or any NAT in between drops the idle connection.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		private void keepAlive() {
+			IMAPFolder inbox = this.inbox;
 
-				if (StringUtils.isNotBlank(twitterPart)) {
-					twitterRegex = "(R|r)(P|p)(I|i) *(T|t)(W|w)(I|i)(T|t){2}(E|e)(R|r) *(P|p)(I|i)(N|n) *(:)";
-					twitterToken = StringUtils.trim(twitterPart.split(twitterRegex)[1]);
-				}
+			if (Objects.isNull(inbox) || !inbox.isOpen()) {
+				return;
+			}
 
-				if (StringUtils.isNotBlank(googleToken) || StringUtils.isNotBlank(twitterToken)) {
-					return new String[] { googleToken, twitterToken };
-				}
+			try {
+				inbox.doCommand(protocol -> {
+					protocol.noop();
+					return null;
+				});
 			} catch (Throwable cause) {
-				logger.error(cause.getMessage(), cause);
+				logger.error("Mail receiver keepalive failed. Reason is: " + cause.getMessage());
 			}
-
-			return null;
 		}
 
 		/**
-		 * Class {@code IdleThread} ensures that the Inbox remain open by
-		 * passing IDLE Command to the server.
+		 * Method {@code stop} stops the receiver and releases the connection.
+		 * 
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		public void stop() {
+			idleThread.kill();
+			keepAliveService.shutdownNow();
+			disconnect();
+			idleThread.interrupt();
+		}
+		/**
+		 * Class {@code IdleThread} keeps the connection to the Inbox and
+		 * passes IDLE Command to the server. Whenever the IDLE command returns
+		 * the new mails are fetched. If the connection is lost it reconnects
+		 * after an exponentially growing, jittered delay.
 		 * 
 		 * @author Tapas Bose
 		 * @since RPI V1.0
 		 */
 		private class IdleThread extends Thread {
 
-			private final Folder folder;
 			private volatile boolean running = true;
 
 			/**
@@ -396,10 +414,9 @@ public class GmailClient extends Observable {
 			 * 
 			 * @author Tapas Bose
 			 * @since RPI V1.0
-			 * @param folder
 			 */
-			public IdleThread(Folder folder) {
-				this.folder = folder;
+			public IdleThread() {
+				super("RpiMailReceiver");
 			}
 
 			/**
@@ -425,23 +442,60 @@ public class GmailClient extends Observable {
 			 */
 			@Override
 			public void run() {
+				int attempt = 0;
+
 				while (running) {
 					try {
-						ensureOpen(folder);
-						logger.info("Enter idle");
-						((IMAPFolder) folder).idle();
+						connect();
+						attempt = 0;
+
+						while (running && inbox.isOpen()) {
+							logger.info("Enter idle");
+							inbox.idle(true);
+							fetchNewMessages();
+						}
 					} catch (Throwable cause) {
-						logger.error(cause);
+						if (!running) {
+							break;
+						}
+
+						metricsRegistry.counter("gmail.receiver.disconnects").increment();
+						logger.error("Mail receiver connection lost. Reason is: " + cause.getMessage());
+					}
+
+					disconnect();
+
+					if (running) {
+						long delay = getReconnectDelay(attempt++);
+						logger.info("Reconnecting mail receiver in " + delay + " ms.");
 
 						try {
-							TimeUnit.MILLISECONDS.sleep(100);
+							TimeUnit.MILLISECONDS.sleep(delay);
 						} catch (InterruptedException ignore) {
 						}
 					}
 				}
 
+				disconnect();
 				logger.info("Mail receiver stopped.");
 			}
+
+			/**
+			 * Method {@code getReconnectDelay} calculates the delay before the
+			 * given reconnection attempt. The delay doubles with every attempt
+			 * up to {@link GmailClient#MAX_RECONNECT_DELAY} and a random half of
+			 * it is taken away, so that the retries do not get synchronized.
+			 * 
+			 * @author Tapas Bose
+			 * @since RPI V1.0
+			 * @param attempt
+			 *            the number of the failed attempts so far
+			 * @return the delay in milliseconds
+			 */
+			private long getReconnectDelay(int attempt) {
+				long delay = Math.min(MAX_RECONNECT_DELAY, MIN_RECONNECT_DELAY << Math.min(attempt, 16));
+				return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+			}
 		}
 
 		/**
@@ -480,37 +534,5 @@ public class GmailClient extends Observable {
 			} catch (Throwable ignore) {
 			}
 		}
-
-		/**
-		 * Method {@code ensureOpen} ensures the {@link Folder} instance which
-		 * has been passed into it, remains open.
-		 * 
-		 * @author Tapas Bose
-		 * @since RPI V1.0
-		 * @param folder
-		 *            is the instance of Folder which needs to be opened.
-		 * @throws MessagingException
-		 */
-		public void ensureOpen(final Folder folder) throws MessagingException {
-			if (folder != null) {
-				Store store = folder.getStore();
-				if (store != null && !store.isConnected()) {
-					store.connect(username, password);
-				}
-			} else {
-				throw new MessagingException("Unable to open a null folder");
-			}
-
-			if (folder.exists() && !folder.isOpen() && (folder.getType() & Folder.HOLDS_MESSAGES) != 0) {
-				logger.info("Open folder " + folder.getFullName());
-
-				folder.open(Folder.READ_ONLY);
-
-				if (!folder.isOpen()) {
-					throw new MessagingException("Unable to open folder " + folder.getFullName());
-				}
-			}
-
-		}
 	}
-}
+}
\ No newline at end of file
@@ -6,13 +6,18 @@ import java.security.GeneralSecurityException;
 import java.util.Objects;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import com.edfx.rpi.app.machine.image.ImageProcessor;
 import com.edfx.rpi.app.social.master.Master;
 import com.edfx.rpi.app.social.master.MasterProcessor;
 import com.edfx.rpi.app.utils.config.Configuration;
+import com.edfx.rpi.app.utils.event.EventHub;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
@@ -46,7 +51,7 @@ public enum GoogleManager implements Observer {
 	private GoogleConfiguration configuration;
 	private GmailClient gmailClient;	
 	
-	private String[] tokens;
+	private final BlockingQueue<String[]> tokens = new LinkedBlockingQueue<>();
 	
 	/**
 	 * Constructor {@code GoogleManager}.
@@ -204,6 +209,10 @@ public enum GoogleManager implements Observer {
 			setConfiguration(configuration);
 		}
 		
+		if(Objects.nonNull(gmailClient)) {
+			gmailClient.shutdown();
+		}
+		
 		gmailClient = new GmailClient(configuration);
 		gmailClient.addObserver(this);				
 	}
@@ -221,7 +230,9 @@ public enum GoogleManager implements Observer {
 	
 	/**
 	 * Method {@code update} is called when the observed object, in this case
-	 * the instance {@link #gmailClient} of {@link GmailClient} is changed.
+	 * the instance {@link #gmailClient} of {@link GmailClient} is changed. The
+	 * received tokens are handed over to the thread waiting in
+	 * {@link #awaitTokens()} immediately.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -233,32 +244,37 @@ public enum GoogleManager implements Observer {
 	 */
 	@Override
 	public void update(Observable observable, Object arguments) {
-		if(observable instanceof GmailClient) {
-			tokens = (String[]) arguments;
+		if(observable instanceof GmailClient && Objects.nonNull(arguments)) {
+			tokens.offer((String[]) arguments);
 		}
 	}
-		
+
 	/**
-	 * Method {@code getTokens} return the tokens.
+	 * Method {@code awaitTokens} waits until the {@link GmailClient} receives
+	 * a mail containing Authorization Tokens and returns them. Tokens received
+	 * before the call are returned in the order they arrived.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
-	 * @return the tokens
+	 * @return the Google Authorization Token at the zeroth index and the
+	 *         Twitter Authorization Token at the first index
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
 	 */
-	public String[] getTokens() {
-		return tokens;
+	public String[] awaitTokens() throws InterruptedException {
+		return tokens.take();
 	}
 
 	/**
-	 * Method {@code setTokens} set the tokens.
+	 * Method {@code clearTokens} discards the tokens which are received but not
+	 * consumed yet. It is called before an authorization mail is sent, as the
+	 * new authorization URLs invalidate the pins received earlier.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
-	 * @param tokens
-	 *            the tokens to set
 	 */
-	public void setTokens(String[] tokens) {
-		this.tokens = tokens;
+	public void clearTokens() {
+		tokens.clear();
 	}
 
 	/**
@@ -284,6 +300,19 @@ public enum GoogleManager implements Observer {
 		gmailClient.stopMailReceiver();
 	}	
 	
+	/**
+	 * Method {@code shutdown} releases the mail connections of the
+	 * {@link GmailClient}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public void shutdown() {
+		if(Objects.nonNull(gmailClient)) {
+			gmailClient.shutdown();
+		}
+	}
+	
 	/**
 	 * Method {@code initializeServiceProvider} initializes the
 	 * {@link GoogleServiceProvider} with the given Authorization Code
@@ -331,7 +360,8 @@ public enum GoogleManager implements Observer {
 	
 	/**
 	 * Method {@code uploadImages} uploads images in Google Drive by
-	 * {@link DriveClient}.
+	 * {@link DriveClient}. The completion event carries the thumbnail of the
+	 * first image as its preview.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -339,18 +369,31 @@ public enum GoogleManager implements Observer {
 	 *            are the image files need to be uploaded
 	 * @param albumName
 	 *            is the name of the album where the images will be placed
+	 * @param priority
+	 *            is the priority class of the upload
 	 * @return the URL of the album in which the images has been uploaded
 	 * @see DriveClient
 	 * @see GoogleServiceProvider
+	 * @throws PartialUploadException
+	 *             if some of the images could not be uploaded
 	 * @throws IOException
 	 */
-	public String uploadImages(File[] files, String albumName) throws IOException {
+	public String uploadImages(File[] files, String albumName, UploadPriority priority) throws IOException {
 		Credential credential = googleServiceProvider.getCredential(configuration.getAuthorizationCode(), configuration.getRpiGmailAccount());
 		Drive drive = googleServiceProvider.getDrive(credential);
-		String link = DriveClient.INSTANCE.uploadImages(drive, files, albumName, getGoogleUserAccount());
-		logger.info("Url of the album: " + link);
+		String preview = ImageProcessor.INSTANCE.getPreview(files[0]);
 
-		return link;
+		try {
+			String link = DriveClient.INSTANCE.uploadImages(drive, files, albumName, getGoogleUserAccount(), priority);
+			logger.info("Url of the album: " + link);
+			EventHub.INSTANCE.publish("upload.completed", "kind", "images", "album", albumName, "files", files.length, "url", link, "preview", preview);
+
+			return link;
+		} catch (PartialUploadException cause) {
+			logger.info("Url of the album: " + cause.getLink() + ", images failed: " + cause.getFailed().length);
+			EventHub.INSTANCE.publish("upload.completed", "kind", "images", "album", albumName, "files", files.length - cause.getFailed().length, "url", cause.getLink(), "preview", preview);
+			throw cause;
+		}
 	}
 	
 	/**
@@ -371,26 +414,48 @@ public enum GoogleManager implements Observer {
 		Drive drive = googleServiceProvider.getDrive(credential);
 		String link = DriveClient.INSTANCE.uploadVideo(drive, video, getGoogleUserAccount());
 		logger.info("Url of the album: " + link);
+		EventHub.INSTANCE.publish("upload.completed", "kind", "video", "size", video.length(), "url", link);
 
 		return link;
 	}
 	
+	/**
+	 * Method {@code startVideoUpload} starts the upload of a video recorded in
+	 * segments by {@link DriveClient}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the upload the segments are handed to
+	 * @see DriveFolderUpload
+	 * @throws IOException
+	 */
+	public DriveFolderUpload startVideoUpload() throws IOException {
+		Credential credential = googleServiceProvider.getCredential(configuration.getAuthorizationCode(), configuration.getRpiGmailAccount());
+		Drive drive = googleServiceProvider.getDrive(credential);
+		return DriveClient.INSTANCE.openFolderUpload(drive, "RPI Video: Sweep Room", getGoogleUserAccount());
+	}
+	
 	/**
 	 * Method {@code getShortenUrl} returns the short representation of the URL
 	 * which has been passed to it by calling the {@link UrlshortenerClient}.
+	 * The short URLs are cached by {@link UrlShorteningService}, and the long
+	 * URL is returned if the shortener is slow or fails.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @param longUrl
 	 *            is the URL to be shorten
-	 * @return the short form of the URL
+	 * @return the short form of the URL, or the URL itself
 	 * @see UrlshortenerClient
+	 * @see UrlShorteningService
 	 * @see GoogleServiceProvider
 	 * @throws IOException
 	 */
 	public String getShortenUrl(String longUrl) throws IOException {
-		Credential credential = googleServiceProvider.getCredential(configuration.getAuthorizationCode(), configuration.getRpiGmailAccount());
-		return UrlshortenerClient.INSTANCE.shrotenUrl(googleServiceProvider.getUrlshortener(credential), longUrl);
+		return UrlShorteningService.INSTANCE.shorten(longUrl, () -> {
+			Credential credential = googleServiceProvider.getCredential(configuration.getAuthorizationCode(), configuration.getRpiGmailAccount());
+			return UrlshortenerClient.INSTANCE.shrotenUrl(googleServiceProvider.getUrlshortener(credential), longUrl);
+		});
 	}
 	
 	/**
@@ -425,8 +490,9 @@ public enum GoogleManager implements Observer {
 	 * @param rpiTwitterHandle
 	 *            is the Twitter Handle who needs to be Authorize, in our case
 	 *            it is the RPI's Twitter Account.
+	 * @return a future which completes when the mail is sent
 	 */
-	public void sendConfigurationMail(String twitterAuthorizationUrl, String googleAuthorizationUrl, String rpiGoggleHandle, String rpiTwitterHandle) {
+	public CompletableFuture<Void> sendConfigurationMail(String twitterAuthorizationUrl, String googleAuthorizationUrl, String rpiGoggleHandle, String rpiTwitterHandle) {
 		StringBuilder messageBuilder = new StringBuilder("Hello,");
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Please click this link to logout from twitter, if you are logged in currently: ");
@@ -448,7 +514,7 @@ public enum GoogleManager implements Observer {
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Thank you.");
 
-		gmailClient.sendMail("RPI Authorization for Google and Twitter", messageBuilder.toString());
+		return gmailClient.sendMail("RPI Authorization for Google and Twitter", messageBuilder.toString());
 	}
 	
 	/**
@@ -463,8 +529,9 @@ public enum GoogleManager implements Observer {
 	 * @param rpiGoggleHandle
 	 *            is the Google Handle who needs to be Authorize, in our case it
 	 *            is the RPI's Google Account.
+	 * @return a future which completes when the mail is sent
 	 */
-	public void sendConfigurationMailForGoogle(String googleAuthorizationUrl, String rpiGoggleHandle) {
+	public CompletableFuture<Void> sendConfigurationMailForGoogle(String googleAuthorizationUrl, String rpiGoggleHandle) {
 		StringBuilder messageBuilder = new StringBuilder("Hello,");
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Click this Url: ").append(googleAuthorizationUrl).append(" to authorize your Rpi Home Buddy ").append(rpiGoggleHandle).append(" for Google services.");
@@ -477,7 +544,7 @@ public enum GoogleManager implements Observer {
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Thank you.");
 		
-		gmailClient.sendMail("RPI Authorization for Google", messageBuilder.toString());
+		return gmailClient.sendMail("RPI Authorization for Google", messageBuilder.toString());
 	}
 	
 	/**
@@ -491,8 +558,9 @@ public enum GoogleManager implements Observer {
 	 * @param rpiTwitterHandle
 	 *            is the Twitter Handle who needs to be Authorize, in our case
 	 *            it is the RPI's Twitter Account.
+	 * @return a future which completes when the mail is sent
 	 */
-	public void sendConfigurationMailForTwitter(String twitterAuthorizationUrl, String rpiTwitterHandle) {
+	public CompletableFuture<Void> sendConfigurationMailForTwitter(String twitterAuthorizationUrl, String rpiTwitterHandle) {
 		StringBuilder messageBuilder = new StringBuilder("Hello,");
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Please click this link to logout from twitter, if you are logged in currently: ");
@@ -509,7 +577,7 @@ public enum GoogleManager implements Observer {
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Thank you.");
 		
-		gmailClient.sendMail("RPI Authorization for Twitter", messageBuilder.toString());
+		return gmailClient.sendMail("RPI Authorization for Twitter", messageBuilder.toString());
 	}
 	
 	/**
@@ -526,8 +594,9 @@ public enum GoogleManager implements Observer {
 	 *            is email address to whom the mail will be sent to
 	 * @param rpiTwitterAccount
 	 *            the Twitter Handle of RPI
+	 * @return a future which completes when the mail is sent
 	 */
-	public void sendDoFollowMail(String message, String recipient, String rpiTwitterAccount) {
+	public CompletableFuture<Void> sendDoFollowMail(String message, String recipient, String rpiTwitterAccount) {
 		StringBuilder messageBuilder = new StringBuilder();
 		messageBuilder.append("Hello,");
 		messageBuilder.append("<br/>");
@@ -538,6 +607,6 @@ public enum GoogleManager implements Observer {
 		messageBuilder.append("Please follow ").append(rpiTwitterAccount).append(" in twitter.");
 		messageBuilder.append("<br/>");
 		messageBuilder.append("Thank you.");
-		gmailClient.sendMail("RPI Communication Error", messageBuilder.toString(), recipient);
+		return gmailClient.sendMail("RPI Communication Error", messageBuilder.toString(), recipient);
 	}
 }
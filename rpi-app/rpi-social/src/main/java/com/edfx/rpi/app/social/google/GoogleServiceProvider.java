@@ -7,14 +7,21 @@ import java.io.InputStreamReader;
 import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+
+import com.edfx.rpi.app.utils.http.HttpConnectionManager;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeTokenRequest;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponseInterceptor;
 import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.client.util.store.DataStoreFactory;
@@ -42,6 +49,8 @@ public enum GoogleServiceProvider {
 	private static final String REDIRECT_URI = "urn:ietf:wg:oauth:2.0:oob";
 	private static final List<String> SCOPES = Arrays.asList(DriveScopes.DRIVE, UrlshortenerScopes.URLSHORTENER);
 
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
 	private String applicationName;
 
 	private File dataStoreDirectory;
@@ -110,7 +119,9 @@ public enum GoogleServiceProvider {
 	/**
 	 * 
 	 * Method {@code getHttpTransport} create and returns the
-	 * {@link HttpTransport}.
+	 * {@link HttpTransport}. It makes its TLS connections through the factory
+	 * of {@link HttpConnectionManager}, so its connections resume the TLS
+	 * sessions of the earlier ones.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -120,7 +131,7 @@ public enum GoogleServiceProvider {
 	 * @throws IOException
 	 */
 	private HttpTransport getHttpTransport() throws GeneralSecurityException, IOException {
-		return GoogleNetHttpTransport.newTrustedTransport();
+		return new NetHttpTransport.Builder().setSslSocketFactory(HttpConnectionManager.INSTANCE.getSocketFactory()).build();
 	}
 
 	/**
@@ -244,7 +255,7 @@ public enum GoogleServiceProvider {
 	 * @see Urlshortener.Builder
 	 */
 	public Urlshortener getUrlshortener(Credential credential) {
-		Urlshortener.Builder urlShortnerBuilder = new Urlshortener.Builder(transport, jsonFactory, credential);
+		Urlshortener.Builder urlShortnerBuilder = new Urlshortener.Builder(transport, jsonFactory, getRequestInitializer(credential, "urlshortener"));
 		urlShortnerBuilder.setApplicationName(applicationName);
 		return urlShortnerBuilder.build();
 	}
@@ -265,8 +276,48 @@ public enum GoogleServiceProvider {
 	 * @see Drive.Builder
 	 */
 	public Drive getDrive(Credential credential) {
-		Drive.Builder driveBuilder = new Drive.Builder(transport, jsonFactory, credential);
+		Drive.Builder driveBuilder = new Drive.Builder(transport, jsonFactory, getRequestInitializer(credential, "drive"));
 		driveBuilder.setApplicationName(applicationName);
 		return driveBuilder.build();
 	}
+
+	/**
+	 * Method {@code getRequestInitializer} returns the
+	 * {@link HttpRequestInitializer} which authorizes the requests with the
+	 * given {@link Credential} and records their latency in the
+	 * {@code http.<service>} histogram.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param credential
+	 *            is the instance of Credential
+	 * @param service
+	 *            is the name of the service
+	 * @return an instance of HttpRequestInitializer
+	 */
+	private HttpRequestInitializer getRequestInitializer(Credential credential, String service) {
+		return request -> {
+			credential.initialize(request);
+
+			long[] startedAt = new long[1];
+			HttpExecuteInterceptor interceptor = request.getInterceptor();
+			HttpResponseInterceptor responseInterceptor = request.getResponseInterceptor();
+
+			request.setInterceptor(toExecute -> {
+				startedAt[0] = System.nanoTime();
+
+				if (Objects.nonNull(interceptor)) {
+					interceptor.intercept(toExecute);
+				}
+			});
+
+			request.setResponseInterceptor(response -> {
+				metricsRegistry.histogram("http." + service).recordSince(startedAt[0]);
+
+				if (Objects.nonNull(responseInterceptor)) {
+					responseInterceptor.interceptResponse(response);
+				}
+			});
+		};
+	}
 }
@@ -0,0 +1,249 @@
+package com.edfx.rpi.app.social.google;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
+
+/**
+ * Class {@code MailSender} sends the mails of {@link GmailClient}
+ * asynchronously. The mails are queued and sent by a single thread over one
+ * authenticated SMTP {@link Transport}, which is kept open while mails keep
+ * coming and closed after {@link #IDLE_TIMEOUT} milliseconds without any.
+ * Transient failures are retried with a growing delay.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class MailSender {
+	private static final long IDLE_TIMEOUT = 60000;
+	private static final int BATCH_SIZE = 10;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_DELAY = 2000;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private final Session session;
+	private final String username;
+	private final String password;
+
+	private final BlockingQueue<OutgoingMail> queue = new LinkedBlockingQueue<>();
+	private final Thread senderThread;
+
+	private volatile boolean running = true;
+	private Transport transport;
+
+	/**
+	 * Class {@code OutgoingMail} is a queued mail along with the future
+	 * completed when it is sent.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private static final class OutgoingMail {
+		private final MimeMessage message;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		/**
+		 * Constructor {@code OutgoingMail}
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param message
+		 *            the mail to send
+		 */
+		private OutgoingMail(MimeMessage message) {
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Constructor {@code MailSender}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param session
+	 *            the mail session holding the SMTP properties
+	 * @param username
+	 *            the username of the SMTP account
+	 * @param password
+	 *            the password of the SMTP account
+	 */
+	MailSender(Session session, String username, String password) {
+		this.session = session;
+		this.username = username;
+		this.password = password;
+
+		senderThread = RpiThreadFactory.INSTANCE.newThread(this::run);
+		senderThread.start();
+	}
+
+	/**
+	 * Method {@code send} queues the given mail.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the mail to send
+	 * @return a future which completes when the mail is sent or finally fails
+	 */
+	CompletableFuture<Void> send(MimeMessage message) {
+		OutgoingMail mail = new OutgoingMail(message);
+
+		if (!running) {
+			mail.future.completeExceptionally(new MessagingException("Mail sender is shut down."));
+			return mail.future;
+		}
+
+		queue.offer(mail);
+		return mail.future;
+	}
+
+	/**
+	 * Method {@code run} takes the queued mails in batches and sends them over
+	 * the same connection until the queue stays empty for
+	 * {@link #IDLE_TIMEOUT} milliseconds.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void run() {
+		List<OutgoingMail> batch = new ArrayList<>(BATCH_SIZE);
+
+		while (running) {
+			try {
+				OutgoingMail mail = queue.poll(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+
+				if (Objects.isNull(mail)) {
+					closeTransport();
+					continue;
+				}
+
+				batch.add(mail);
+				queue.drainTo(batch, BATCH_SIZE - 1);
+
+				for (OutgoingMail outgoingMail : batch) {
+					deliver(outgoingMail);
+				}
+			} catch (InterruptedException ignore) {
+			} finally {
+				for (OutgoingMail outgoingMail : batch) {
+					if (!outgoingMail.future.isDone()) {
+						outgoingMail.future.completeExceptionally(new MessagingException("Mail sender is shut down."));
+					}
+				}
+
+				batch.clear();
+			}
+		}
+
+		closeTransport();
+	}
+
+	/**
+	 * Method {@code deliver} sends the given mail, reconnecting and retrying
+	 * up to {@link #MAX_ATTEMPTS} times. Mails rejected for their addresses
+	 * are not retried.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param mail
+	 *            the mail to send
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the next attempt
+	 */
+	private void deliver(OutgoingMail mail) throws InterruptedException {
+		for (int attempt = 1;; attempt++) {
+			try {
+				Transport transport = getTransport();
+				mail.message.saveChanges();
+				transport.sendMessage(mail.message, mail.message.getAllRecipients());
+				mail.future.complete(null);
+				return;
+			} catch (SendFailedException cause) {
+				mail.future.completeExceptionally(cause);
+				return;
+			} catch (MessagingException cause) {
+				closeTransport();
+
+				if (attempt >= MAX_ATTEMPTS || !running) {
+					mail.future.completeExceptionally(cause);
+					return;
+				}
+
+				logger.info("Unable to send mail, retrying. Reason is: " + cause.getMessage());
+				TimeUnit.MILLISECONDS.sleep(RETRY_DELAY * attempt);
+			}
+		}
+	}
+
+	/**
+	 * Method {@code getTransport} returns the connected {@link Transport},
+	 * connecting it if needed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the connected Transport
+	 * @throws MessagingException
+	 */
+	private Transport getTransport() throws MessagingException {
+		if (Objects.isNull(transport) || !transport.isConnected()) {
+			closeTransport();
+
+			Transport transport = session.getTransport("smtp");
+			transport.connect(username, password);
+			this.transport = transport;
+		}
+
+		return transport;
+	}
+
+	/**
+	 * Method {@code closeTransport} closes the {@link Transport} quietly.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void closeTransport() {
+		if (Objects.nonNull(transport)) {
+			try {
+				transport.close();
+			} catch (Throwable ignore) {
+			}
+
+			transport = null;
+		}
+	}
+
+	/**
+	 * Method {@code shutdown} stops the sender. The mails still in the queue
+	 * are failed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	void shutdown() {
+		running = false;
+		senderThread.interrupt();
+
+		OutgoingMail mail;
+
+		while (Objects.nonNull(mail = queue.poll())) {
+			mail.future.completeExceptionally(new MessagingException("Mail sender is shut down."));
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package com.edfx.rpi.app.social.google;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.internet.ContentType;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Class {@code MailTokenScanner} searches a mail for the Google Authorization
+ * Token and the Twitter Authorization Token. <br/>
+ * The MIME parts are walked one by one and only the text parts which are not
+ * attachments are read. A part is decoded as a stream into a bounded buffer,
+ * HTML tags are skipped on the fly, and the walk stops as soon as both the
+ * tokens are found, so neither a large body nor an attachment is ever
+ * materialized.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class MailTokenScanner {
+	private static final int MAX_TEXT_LENGTH = 16384;
+	private static final int READ_BUFFER_SIZE = 1024;
+	private static final int MAX_ENTITY_LENGTH = 8;
+	private static final int MAX_DEPTH = 8;
+
+	private static final String PLACEHOLDER = "your_pin";
+
+	private static final Pattern TOKEN_PATTERN = Pattern.compile("rpi\\s*(google|twitter)\\s*pin\\s*:\\s*(\\S*)", Pattern.CASE_INSENSITIVE);
+
+	private String googleToken = StringUtils.EMPTY;
+	private String twitterToken = StringUtils.EMPTY;
+
+	/**
+	 * Constructor {@code MailTokenScanner}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private MailTokenScanner() {
+
+	}
+
+	/**
+	 * Method {@code scan} searches the given mail for the Authorization
+	 * Tokens.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the mail to scan
+	 * @return an array of String which contains the Google Authorization Token
+	 *         at the zeroth index and the Twitter Authorization Token at the
+	 *         first index, or null if none of them is found
+	 * @throws MessagingException
+	 * @throws IOException
+	 */
+	static String[] scan(Part message) throws MessagingException, IOException {
+		MailTokenScanner scanner = new MailTokenScanner();
+		scanner.scanPart(message, 0);
+
+		if (StringUtils.isNotBlank(scanner.googleToken) || StringUtils.isNotBlank(scanner.twitterToken)) {
+			return new String[] { scanner.googleToken, scanner.twitterToken };
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method {@code isComplete} tells if both the tokens are found.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if both the tokens are found
+	 */
+	private boolean isComplete() {
+		return StringUtils.isNotEmpty(googleToken) & StringUtils.isNotEmpty(twitterToken);
+	}
+
+	/**
+	 * Method {@code scanPart} scans the given part, descending into
+	 * multiparts. In a {@code multipart/alternative} the plain text
+	 * alternative is scanned first since it needs no markup stripping.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param part
+	 *            the part to scan
+	 * @param depth
+	 *            the nesting depth of the part
+	 * @throws MessagingException
+	 * @throws IOException
+	 */
+	private void scanPart(Part part, int depth) throws MessagingException, IOException {
+		if (isComplete() || depth > MAX_DEPTH || Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition())) {
+			return;
+		}
+
+		if (part.isMimeType("multipart/*")) {
+			Multipart multipart = (Multipart) part.getContent();
+			boolean alternative = part.isMimeType("multipart/alternative");
+
+			if (alternative) {
+				for (int index = 0; index < multipart.getCount() && !isComplete(); index++) {
+					Part bodyPart = multipart.getBodyPart(index);
+
+					if (bodyPart.isMimeType("text/plain")) {
+						scanPart(bodyPart, depth + 1);
+					}
+				}
+			}
+
+			for (int index = 0; index < multipart.getCount() && !isComplete(); index++) {
+				Part bodyPart = multipart.getBodyPart(index);
+
+				if (!(alternative && bodyPart.isMimeType("text/plain"))) {
+					scanPart(bodyPart, depth + 1);
+				}
+			}
+		} else if (part.isMimeType("text/plain") || part.isMimeType("text/html")) {
+			scanText(extractText(part));
+		}
+	}
+
+	/**
+	 * Method {@code scanText} searches the given text for the tokens. The
+	 * first token of each type which is not the placeholder of the
+	 * configuration mail is taken.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param text
+	 *            the text to search
+	 */
+	private void scanText(CharSequence text) {
+		Matcher matcher = TOKEN_PATTERN.matcher(text);
+
+		while (matcher.find() && !isComplete()) {
+			String token = matcher.group(2);
+
+			if (StringUtils.containsIgnoreCase(token, PLACEHOLDER)) {
+				continue;
+			}
+
+			if (StringUtils.equalsIgnoreCase(matcher.group(1), "google")) {
+				if (StringUtils.isEmpty(googleToken)) {
+					googleToken = token;
+				}
+			} else if (StringUtils.isEmpty(twitterToken)) {
+				twitterToken = getLeadingDigits(token);
+			}
+		}
+	}
+
+	/**
+	 * Method {@code getLeadingDigits} returns the leading digits of the given
+	 * token, the Twitter Authorization Token is numeric.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param token
+	 *            the token
+	 * @return the leading digits
+	 */
+	private static String getLeadingDigits(String token) {
+		int end = 0;
+
+		while (end < token.length() && Character.isDigit(token.charAt(end))) {
+			end++;
+		}
+
+		return token.substring(0, end);
+	}
+
+	/**
+	 * Method {@code extractText} reads the text of the given part as a stream
+	 * into a buffer of at most {@link #MAX_TEXT_LENGTH} characters. For HTML
+	 * parts the tags are skipped and replaced by a space and the common
+	 * entities are decoded. Runs of whitespace are collapsed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param part
+	 *            the text part
+	 * @return the text
+	 * @throws MessagingException
+	 * @throws IOException
+	 */
+	private static CharSequence extractText(Part part) throws MessagingException, IOException {
+		boolean html = part.isMimeType("text/html");
+		StringBuilder text = new StringBuilder(READ_BUFFER_SIZE);
+		StringBuilder entity = new StringBuilder(MAX_ENTITY_LENGTH);
+		char[] buffer = new char[READ_BUFFER_SIZE];
+
+		boolean inTag = false;
+		boolean inEntity = false;
+
+		try (InputStream inputStream = part.getInputStream(); Reader reader = new InputStreamReader(inputStream, getCharset(part))) {
+			int read;
+
+			while (text.length() < MAX_TEXT_LENGTH && (read = reader.read(buffer)) != -1) {
+				for (int index = 0; index < read && text.length() < MAX_TEXT_LENGTH; index++) {
+					char character = buffer[index];
+
+					if (html) {
+						if (inTag) {
+							inTag = character != '>';
+							continue;
+						}
+
+						if (inEntity) {
+							if (character == ';') {
+								inEntity = false;
+								append(text, decodeEntity(entity));
+								continue;
+							}
+
+							if (entity.length() < MAX_ENTITY_LENGTH && !Character.isWhitespace(character) && character != '<' && character != '&') {
+								entity.append(character);
+								continue;
+							}
+
+							inEntity = false;
+							text.append('&').append(entity);
+						}
+
+						if (character == '<') {
+							inTag = true;
+							append(text, ' ');
+							continue;
+						}
+
+						if (character == '&') {
+							inEntity = true;
+							entity.setLength(0);
+							continue;
+						}
+					}
+
+					append(text, character);
+				}
+			}
+		}
+
+		return text;
+	}
+
+	/**
+	 * Method {@code append} appends the given character, collapsing
+	 * whitespace.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param text
+	 *            the text being built
+	 * @param character
+	 *            the character to append
+	 */
+	private static void append(StringBuilder text, char character) {
+		if (Character.isWhitespace(character) || Character.isSpaceChar(character)) {
+			if (text.length() > 0 && text.charAt(text.length() - 1) != ' ') {
+				text.append(' ');
+			}
+		} else {
+			text.append(character);
+		}
+	}
+
+	/**
+	 * Method {@code decodeEntity} decodes the HTML entities which may appear
+	 * around the tokens.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param entity
+	 *            the entity name without {@code &} and {@code ;}
+	 * @return the decoded character, a space for the unknown ones
+	 */
+	private static char decodeEntity(CharSequence entity) {
+		String name = entity.toString();
+
+		switch (name) {
+		case "amp":
+			return '&';
+		case "lt":
+			return '<';
+		case "gt":
+			return '>';
+		case "quot":
+			return '"';
+		case "#58":
+			return ':';
+		default:
+			return ' ';
+		}
+	}
+
+	/**
+	 * Method {@code getCharset} returns the charset of the given part, or
+	 * UTF-8 if it is missing or not supported.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param part
+	 *            the text part
+	 * @return the charset
+	 */
+	private static Charset getCharset(Part part) {
+		try {
+			String charset = new ContentType(part.getContentType()).getParameter("charset");
+
+			if (Objects.nonNull(charset) && Charset.isSupported(charset)) {
+				return Charset.forName(charset);
+			}
+		} catch (Throwable ignore) {
+		}
+
+		return StandardCharsets.UTF_8;
+	}
+}
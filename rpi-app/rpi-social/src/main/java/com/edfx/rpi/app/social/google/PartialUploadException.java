@@ -0,0 +1,59 @@
+package com.edfx.rpi.app.social.google;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class {@code PartialUploadException} is thrown by
+ * {@link DriveClient#uploadImages} when some of the images could not be
+ * uploaded. The others are in the album, whose link it carries.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public class PartialUploadException extends IOException {
+
+	private static final long serialVersionUID = 5243110917532248601L;
+
+	private final String link;
+	private final File[] failed;
+
+	/**
+	 * Constructor {@code PartialUploadException}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param link
+	 *            the link to the album holding the uploaded images
+	 * @param failed
+	 *            the images which could not be uploaded
+	 */
+	public PartialUploadException(String link, File[] failed) {
+		super(failed.length + " images could not be uploaded.");
+		this.link = link;
+		this.failed = failed;
+	}
+
+	/**
+	 * Method {@code getLink} returns the link to the album holding the
+	 * uploaded images.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the link
+	 */
+	public String getLink() {
+		return link;
+	}
+
+	/**
+	 * Method {@code getFailed} returns the images which could not be uploaded.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the images
+	 */
+	public File[] getFailed() {
+		return failed;
+	}
+}
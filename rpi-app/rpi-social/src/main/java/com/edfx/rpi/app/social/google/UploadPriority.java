@@ -0,0 +1,18 @@
+package com.edfx.rpi.app.social.google;
+
+/**
+ * Class {@code UploadPriority} represents the priority class of an upload to
+ * Google Drive. A class is paused between chunks while an upload of a higher
+ * class is running.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ * @see UploadScheduler
+ */
+public enum UploadPriority {
+
+	ALERT,
+	ON_DEMAND,
+	BACKGROUND;
+
+}
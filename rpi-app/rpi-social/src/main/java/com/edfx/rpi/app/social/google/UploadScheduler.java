@@ -0,0 +1,267 @@
+package com.edfx.rpi.app.social.google;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
+
+/**
+ * Class {@code UploadScheduler} shares the uplink between the uploads to
+ * Google Drive.
+ * <br/>
+ * A chunk of a lower {@link UploadPriority} waits as long as an upload of a
+ * higher one is running, so an alert pauses a video between two chunks
+ * instead of queueing behind it. Every chunk but the ones of an alert also
+ * takes its size from a token bucket which is filled at
+ * {@code upload.bytesPerSecond} of {@code media.properties} up to
+ * {@code upload.burstBytes}, so those uploads together never use more than
+ * the budget. The default of 256 KiB/s, about 2 Mbit/s, leaves most home
+ * uplinks free for the alerts and the Twitter stream; 0 does not limit the
+ * rate. The achieved throughput of each class is reported in the
+ * {@code upload.<class>.throughput} gauge in bytes per second.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+enum UploadScheduler {
+	INSTANCE;
+
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+
+	private final int[] running = new int[UploadPriority.values().length];
+	private final long[] bytes = new long[UploadPriority.values().length];
+	private final long[] activeNanos = new long[UploadPriority.values().length];
+
+	private final long bytesPerSecond;
+	private final long burstBytes;
+
+	private double tokens;
+	private long refilledAt = System.nanoTime();
+
+	/**
+	 * Constructor {@code UploadScheduler}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private UploadScheduler() {
+		java.util.Properties properties = PropertiesLoader.INSTANCE.getProperties(Properties.MEDIA);
+
+		bytesPerSecond = Math.max(0, Long.parseLong(getProperty(properties, "upload.bytesPerSecond", "262144")));
+		burstBytes = Math.max(1, Long.parseLong(getProperty(properties, "upload.burstBytes", "262144")));
+		tokens = burstBytes;
+
+		for (UploadPriority priority : UploadPriority.values()) {
+			metricsRegistry.gauge("upload." + getName(priority) + ".throughput", () -> getThroughput(priority));
+			metricsRegistry.gauge("upload." + getName(priority) + ".running", () -> getRunning(priority));
+		}
+	}
+
+	/**
+	 * Method {@code getProperty} returns the value of the given key, or the
+	 * default value if it is not set.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param properties
+	 *            the properties, may be null
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the default value
+	 * @return the value
+	 */
+	private static String getProperty(java.util.Properties properties, String key, String defaultValue) {
+		if (Objects.isNull(properties)) {
+			return defaultValue;
+		}
+
+		return StringUtils.defaultIfBlank(properties.getProperty(key), defaultValue).trim();
+	}
+
+	/**
+	 * Method {@code begin} registers an upload of the given class. Every call
+	 * must be followed by a call to {@link #end(UploadPriority, long, long)}.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 */
+	void begin(UploadPriority priority) {
+		lock.lock();
+
+		try {
+			running[priority.ordinal()]++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method {@code end} unregisters an upload of the given class and wakes up
+	 * the paused uploads.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @param uploaded
+	 *            the number of bytes uploaded
+	 * @param startedAt
+	 *            the value of {@link System#nanoTime()} when it began
+	 */
+	void end(UploadPriority priority, long uploaded, long startedAt) {
+		lock.lock();
+
+		try {
+			running[priority.ordinal()]--;
+			bytes[priority.ordinal()] += uploaded;
+			activeNanos[priority.ordinal()] += System.nanoTime() - startedAt;
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+
+		metricsRegistry.counter("upload." + getName(priority) + ".bytes").add(uploaded);
+		metricsRegistry.histogram("upload." + getName(priority)).recordSince(startedAt);
+	}
+
+	/**
+	 * Method {@code acquire} waits until a chunk of the given size of the given
+	 * class may be sent. The bucket may go into debt for a chunk larger than
+	 * the burst, which is paid off before the next chunk. The chunks of an
+	 * alert, or any chunk if the rate is not limited, only wait for the
+	 * uploads of a higher class.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @param size
+	 *            the size of the chunk in bytes
+	 * @throws InterruptedException
+	 */
+	void acquire(UploadPriority priority, long size) throws InterruptedException {
+		long startedAt = System.nanoTime();
+		lock.lock();
+
+		try {
+			while (true) {
+				refill();
+
+				if (isPreempted(priority)) {
+					changed.await();
+				} else if (bytesPerSecond == 0 || priority == UploadPriority.ALERT) {
+					break;
+				} else if (tokens <= 0) {
+					changed.await((long) Math.ceil(-tokens * 1000000000d / bytesPerSecond) + 1, TimeUnit.NANOSECONDS);
+				} else {
+					tokens -= size;
+					break;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		metricsRegistry.histogram("upload." + getName(priority) + ".wait").recordSince(startedAt);
+	}
+
+	/**
+	 * Method {@code refill} adds the tokens earned since the last refill.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void refill() {
+		long now = System.nanoTime();
+		tokens = Math.min(burstBytes, tokens + (now - refilledAt) * (double) bytesPerSecond / 1000000000d);
+		refilledAt = now;
+	}
+
+	/**
+	 * Method {@code isPreempted} tells if an upload of a higher class is
+	 * running.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @return true if the upload must wait
+	 */
+	private boolean isPreempted(UploadPriority priority) {
+		for (int ordinal = 0; ordinal < priority.ordinal(); ordinal++) {
+			if (running[ordinal] > 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Method {@code getThroughput} returns the achieved throughput of the
+	 * given class over the time its uploads were running.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @return the throughput in bytes per second
+	 */
+	private long getThroughput(UploadPriority priority) {
+		lock.lock();
+
+		try {
+			long nanos = activeNanos[priority.ordinal()];
+			return nanos == 0 ? 0 : (long) (bytes[priority.ordinal()] * 1000000000d / nanos);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method {@code getRunning} returns the number of running uploads of the
+	 * given class.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @return the number of uploads
+	 */
+	private long getRunning(UploadPriority priority) {
+		lock.lock();
+
+		try {
+			return running[priority.ordinal()];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method {@code getName} returns the name of the given class used in the
+	 * metrics.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param priority
+	 *            the class of the upload
+	 * @return the name
+	 */
+	private static String getName(UploadPriority priority) {
+		return StringUtils.remove(priority.name().toLowerCase(Locale.ENGLISH), '_');
+	}
+}
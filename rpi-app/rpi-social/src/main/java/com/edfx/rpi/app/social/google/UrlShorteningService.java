@@ -0,0 +1,188 @@
+package com.edfx.rpi.app.social.google;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.storage.ApplicationStorageManager;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
+
+/**
+ * Class {@code UrlShorteningService} shortens the URLs sent to the masters.
+ * <br/>
+ * The short URLs are kept in a least recently used map which is persisted by
+ * {@link ApplicationStorageManager}, so a URL is shortened only once. The
+ * concurrent requests for the same URL share one call to the shortener. A
+ * caller waits at most {@link #LATENCY_BUDGET} milliseconds, after that, or if
+ * the shortener fails, it gets the long URL back. A late short URL is still
+ * cached for the next time.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+enum UrlShorteningService {
+	INSTANCE;
+
+	private static final int CAPACITY = 128;
+	private static final long LATENCY_BUDGET = 2500;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final ApplicationStorageManager applicationStorageManager = ApplicationStorageManager.INSTANCE;
+
+	private final LinkedHashMap<String, String> shortUrls = new LinkedHashMap<String, String>(CAPACITY, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), RpiThreadFactory.INSTANCE);
+
+	private boolean loaded;
+
+	/**
+	 * Constructor {@code UrlShorteningService}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private UrlShorteningService() {
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Method {@code shorten} returns the short URL of the given URL.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param longUrl
+	 *            is the URL to be shorten
+	 * @param shortener
+	 *            calls the shortener, it is only called on a cache miss
+	 * @return the short URL, or the long URL if it could not be shortened in
+	 *         time
+	 */
+	String shorten(String longUrl, Callable<String> shortener) {
+		if (StringUtils.isBlank(longUrl)) {
+			return longUrl;
+		}
+
+		String shortUrl = getCached(longUrl);
+
+		if (Objects.nonNull(shortUrl)) {
+			metricsRegistry.counter("urlshortener.cache.hits").increment();
+			return shortUrl;
+		}
+
+		metricsRegistry.counter("urlshortener.cache.misses").increment();
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		CompletableFuture<String> existing = inFlight.putIfAbsent(longUrl, future);
+
+		if (Objects.nonNull(existing)) {
+			metricsRegistry.counter("urlshortener.collapsed").increment();
+			future = existing;
+		} else {
+			CompletableFuture<String> shortening = future;
+			executor.execute(() -> resolve(longUrl, shortener, shortening));
+		}
+
+		try {
+			return future.get(LATENCY_BUDGET, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException cause) {
+			logger.info("Url shortener is slow, sending the long url: " + longUrl);
+		} catch (InterruptedException cause) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable cause) {
+			logger.error("Unable to shorten url: " + longUrl + ". Reason: " + cause.getMessage());
+		}
+
+		metricsRegistry.counter("urlshortener.fallbacks").increment();
+		return longUrl;
+	}
+
+	/**
+	 * Method {@code resolve} calls the shortener and caches its result.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param longUrl
+	 *            is the URL to be shorten
+	 * @param shortener
+	 *            calls the shortener
+	 * @param future
+	 *            is completed with the short URL
+	 */
+	private void resolve(String longUrl, Callable<String> shortener, CompletableFuture<String> future) {
+		try {
+			String shortUrl = shortener.call();
+
+			if (StringUtils.isBlank(shortUrl)) {
+				throw new IllegalStateException("Url shortener returned no url.");
+			}
+
+			Serializable snapshot;
+
+			synchronized (shortUrls) {
+				shortUrls.put(longUrl, shortUrl);
+				snapshot = new LinkedHashMap<>(shortUrls);
+			}
+
+			future.complete(shortUrl);
+			applicationStorageManager.writeShortUrls(snapshot);
+		} catch (Throwable cause) {
+			future.completeExceptionally(cause);
+		} finally {
+			inFlight.remove(longUrl, future);
+		}
+	}
+
+	/**
+	 * Method {@code getCached} returns the cached short URL of the given URL,
+	 * loading the persisted ones first if needed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param longUrl
+	 *            is the long URL
+	 * @return the short URL or null if not cached
+	 */
+	@SuppressWarnings("unchecked")
+	private String getCached(String longUrl) {
+		synchronized (shortUrls) {
+			if (!loaded) {
+				loaded = true;
+
+				try {
+					Serializable serializable = applicationStorageManager.readShortUrls();
+
+					if (serializable instanceof Map) {
+						shortUrls.putAll((Map<String, String>) serializable);
+					}
+				} catch (Throwable cause) {
+					logger.error("Unable to read the cached short urls. Reason: " + cause.getMessage());
+				}
+			}
+
+			return shortUrls.get(longUrl);
+		}
+	}
+}
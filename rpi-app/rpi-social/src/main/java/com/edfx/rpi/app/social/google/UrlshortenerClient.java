@@ -5,6 +5,7 @@ import java.io.IOException;
 import org.apache.log4j.Logger;
 
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.google.api.services.urlshortener.Urlshortener;
 import com.google.api.services.urlshortener.model.Url;
 
@@ -19,6 +20,7 @@ public enum UrlshortenerClient {
 	INSTANCE;
 
 	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
 
 	/**
 	 * Constructor {@code UrlshortenerClient}.
@@ -45,10 +47,19 @@ public enum UrlshortenerClient {
 	 * @throws IOException
 	 */
 	public String shrotenUrl(Urlshortener urlshortener, String longUrl) throws IOException {
-		logger.info("Processing Url: " + longUrl);
+		RpiLogger.info(logger, "Processing Url: {}", longUrl);
 
+		long startedAt = System.nanoTime();
 		Url toInsert = new Url().setLongUrl(longUrl);
-		Url url = urlshortener.url().insert(toInsert).execute();
-		return url.getId();
+
+		try {
+			Url url = urlshortener.url().insert(toInsert).execute();
+			return url.getId();
+		} catch (IOException | RuntimeException cause) {
+			metricsRegistry.counter("google.urlshortener.failures").increment();
+			throw cause;
+		} finally {
+			metricsRegistry.histogram("google.urlshortener").recordSince(startedAt);
+		}
 	}
 }
@@ -1,22 +1,60 @@
 package com.edfx.rpi.app.social.twitter;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.log4j.Logger;
 
 import twitter4j.ConnectionLifeCycleListener;
+import twitter4j.DirectMessage;
+import twitter4j.UserStreamAdapter;
 
+import com.edfx.rpi.app.utils.event.EventHub;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.edfx.rpi.app.utils.tasks.BlinkLedTask;
 import com.edfx.rpi.app.utils.tasks.ConnectivityCheckingTask;
 import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
 
 /**
- * Class {@code ConnectionListener}
+ * Class {@code ConnectionListener} tracks the state of the user stream. <br/>
+ * The twitter4j callbacks only record the time of the event and hand it to a
+ * single monitor thread, which runs the state machine, records the outage
+ * duration, the reconnect attempts and the time to the first message after a
+ * reconnect, and drives the network check, the speech and the LED. So the
+ * stream is never held up by the diagnostics. It is registered as a stream
+ * listener too, to see the failed attempts and the messages.
  * @author Tapas Bose
  * @since RPI V1.0
  */
-final class ConnectionListener implements ConnectionLifeCycleListener {
+final class ConnectionListener extends UserStreamAdapter implements ConnectionLifeCycleListener {
 	private final Logger logger = RpiLogger.getLogger(getClass());
 	private final BlinkLedTask blinkLedTask = BlinkLedTask.INSTANCE;
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+	private final CountDownLatch connected = new CountDownLatch(1);
+	private final ExecutorService monitor = Executors.newSingleThreadExecutor(RpiThreadFactory.INSTANCE);
+
+	private volatile boolean streamConnected;
+	private volatile long lastStateChangeAt;
+	private volatile boolean awaitingFirstMessage;
+
+	private StreamState state = StreamState.CONNECTING;
+	private long disconnectedAt;
+	private long reconnectedAt;
+	private int attempts;
+
+	/**
+	 * Enum {@code StreamState} is the state of the user stream, it is only
+	 * accessed by the monitor thread.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private enum StreamState {
+		CONNECTING, CONNECTED, DISCONNECTED, CLOSED;
+	}
 
 	/**
 	 * Method {@code onConnect}
@@ -26,11 +64,10 @@ final class ConnectionListener implements ConnectionLifeCycleListener {
 	 */
 	@Override
 	public void onConnect() {
-		logger.info("Twitter connected.");
-
-		if (blinkLedTask.isRunning()) {
-			blinkLedTask.run(false);
-		}
+		long connectedAt = System.nanoTime();
+		setStreamConnected(true);
+		connected.countDown();
+		submit(() -> handleConnect(connectedAt));
 	}
 
 	/**
@@ -41,10 +78,105 @@ final class ConnectionListener implements ConnectionLifeCycleListener {
 	 */
 	@Override
 	public void onDisconnect() {
+		long disconnectedAt = System.nanoTime();
+		setStreamConnected(false);
+		submit(() -> handleDisconnect(disconnectedAt));
+	}
+
+	/**
+	 * Method {@code onException} counts a failed connection attempt.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param ex
+	 * @see twitter4j.UserStreamAdapter#onException(java.lang.Exception)
+	 */
+	@Override
+	public void onException(Exception ex) {
+		submit(() -> {
+			if (state == StreamState.DISCONNECTED) {
+				attempts++;
+			}
+		});
+	}
+
+	/**
+	 * Method {@code onDirectMessage} records the time to the first message
+	 * after a reconnect.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param directMessage
+	 * @see twitter4j.UserStreamAdapter#onDirectMessage(twitter4j.DirectMessage)
+	 */
+	@Override
+	public void onDirectMessage(DirectMessage directMessage) {
+		if (awaitingFirstMessage) {
+			awaitingFirstMessage = false;
+			long receivedAt = System.nanoTime();
+			submit(() -> metricsRegistry.histogram("twitter.stream.first.message").recordNanos(receivedAt - reconnectedAt));
+		}
+	}
+
+	/**
+	 * Method {@code handleConnect} moves to {@link StreamState#CONNECTED} and
+	 * records the outage if it is a reconnect.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param connectedAt
+	 *            the time of the connect in nanoseconds
+	 */
+	private void handleConnect(long connectedAt) {
+		if (state == StreamState.DISCONNECTED) {
+			long outage = connectedAt - disconnectedAt;
+
+			metricsRegistry.histogram("twitter.stream.outage").recordNanos(outage);
+			metricsRegistry.counter("twitter.stream.reconnects").increment();
+			metricsRegistry.counter("twitter.stream.reconnect.attempts").add(attempts + 1);
+			EventHub.INSTANCE.publish("twitter.reconnected", "outage", TimeUnit.NANOSECONDS.toMillis(outage), "attempts", attempts + 1);
+
+			RpiLogger.info(logger, "Twitter reconnected after {} ms and {} attempts.", TimeUnit.NANOSECONDS.toMillis(outage), attempts + 1);
+
+			reconnectedAt = connectedAt;
+			awaitingFirstMessage = true;
+		} else {
+			logger.info("Twitter connected.");
+		}
+
+		state = StreamState.CONNECTED;
+
+		if (blinkLedTask.isRunning()) {
+			blinkLedTask.run(false);
+		}
+	}
+
+	/**
+	 * Method {@code handleDisconnect} moves to
+	 * {@link StreamState#DISCONNECTED} and, if the stream is still
+	 * disconnected, checks the network and blinks the LED if RPI is offline.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param disconnectedAt
+	 *            the time of the disconnect in nanoseconds
+	 */
+	private void handleDisconnect(long disconnectedAt) {
+		if (state == StreamState.CLOSED || state == StreamState.DISCONNECTED) {
+			return;
+		}
+
 		logger.info("Twitter disconnected.");
+		metricsRegistry.counter("twitter.stream.disconnects").increment();
+
+		state = StreamState.DISCONNECTED;
+		awaitingFirstMessage = false;
+		this.disconnectedAt = disconnectedAt;
+		attempts = 0;
+
+		if (streamConnected) {
+			return;
+		}
+
 		boolean computerIsConnectedToNetwork = ConnectivityCheckingTask.INSTANCE.isConnectedToNetworkWithSpeech();
 
-		if (!computerIsConnectedToNetwork) {
+		if (!computerIsConnectedToNetwork && !streamConnected && !blinkLedTask.isRunning()) {
 			blinkLedTask.setFrequency(new String[] { ".5", ".5", "4" });
 			blinkLedTask.run(true);
 
@@ -53,13 +185,88 @@ final class ConnectionListener implements ConnectionLifeCycleListener {
 	}
 
 	/**
-	 * Method {@code onCleanUp}
+	 * Method {@code submit} runs the given task on the monitor thread.
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the task
+	 */
+	private void submit(Runnable task) {
+		try {
+			monitor.execute(task);
+		} catch (RejectedExecutionException ignore) {
+		}
+	}
+
+	/**
+	 * Method {@code awaitConnection} waits until the stream is connected for
+	 * the first time or the given timeout elapses.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return true if the stream is connected
+	 * @throws InterruptedException
+	 */
+	boolean awaitConnection(long timeout, TimeUnit unit) throws InterruptedException {
+		return connected.await(timeout, unit);
+	}
+
+	/**
+	 * Method {@code setStreamConnected} records the state of the stream.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param streamConnected
+	 *            whether the stream is connected
+	 */
+	private void setStreamConnected(boolean streamConnected) {
+		if (this.streamConnected != streamConnected || lastStateChangeAt == 0) {
+			lastStateChangeAt = System.currentTimeMillis();
+		}
+
+		this.streamConnected = streamConnected;
+	}
+
+	/**
+	 * Method {@code isStreamConnected} tells if the stream is currently
+	 * connected.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if the stream is connected
+	 */
+	boolean isStreamConnected() {
+		return streamConnected;
+	}
+
+	/**
+	 * Method {@code getLastStateChangeAt} returns the time the stream got
+	 * connected or disconnected last.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch, or 0 if the stream
+	 *         never connected
+	 */
+	long getLastStateChangeAt() {
+		return lastStateChangeAt;
+	}
+
+	/**
+	 * Method {@code onCleanUp} moves to {@link StreamState#CLOSED} and stops
+	 * the monitor thread.
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @see twitter4j.ConnectionLifeCycleListener#onCleanUp()
 	 */
 	@Override
 	public void onCleanUp() {
-
-	}	
-}
\ No newline at end of file
+		setStreamConnected(false);
+		submit(() -> state = StreamState.CLOSED);
+		monitor.shutdown();
+	}
+}
@@ -3,8 +3,9 @@ package com.edfx.rpi.app.social.twitter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
-import com.edfx.rpi.app.social.Communicator;
+import com.edfx.rpi.app.utils.common.LongLruSet;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 
 import twitter4j.DirectMessage;
 import twitter4j.StallWarning;
@@ -22,9 +23,16 @@ import twitter4j.UserStreamListener;
  */
 final class DirectMessageListener implements UserStreamListener {
 
+	private static final int SEEN_MESSAGE_CAPACITY = 256;
+
 	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final LongLruSet seenMessageIds = new LongLruSet(SEEN_MESSAGE_CAPACITY);
 
 	private final String userTwitterAccount;
+	private final long botsoUserId;
+	private final InstructionDispatcher instructionDispatcher;
 	private String secondaryTwitterAccount;
 
 	/**
@@ -33,9 +41,16 @@ final class DirectMessageListener implements UserStreamListener {
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @param userTwitterAccount
+	 * @param botsoUserId
+	 *            the user id of the account of RPI, its own messages are
+	 *            ignored
+	 * @param instructionDispatcher
+	 *            the dispatcher processing the received instructions
 	 */
-	public DirectMessageListener(String userTwitterAccount) {
+	public DirectMessageListener(String userTwitterAccount, long botsoUserId, InstructionDispatcher instructionDispatcher) {
 		this.userTwitterAccount = userTwitterAccount;
+		this.botsoUserId = botsoUserId;
+		this.instructionDispatcher = instructionDispatcher;
 	}
 
 	/**
@@ -218,7 +233,10 @@ final class DirectMessageListener implements UserStreamListener {
 	}
 
 	/**
-	 * Method {@code onDirectMessage}
+	 * Method {@code onDirectMessage} queues the instructions of the masters to
+	 * the {@link InstructionDispatcher}, it never blocks the stream thread.
+	 * The messages sent by RPI itself and the messages already seen, e.g.
+	 * redelivered after a reconnect, are dropped before anything else.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -227,6 +245,17 @@ final class DirectMessageListener implements UserStreamListener {
 	 */
 	@Override
 	public void onDirectMessage(DirectMessage directMessage) {
+		if (directMessage.getSenderId() == botsoUserId) {
+			metricsRegistry.counter("twitter.dm.echoes").increment();
+			return;
+		}
+
+		if (!seenMessageIds.add(directMessage.getId())) {
+			metricsRegistry.counter("twitter.dm.duplicates").increment();
+			RpiLogger.debug(logger, "Duplicate message ignored: {}", directMessage.getId());
+			return;
+		}
+
 		String instruction = directMessage.getText();
 		String senderScreenName = directMessage.getSender().getScreenName();
 		String recipientScreenName = directMessage.getRecipient().getScreenName();
@@ -239,13 +268,7 @@ final class DirectMessageListener implements UserStreamListener {
 
 		if (StringUtils.endsWithIgnoreCase(senderScreenName, userTwitterAccount) || StringUtils.endsWithIgnoreCase(senderScreenName, secondaryTwitterAccount)) {
 			logger.info("Instruction recieved: " + instruction + ". From: " + senderScreenName);
-
-			try {
-				Communicator.INSTANCE.communicate(instruction, senderScreenName);
-			} catch (Throwable cause) {
-				logger.error("Unable to process instruction: " + instruction + ". Reason: " + cause.getMessage());
-				cause.printStackTrace();
-			}
+			instructionDispatcher.dispatch(instruction, senderScreenName);
 		}
 	}
 
@@ -0,0 +1,162 @@
+package com.edfx.rpi.app.social.twitter;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.social.SocialServices;
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
+
+/**
+ * Class {@code InstructionDispatcher} hands the instructions received over the
+ * Twitter stream to {@link Communicator}. <br/>
+ * The stream thread only queues the instruction, a single consumer thread
+ * processes them one after another, so a slow command never delays the
+ * delivery of the next direct messages. The queue is bounded, the instructions
+ * arriving while it is full are dropped.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class InstructionDispatcher {
+	private static final int CAPACITY = 32;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final BlockingQueue<InboundInstruction> queue = new ArrayBlockingQueue<>(CAPACITY);
+	private final Thread consumerThread;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Class {@code InboundInstruction} is a queued instruction along with its
+	 * sender and the time it was queued.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private static final class InboundInstruction {
+		private final String instruction;
+		private final String screenName;
+		private final long queuedAt = System.nanoTime();
+
+		/**
+		 * Constructor {@code InboundInstruction}
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param instruction
+		 *            the instruction
+		 * @param screenName
+		 *            the screen name of the sender
+		 */
+		private InboundInstruction(String instruction, String screenName) {
+			this.instruction = instruction;
+			this.screenName = screenName;
+		}
+	}
+
+	/**
+	 * Constructor {@code InstructionDispatcher}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	InstructionDispatcher() {
+		metricsRegistry.gauge("twitter.instruction.queue", queue::size);
+
+		consumerThread = RpiThreadFactory.INSTANCE.newThread(this::run);
+		consumerThread.start();
+	}
+
+	/**
+	 * Method {@code dispatch} queues the given instruction.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param instruction
+	 *            the instruction
+	 * @param screenName
+	 *            the screen name of the sender
+	 * @return true if queued, false if the queue is full or the dispatcher is
+	 *         shut down
+	 */
+	boolean dispatch(String instruction, String screenName) {
+		if (running && queue.offer(new InboundInstruction(instruction, screenName))) {
+			return true;
+		}
+
+		metricsRegistry.counter("twitter.instruction.dropped").increment();
+		logger.warn("Instruction dropped: " + instruction + ". From: " + screenName);
+		return false;
+	}
+
+	/**
+	 * Method {@code run} takes the queued instructions and processes them one
+	 * after another.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void run() {
+		while (running) {
+			InboundInstruction inboundInstruction;
+
+			try {
+				inboundInstruction = queue.take();
+			} catch (InterruptedException ignore) {
+				continue;
+			}
+
+			metricsRegistry.histogram("twitter.instruction.wait").recordSince(inboundInstruction.queuedAt);
+			process(inboundInstruction);
+		}
+	}
+
+	/**
+	 * Method {@code process} processes the given instruction.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param inboundInstruction
+	 *            the instruction to process
+	 */
+	private void process(InboundInstruction inboundInstruction) {
+		long startedAt = System.nanoTime();
+
+		try {
+			SocialServices.COMMUNICATOR.get().communicate(inboundInstruction.instruction, inboundInstruction.screenName);
+		} catch (InterruptedException cause) {
+			logger.error("Instruction interrupted: " + inboundInstruction.instruction);
+		} catch (Throwable cause) {
+			metricsRegistry.counter("twitter.instruction.failures").increment();
+			logger.error("Unable to process instruction: " + inboundInstruction.instruction, cause);
+		} finally {
+			metricsRegistry.histogram("twitter.instruction.process").recordSince(startedAt);
+		}
+	}
+
+	/**
+	 * Method {@code shutdown} stops the dispatcher. The instructions still in
+	 * the queue are discarded.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	void shutdown() {
+		running = false;
+		consumerThread.interrupt();
+		metricsRegistry.removeGauge("twitter.instruction.queue");
+
+		InboundInstruction inboundInstruction;
+
+		while (Objects.nonNull(inboundInstruction = queue.poll())) {
+			logger.info("Instruction discarded: " + inboundInstruction.instruction + ". From: " + inboundInstruction.screenName);
+		}
+	}
+}
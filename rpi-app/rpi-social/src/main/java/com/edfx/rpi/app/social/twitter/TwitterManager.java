@@ -22,10 +22,11 @@ import twitter4j.auth.RequestToken;
 import twitter4j.conf.Configuration;
 import twitter4j.conf.ConfigurationBuilder;
 
-import com.edfx.rpi.app.social.google.GoogleManager;
+import com.edfx.rpi.app.social.SocialServices;
 import com.edfx.rpi.app.social.master.Master;
 import com.edfx.rpi.app.social.master.MasterProcessor;
 import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader;
 import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
 import com.edfx.rpi.app.utils.properties.UnableToLoadPropertiesException;
@@ -45,11 +46,14 @@ public enum TwitterManager {
 	private final ApplicationStorageManager applicationStorageManager = ApplicationStorageManager.INSTANCE;
 	private final RpiThreadFactory rpiThreadFactory = RpiThreadFactory.INSTANCE;
 	private final MasterProcessor masterProcessor = MasterProcessor.INSTANCE;
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
 
 	private Twitter twitter;
 	private TwitterStream twitterStream;
 	private TwitterConfiguration configuration;
 	private DirectMessageListener directMessageListener;
+	private InstructionDispatcher instructionDispatcher;
+	private volatile ConnectionListener connectionListener;
 
 	/**
 	 * Class {@code TwitterManagerConfiguration}
@@ -181,7 +185,7 @@ public enum TwitterManager {
 		String consumerKey = getConfigurationProperties(properties, TwitterManagerConfiguration.CONSUMER_KEY);
 		String consumerSecret = getConfigurationProperties(properties, TwitterManagerConfiguration.CONSUMER_SECRET);
 
-		ConfigurationBuilder configurationBuilder = new ConfigurationBuilder();
+		ConfigurationBuilder configurationBuilder = newConfigurationBuilder();
 		configurationBuilder.setOAuthConsumerKey(consumerKey);
 		configurationBuilder.setOAuthConsumerSecret(consumerSecret);
 
@@ -239,8 +243,8 @@ public enum TwitterManager {
 				boolean canDMBothWay = relationship.masterFollowBotso & relationship.botsoFollowMaster;
 
 				if (canDMBothWay) {
-					logger.info("Sending direct message to: " + masterScreenName + ". Message is: " + message);
-					twitter.sendDirectMessage(masterScreenName, message);
+					RpiLogger.info(logger, "Sending direct message to: {}. Message is: {}", masterScreenName, message);
+					deliverDirectMessage(masterScreenName, message);
 				} else {
 					if (!relationship.botsoFollowMaster) {
 						try {
@@ -251,7 +255,7 @@ public enum TwitterManager {
 					}
 
 					if (!relationship.masterFollowBotso) {
-						GoogleManager.INSTANCE.sendDoFollowMail(message, master.getGoogleAccount(), botso);
+						SocialServices.GOOGLE.get().sendDoFollowMail(message, master.getGoogleAccount(), botso);
 
 						if (poll) {
 							ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(rpiThreadFactory);
@@ -260,7 +264,7 @@ public enum TwitterManager {
 									MasterBotsoRelationship friendShip = getRelationship(masterScreenName, botso);
 
 									if (friendShip.masterFollowBotso) {
-										twitter.sendDirectMessage(masterScreenName, message);
+										deliverDirectMessage(masterScreenName, message);
 										service.shutdown();
 									}
 								} catch (Throwable cause) {
@@ -276,6 +280,32 @@ public enum TwitterManager {
 		}
 	}
 
+	/**
+	 * Method {@code deliverDirectMessage} sends the direct message through the
+	 * Twitter API, recording the time taken and the failures.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param screenName
+	 *            the name of user to send
+	 * @param message
+	 *            the message to send
+	 * @throws TwitterException
+	 */
+	private void deliverDirectMessage(String screenName, String message) throws TwitterException {
+		long startedAt = System.nanoTime();
+
+		try {
+			twitter.sendDirectMessage(screenName, message);
+			metricsRegistry.counter("twitter.dm.sent").increment();
+		} catch (TwitterException | RuntimeException cause) {
+			metricsRegistry.counter("twitter.dm.failures").increment();
+			throw cause;
+		} finally {
+			metricsRegistry.histogram("twitter.dm.send").recordSince(startedAt);
+		}
+	}
+
 	/**
 	 * Method {@code sendDirectMessageOnInit} sends direct message to master on
 	 * component initialization
@@ -316,7 +346,7 @@ public enum TwitterManager {
 				boolean canDMBothWay = relationship.masterFollowBotso & relationship.botsoFollowMaster;
 
 				if (canDMBothWay) {
-					logger.info("Sending direct message to: " + secondaryMaster + ". Message is: " + secondaryMasterMessage);
+					RpiLogger.info(logger, "Sending direct message to: {}. Message is: {}", secondaryMaster, secondaryMasterMessage);
 					twitter.sendDirectMessage(secondaryMaster, secondaryMasterMessage);
 				} else {
 					if (!relationship.botsoFollowMaster) {
@@ -379,7 +409,7 @@ public enum TwitterManager {
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
-	private void sendWakeUpMessage() {
+	public void sendWakeUpMessage() {
 		String message = "I am awake. Current date and time is: " + getCurrentDateAndTime();
 		sendDirectMessageOnInit(message);
 	}
@@ -423,6 +453,11 @@ public enum TwitterManager {
 		} catch (Throwable ignore) {
 
 		}
+
+		if (Objects.nonNull(instructionDispatcher)) {
+			instructionDispatcher.shutdown();
+			instructionDispatcher = null;
+		}
 	}
 
 	/**
@@ -498,13 +533,17 @@ public enum TwitterManager {
 
 			applicationStorageManager.writeTwitterConfig(twitterConfiguration);
 			initialize(twitterConfiguration);
+			sendWakeUpMessage();
 			sendConfiguredMessage();
 		}
 	}
 
 	/**
 	 * Method {@code initialize} initializes the {@link TwitterManager} with the
-	 * given {@link TwitterConfiguration}
+	 * given {@link TwitterConfiguration} and opens the user stream. The stream
+	 * connects asynchronously, use {@link #awaitStreamConnection(long, TimeUnit)}
+	 * to wait for it. The wake up message is not sent from here, see
+	 * {@link #sendWakeUpMessage()}.
 	 * 
 	 * @author Tapas Bose
 	 * @since RPI V1.0
@@ -525,7 +564,7 @@ public enum TwitterManager {
 		String accessToken = twitterConfiguration.getAccessToken();
 		String accessTokenSecret = twitterConfiguration.getAccessTokenSecret();
 
-		ConfigurationBuilder configurationBuilder = new ConfigurationBuilder();
+		ConfigurationBuilder configurationBuilder = newConfigurationBuilder();
 		configurationBuilder.setOAuthConsumerKey(consumerKey);
 		configurationBuilder.setOAuthConsumerSecret(consumerSecret);
 		configurationBuilder.setOAuthAccessToken(accessToken);
@@ -538,9 +577,14 @@ public enum TwitterManager {
 		TwitterStreamFactory twitterStreamFactory = new TwitterStreamFactory(configuration);
 		twitterStream = twitterStreamFactory.getInstance();
 
-		twitterStream.addConnectionLifeCycleListener(new ConnectionListener());
+		twitterStream.addConnectionLifeCycleListener(connectionListener = new ConnectionListener());
+		twitterStream.addListener(connectionListener);
+
+		if (Objects.isNull(instructionDispatcher)) {
+			instructionDispatcher = new InstructionDispatcher();
+		}
 
-		twitterStream.addListener(directMessageListener = new DirectMessageListener(twitterConfiguration.getUserAccount()));
+		twitterStream.addListener(directMessageListener = new DirectMessageListener(twitterConfiguration.getUserAccount(), getBotsoUserId(), instructionDispatcher));
 		twitterStream.user();
 
 		Master secondaryMaster = MasterProcessor.INSTANCE.getSecondaryMaster();
@@ -548,8 +592,39 @@ public enum TwitterManager {
 		if (Objects.nonNull(secondaryMaster)) {
 			directMessageListener.setSecondaryTwitterAccount(secondaryMaster.getTwitterAccount());
 		}
+	}
 
-		sendWakeUpMessage();
+	/**
+	 * Method {@code newConfigurationBuilder} returns a
+	 * {@link ConfigurationBuilder} with gzip enabled. twitter4j opens its own
+	 * connections and takes no socket factory, so it keeps the keep-alive pool
+	 * and TLS sessions of the JDK defaults.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return an instance of ConfigurationBuilder
+	 */
+	private ConfigurationBuilder newConfigurationBuilder() {
+		ConfigurationBuilder configurationBuilder = new ConfigurationBuilder();
+		configurationBuilder.setGZIPEnabled(true);
+		return configurationBuilder;
+	}
+
+	/**
+	 * Method {@code getBotsoUserId} returns the user id of the account of RPI.
+	 * It is taken from the access token, so no request is made.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the user id, or -1 if it is not known
+	 */
+	private long getBotsoUserId() {
+		try {
+			return twitter.getId();
+		} catch (Throwable cause) {
+			logger.error("Unable to get the user id of RPI. Reason: " + cause.getMessage());
+			return -1;
+		}
 	}
 
 	/**
@@ -562,6 +637,55 @@ public enum TwitterManager {
 		initialize(null);
 	}
 
+	/**
+	 * Method {@code awaitStreamConnection} waits until the user stream opened
+	 * by {@link #initialize()} is connected, i.e. until RPI is able to receive
+	 * instructions.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return true if the stream is connected
+	 * @throws InterruptedException
+	 */
+	public boolean awaitStreamConnection(long timeout, TimeUnit unit) throws InterruptedException {
+		if (Objects.isNull(connectionListener)) {
+			return false;
+		}
+
+		return connectionListener.awaitConnection(timeout, unit);
+	}
+
+	/**
+	 * Method {@code isStreamConnected} tells if the user stream is currently
+	 * connected.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if the stream is connected
+	 */
+	public boolean isStreamConnected() {
+		ConnectionListener connectionListener = this.connectionListener;
+		return Objects.nonNull(connectionListener) && connectionListener.isStreamConnected();
+	}
+
+	/**
+	 * Method {@code getStreamStateChangedAt} returns the time the user stream
+	 * got connected or disconnected last.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch, or 0 if the stream
+	 *         never connected
+	 */
+	public long getStreamStateChangedAt() {
+		ConnectionListener connectionListener = this.connectionListener;
+		return Objects.nonNull(connectionListener) ? connectionListener.getLastStateChangeAt() : 0;
+	}
+
 	/**
 	 * Method {@code getConfiguration} returns the instance of
 	 * {@link TwitterConfiguration}
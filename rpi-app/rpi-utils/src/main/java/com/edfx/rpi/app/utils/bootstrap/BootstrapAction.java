@@ -0,0 +1,23 @@
+package com.edfx.rpi.app.utils.bootstrap;
+
+/**
+ * Interface {@code BootstrapAction} is the unit of work performed by a
+ * {@link BootstrapTask}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@FunctionalInterface
+public interface BootstrapAction {
+
+	/**
+	 * Method {@code execute} performs the work of the startup phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws Exception
+	 *             if the phase fails, in which case the dependent phases are
+	 *             skipped
+	 */
+	void execute() throws Exception;
+}
@@ -0,0 +1,39 @@
+package com.edfx.rpi.app.utils.bootstrap;
+
+/**
+ * Class {@code BootstrapException} is thrown when a startup phase of a
+ * {@link BootstrapPipeline} fails or the pipeline is wrongly assembled.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public class BootstrapException extends RuntimeException {
+
+	private static final long serialVersionUID = -2961403917652273155L;
+
+	/**
+	 * Constructor {@code BootstrapException}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the detail message
+	 */
+	public BootstrapException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructor {@code BootstrapException}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param phase
+	 *            the name of the failed phase
+	 * @param cause
+	 *            the cause of the failure
+	 */
+	public BootstrapException(String phase, Throwable cause) {
+		super("Startup phase failed: " + phase, cause);
+	}
+}
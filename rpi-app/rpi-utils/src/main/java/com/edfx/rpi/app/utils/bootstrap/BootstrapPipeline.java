@@ -0,0 +1,243 @@
+package com.edfx.rpi.app.utils.bootstrap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.thread.RpiThreadFactory;
+
+/**
+ * Class {@code BootstrapPipeline} runs the startup phases of RPI as a
+ * dependency graph. Every phase starts as soon as the phases it depends on are
+ * completed, so independent phases run concurrently. If a phase fails, every
+ * phase depending on it is skipped. <br/>
+ * The phases are added in batches: {@link #execute()} schedules the phases
+ * added since the previous call and waits for the critical ones only, the
+ * others keep running in the background. {@link #finish()} logs the startup
+ * timing report once every phase is done.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class BootstrapPipeline {
+
+	private static final int POOL_SIZE = 4;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private final String name;
+	private final long createdAt = System.nanoTime();
+	private final Map<String, BootstrapTask> tasks = new LinkedHashMap<>();
+	private final List<BootstrapTask> pending = new ArrayList<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE, RpiThreadFactory.INSTANCE);
+
+	/**
+	 * Constructor {@code BootstrapPipeline}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the pipeline used in the timing report
+	 */
+	public BootstrapPipeline(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Method {@code addTask} adds a critical phase, i.e. a phase
+	 * {@link #execute()} waits for.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the unique name of the phase
+	 * @param action
+	 *            the work to perform
+	 * @param dependencies
+	 *            the names of the already added phases which must complete
+	 *            first
+	 * @return this pipeline
+	 */
+	public BootstrapPipeline addTask(String name, BootstrapAction action, String... dependencies) {
+		return add(new BootstrapTask(name, true, action, dependencies));
+	}
+
+	/**
+	 * Method {@code addDeferredTask} adds a non critical phase. It starts when
+	 * its dependencies are completed but {@link #execute()} does not wait for
+	 * it.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the unique name of the phase
+	 * @param action
+	 *            the work to perform
+	 * @param dependencies
+	 *            the names of the already added phases which must complete
+	 *            first
+	 * @return this pipeline
+	 */
+	public BootstrapPipeline addDeferredTask(String name, BootstrapAction action, String... dependencies) {
+		return add(new BootstrapTask(name, false, action, dependencies));
+	}
+
+	/**
+	 * Method {@code add} registers the given phase. The dependencies must be
+	 * added before the phase which depends on them, which also keeps the graph
+	 * free from cycles.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the phase to add
+	 * @return this pipeline
+	 */
+	private synchronized BootstrapPipeline add(BootstrapTask task) {
+		if (tasks.containsKey(task.getName())) {
+			throw new BootstrapException("Duplicate startup phase: " + task.getName());
+		}
+
+		for (String dependency : task.getDependencies()) {
+			if (!tasks.containsKey(dependency)) {
+				throw new BootstrapException("Startup phase " + task.getName() + " depends on unknown phase: " + dependency);
+			}
+		}
+
+		tasks.put(task.getName(), task);
+		pending.add(task);
+
+		return this;
+	}
+
+	/**
+	 * Method {@code execute} schedules the phases added since the last call
+	 * and waits until the critical ones are done.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if every critical phase completed successfully
+	 */
+	public boolean execute() {
+		List<CompletableFuture<Void>> criticalFutures = new ArrayList<>();
+
+		synchronized (this) {
+			for (BootstrapTask task : pending) {
+				CompletableFuture<Void> future = schedule(task);
+				task.setFuture(future);
+
+				if (task.isCritical()) {
+					criticalFutures.add(future);
+				}
+			}
+
+			pending.clear();
+		}
+
+		try {
+			CompletableFuture.allOf(criticalFutures.toArray(new CompletableFuture<?>[0])).join();
+			logger.info(name + ": critical phases completed in " + toMillis(System.nanoTime() - createdAt) + " ms.");
+			return true;
+		} catch (CompletionException cause) {
+			logger.error(name + ": critical phase failed. " + cause.getCause().getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Method {@code schedule} chains the given phase after its dependencies.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param task
+	 *            the phase to schedule
+	 * @return the future of the phase
+	 */
+	private CompletableFuture<Void> schedule(BootstrapTask task) {
+		CompletableFuture<?>[] dependencies = task.getDependencies().stream().map(dependency -> tasks.get(dependency).getFuture()).toArray(CompletableFuture[]::new);
+
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependencies).thenRunAsync(task::execute, executor);
+
+		return future.whenComplete((ignore, cause) -> {
+			if (Objects.isNull(cause)) {
+				return;
+			}
+
+			if (task.getStatus() == BootstrapTask.Status.FAILED) {
+				logger.error(name + ": phase " + task.getName() + " failed.", task.getFailure());
+			} else {
+				task.skip();
+				logger.info(name + ": phase " + task.getName() + " skipped.");
+			}
+		});
+	}
+
+	/**
+	 * Method {@code finish} waits in the background for every scheduled phase,
+	 * logs the timing report and releases the threads of the pipeline.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public void finish() {
+		CompletableFuture<?>[] futures;
+
+		synchronized (this) {
+			futures = tasks.values().stream().map(BootstrapTask::getFuture).filter(Objects::nonNull).toArray(CompletableFuture[]::new);
+		}
+
+		CompletableFuture.allOf(futures).whenComplete((ignore, cause) -> {
+			logReport();
+			executor.shutdown();
+		});
+	}
+
+	/**
+	 * Method {@code logReport} logs the start offset, duration and outcome of
+	 * every phase.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private synchronized void logReport() {
+		StringBuilder reportBuilder = new StringBuilder(name).append(" timing report (total ").append(toMillis(System.nanoTime() - createdAt)).append(" ms):");
+
+		for (BootstrapTask task : tasks.values()) {
+			reportBuilder.append("\n\t").append(String.format("%-28s", task.getName()));
+
+			if (task.getStartedAt() == 0) {
+				reportBuilder.append(String.format("%24s", StringUtils.EMPTY));
+			} else {
+				reportBuilder.append(String.format("+%6d ms %8d ms     ", toMillis(task.getStartedAt() - createdAt), toMillis(task.getDurationNanos())));
+			}
+
+			reportBuilder.append(task.isCritical() ? "critical " : "deferred ").append(task.getStatus());
+		}
+
+		logger.info(reportBuilder);
+	}
+
+	/**
+	 * Method {@code toMillis} converts the given nanoseconds to milliseconds.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param nanos
+	 *            the nanoseconds
+	 * @return the milliseconds
+	 */
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
@@ -0,0 +1,201 @@
+package com.edfx.rpi.app.utils.bootstrap;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class {@code BootstrapTask} is a single startup phase of a
+ * {@link BootstrapPipeline}. It holds the action to perform, the names of the
+ * phases it depends on and the timing recorded while it was executed.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class BootstrapTask {
+
+	/**
+	 * Class {@code Status} is the outcome of a {@link BootstrapTask}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public enum Status {
+		PENDING, RUNNING, COMPLETED, FAILED, SKIPPED;
+	}
+
+	private final String name;
+	private final boolean critical;
+	private final BootstrapAction action;
+	private final Set<String> dependencies;
+
+	private volatile Status status = Status.PENDING;
+	private volatile long startedAt;
+	private volatile long finishedAt;
+	private volatile Throwable failure;
+
+	private CompletableFuture<Void> future;
+
+	/**
+	 * Constructor {@code BootstrapTask}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the unique name of the phase
+	 * @param critical
+	 *            true if the pipeline must wait for this phase before it
+	 *            reports the startup as done
+	 * @param action
+	 *            the work to perform
+	 * @param dependencies
+	 *            the names of the phases which must complete first
+	 */
+	BootstrapTask(String name, boolean critical, BootstrapAction action, String... dependencies) {
+		this.name = name;
+		this.critical = critical;
+		this.action = action;
+
+		Set<String> dependencySet = new LinkedHashSet<>();
+		Collections.addAll(dependencySet, dependencies);
+		this.dependencies = Collections.unmodifiableSet(dependencySet);
+	}
+
+	/**
+	 * Method {@code getName} returns the name of the phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Method {@code isCritical} tells if the pipeline waits for this phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if critical
+	 */
+	public boolean isCritical() {
+		return critical;
+	}
+
+	/**
+	 * Method {@code getDependencies} returns the names of the phases this phase
+	 * depends on.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the dependencies
+	 */
+	public Set<String> getDependencies() {
+		return dependencies;
+	}
+
+	/**
+	 * Method {@code getStatus} returns the current status of the phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Method {@code getFailure} returns the cause of the failure, if any.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the failure or null
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Method {@code getStartedAt} returns the {@link System#nanoTime()} at
+	 * which the phase started.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the start time in nanoseconds
+	 */
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	/**
+	 * Method {@code getDurationNanos} returns the time the phase took.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the duration in nanoseconds, zero if never executed
+	 */
+	public long getDurationNanos() {
+		return startedAt == 0 || finishedAt == 0 ? 0 : finishedAt - startedAt;
+	}
+
+	/**
+	 * Method {@code execute} runs the action and records its timing and
+	 * outcome. A failure is rethrown so that the dependent phases are skipped.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	void execute() {
+		startedAt = System.nanoTime();
+		status = Status.RUNNING;
+
+		try {
+			action.execute();
+			status = Status.COMPLETED;
+		} catch (Throwable cause) {
+			failure = cause;
+			status = Status.FAILED;
+			throw new BootstrapException(name, cause);
+		} finally {
+			finishedAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Method {@code skip} marks the phase as skipped because one of its
+	 * dependencies did not complete.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	void skip() {
+		status = Status.SKIPPED;
+	}
+
+	/**
+	 * Method {@code getFuture} returns the future which completes with the
+	 * phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the future or null if not scheduled yet
+	 */
+	CompletableFuture<Void> getFuture() {
+		return future;
+	}
+
+	/**
+	 * Method {@code setFuture} sets the future which completes with the phase.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param future
+	 *            the future to set
+	 */
+	void setFuture(CompletableFuture<Void> future) {
+		this.future = future;
+	}
+}
@@ -0,0 +1,69 @@
+package com.edfx.rpi.app.utils.common;
+
+/**
+ * Class {@code JsonUtils} is the utility class to write JSON documents without
+ * a JSON library.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public class JsonUtils {
+
+	/**
+	 * Constructor {@code JsonUtils}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private JsonUtils() {
+
+	}
+
+	/**
+	 * Method {@code quote} returns the given value as a quoted and escaped
+	 * JSON string, or {@code null} if the value is {@code null}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value to quote
+	 * @return the JSON string
+	 */
+	public static String quote(CharSequence value) {
+		if (value == null) {
+			return "null";
+		}
+
+		StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+
+		for (int index = 0; index < value.length(); index++) {
+			char character = value.charAt(index);
+
+			switch (character) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (character < 0x20) {
+					builder.append(String.format("\\u%04x", (int) character));
+				} else {
+					builder.append(character);
+				}
+			}
+		}
+
+		return builder.append('"').toString();
+	}
+}
@@ -0,0 +1,221 @@
+package com.edfx.rpi.app.utils.common;
+
+/**
+ * Class {@code LongLruSet} is a bounded set of {@code long} values which
+ * evicts the least recently used value when it is full. <br/>
+ * The values are kept in primitive arrays, an open addressing hash table
+ * with linear probing points to the nodes of a doubly linked list ordered by
+ * use, so neither adding nor looking up a value allocates.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class LongLruSet {
+	private static final int NONE = -1;
+
+	private final int capacity;
+	private final int mask;
+
+	private final int[] slots;
+	private final long[] values;
+	private final int[] previous;
+	private final int[] next;
+
+	private int size;
+	private int eldest = NONE;
+	private int youngest = NONE;
+
+	/**
+	 * Constructor {@code LongLruSet}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param capacity
+	 *            the maximum number of values kept
+	 */
+	public LongLruSet(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+
+		this.capacity = capacity;
+
+		int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+		mask = tableSize - 1;
+		slots = new int[tableSize];
+		values = new long[capacity];
+		previous = new int[capacity];
+		next = new int[capacity];
+	}
+
+	/**
+	 * Method {@code add} adds the given value and marks it as the most
+	 * recently used one.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value to add
+	 * @return true if the value was not in the set
+	 */
+	public synchronized boolean add(long value) {
+		int slot = find(value);
+
+		if (slots[slot] != 0) {
+			int node = slots[slot] - 1;
+			unlink(node);
+			linkYoungest(node);
+			return false;
+		}
+
+		int node;
+
+		if (size < capacity) {
+			node = size++;
+		} else {
+			node = eldest;
+			unlink(node);
+			removeSlot(find(values[node]));
+			slot = find(value);
+		}
+
+		values[node] = value;
+		slots[slot] = node + 1;
+		linkYoungest(node);
+		return true;
+	}
+
+	/**
+	 * Method {@code contains} checks if the given value is in the set, it does
+	 * not change the order of use.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value to check
+	 * @return true if the value is in the set
+	 */
+	public synchronized boolean contains(long value) {
+		return slots[find(value)] != 0;
+	}
+
+	/**
+	 * Method {@code size} returns the number of values in the set.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the number of values
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Method {@code find} returns the slot holding the given value, or the
+	 * empty slot where it would be inserted.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value to find
+	 * @return the slot
+	 */
+	private int find(long value) {
+		int slot = hash(value) & mask;
+
+		while (slots[slot] != 0 && values[slots[slot] - 1] != value) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Method {@code removeSlot} empties the given slot and shifts back the
+	 * following entries of the probe sequence, so no tombstone is needed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param slot
+	 *            the slot to empty
+	 */
+	private void removeSlot(int slot) {
+		int hole = slot;
+		int current = slot;
+
+		while (true) {
+			current = (current + 1) & mask;
+
+			if (slots[current] == 0) {
+				break;
+			}
+
+			int home = hash(values[slots[current] - 1]) & mask;
+
+			if (((current - home) & mask) >= ((current - hole) & mask)) {
+				slots[hole] = slots[current];
+				hole = current;
+			}
+		}
+
+		slots[hole] = 0;
+	}
+
+	/**
+	 * Method {@code unlink} removes the given node from the order of use.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param node
+	 *            the node
+	 */
+	private void unlink(int node) {
+		if (previous[node] == NONE) {
+			eldest = next[node];
+		} else {
+			next[previous[node]] = next[node];
+		}
+
+		if (next[node] == NONE) {
+			youngest = previous[node];
+		} else {
+			previous[next[node]] = previous[node];
+		}
+	}
+
+	/**
+	 * Method {@code linkYoungest} appends the given node as the most recently
+	 * used one.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param node
+	 *            the node
+	 */
+	private void linkYoungest(int node) {
+		previous[node] = youngest;
+		next[node] = NONE;
+
+		if (youngest == NONE) {
+			eldest = node;
+		} else {
+			next[youngest] = node;
+		}
+
+		youngest = node;
+	}
+
+	/**
+	 * Method {@code hash} spreads the bits of the given value.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param value
+	 *            the value
+	 * @return the hash
+	 */
+	private static int hash(long value) {
+		long hash = value * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
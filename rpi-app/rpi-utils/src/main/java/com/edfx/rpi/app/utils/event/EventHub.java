@@ -0,0 +1,151 @@
+package com.edfx.rpi.app.utils.event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.edfx.rpi.app.utils.common.JsonUtils;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code EventHub} is the bounded fan-out buffer of the events of RPI.
+ * The events are numbered by a sequence and kept in a ring of
+ * {@link #CAPACITY} slots, so publishing never blocks and never grows the
+ * memory. Every reader keeps its own cursor and reads the events after it; a
+ * reader falling more than {@link #CAPACITY} events behind skips the
+ * overwritten ones.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum EventHub {
+	INSTANCE;
+
+	private static final int CAPACITY = 256;
+
+	private final AtomicReferenceArray<RpiEvent> ring = new AtomicReferenceArray<>(CAPACITY);
+	private final AtomicLong cursor = new AtomicLong();
+	private final Object signal = new Object();
+
+	/**
+	 * Constructor {@code EventHub}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private EventHub() {
+
+	}
+
+	/**
+	 * Method {@code publish} publishes an event. The attributes are given as
+	 * name and value pairs, the values being rendered as JSON numbers,
+	 * booleans or strings.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param type
+	 *            the type of the event, e.g. {@code job.started}
+	 * @param attributes
+	 *            the name and value pairs
+	 */
+	public void publish(String type, Object... attributes) {
+		long timestamp = System.currentTimeMillis();
+		StringBuilder builder = new StringBuilder(64).append("{\"time\":").append(timestamp);
+
+		for (int index = 0; index + 1 < attributes.length; index += 2) {
+			Object value = attributes[index + 1];
+			builder.append(',').append(JsonUtils.quote(String.valueOf(attributes[index]))).append(':');
+
+			if (value instanceof Number || value instanceof Boolean) {
+				builder.append(value);
+			} else {
+				builder.append(JsonUtils.quote(Objects.toString(value, null)));
+			}
+		}
+
+		long sequence = cursor.getAndIncrement();
+		ring.set((int) (sequence % CAPACITY), new RpiEvent(sequence, type, timestamp, builder.append('}').toString()));
+		MetricsRegistry.INSTANCE.counter("events.published").increment();
+
+		synchronized (signal) {
+			signal.notifyAll();
+		}
+	}
+
+	/**
+	 * Method {@code getCursor} returns the sequence the next event will get.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the sequence
+	 */
+	public long getCursor() {
+		return cursor.get();
+	}
+
+	/**
+	 * Method {@code read} adds the events from the given sequence on to the
+	 * given list.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param from
+	 *            the sequence of the first event to read
+	 * @param events
+	 *            the list to add the events to
+	 * @return the sequence to read from the next time
+	 */
+	public long read(long from, List<RpiEvent> events) {
+		long to = cursor.get();
+		long sequence = Math.max(from, to - CAPACITY);
+
+		while (sequence < to) {
+			RpiEvent event = ring.get((int) (sequence % CAPACITY));
+
+			if (Objects.isNull(event) || event.getSequence() < sequence) {
+				// Claimed but not written yet.
+				break;
+			}
+
+			if (event.getSequence() == sequence) {
+				events.add(event);
+			}
+
+			sequence++;
+		}
+
+		return sequence;
+	}
+
+	/**
+	 * Method {@code awaitEvents} waits until an event after the given sequence
+	 * is published or the timeout elapses.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param from
+	 *            the sequence of the first event not read yet
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param unit
+	 *            the unit of the timeout
+	 * @return true if there are events to read
+	 * @throws InterruptedException
+	 */
+	public boolean awaitEvents(long from, long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		synchronized (signal) {
+			long remaining;
+
+			while (cursor.get() <= from && (remaining = deadline - System.nanoTime()) > 0) {
+				TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+			}
+		}
+
+		return cursor.get() > from;
+	}
+}
@@ -0,0 +1,81 @@
+package com.edfx.rpi.app.utils.event;
+
+/**
+ * Class {@code RpiEvent} is an immutable event published to the
+ * {@link EventHub}.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class RpiEvent {
+	private final long sequence;
+	private final String type;
+	private final long timestamp;
+	private final String data;
+
+	/**
+	 * Constructor {@code RpiEvent}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param sequence
+	 *            the sequence number of the event
+	 * @param type
+	 *            the type of the event
+	 * @param timestamp
+	 *            the time of the event in milliseconds since the epoch
+	 * @param data
+	 *            the payload of the event as a JSON object
+	 */
+	RpiEvent(long sequence, String type, long timestamp, String data) {
+		this.sequence = sequence;
+		this.type = type;
+		this.timestamp = timestamp;
+		this.data = data;
+	}
+
+	/**
+	 * Method {@code getSequence} returns the sequence number of the event.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the sequence
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Method {@code getType} returns the type of the event, e.g.
+	 * {@code job.started}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the type
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Method {@code getTimestamp} returns the time of the event.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Method {@code getData} returns the payload of the event.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the payload as a JSON object
+	 */
+	public String getData() {
+		return data;
+	}
+}
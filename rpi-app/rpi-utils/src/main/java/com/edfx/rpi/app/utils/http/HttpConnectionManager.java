@@ -0,0 +1,85 @@
+package com.edfx.rpi.app.utils.http;
+
+import java.util.Objects;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+
+/**
+ * Class {@code HttpConnectionManager} holds the {@link SSLSocketFactory} the
+ * transport of the Google clients makes its TLS connections with.
+ * <br/>
+ * The factory has its own session cache, which holds
+ * {@code rpi.http.tlsSessionCacheSize} sessions for
+ * {@code rpi.http.tlsSessionTimeout} seconds, so a new connection to a known
+ * host resumes the session instead of doing a full handshake. The factory
+ * counts the connections opened and the full and resumed handshakes in the
+ * {@code http.connections.opened}, {@code http.tls.handshakes} and
+ * {@code http.tls.resumed} counters. The settings are read from the system
+ * properties.
+ * <br/>
+ * Nothing of the JVM is changed, neither the keep-alive pool nor the default
+ * factory of {@link HttpsURLConnection}, as they are shared by every other
+ * application of the container. A client has to be given the factory
+ * explicitly.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum HttpConnectionManager {
+	INSTANCE;
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private SSLSocketFactory socketFactory;
+
+	/**
+	 * Constructor {@code HttpConnectionManager}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private HttpConnectionManager() {
+
+	}
+
+	/**
+	 * Method {@code getSocketFactory} returns the {@link SSLSocketFactory},
+	 * creating it on the first call.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the socket factory
+	 */
+	public synchronized SSLSocketFactory getSocketFactory() {
+		if (Objects.nonNull(socketFactory)) {
+			return socketFactory;
+		}
+
+		int tlsSessionCacheSize = NumberUtils.toInt(System.getProperty("rpi.http.tlsSessionCacheSize"), 32);
+		int tlsSessionTimeout = NumberUtils.toInt(System.getProperty("rpi.http.tlsSessionTimeout"), 86400);
+
+		try {
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(null, null, null);
+
+			SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+			sessionContext.setSessionCacheSize(tlsSessionCacheSize);
+			sessionContext.setSessionTimeout(tlsSessionTimeout);
+
+			socketFactory = new InstrumentedSocketFactory(sslContext.getSocketFactory());
+		} catch (Throwable cause) {
+			logger.error("Unable to create the TLS context, using the default. Reason: " + cause.getMessage());
+			socketFactory = new InstrumentedSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory());
+		}
+
+		return socketFactory;
+	}
+}
@@ -0,0 +1,206 @@
+package com.edfx.rpi.app.utils.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code InstrumentedSocketFactory} is a {@link SSLSocketFactory} which
+ * counts the connections it opens and tells the full handshakes from the
+ * resumed ones. A handshake is resumed when its session was created before the
+ * socket.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class InstrumentedSocketFactory extends SSLSocketFactory {
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final SSLSocketFactory delegate;
+
+	/**
+	 * Constructor {@code InstrumentedSocketFactory}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param delegate
+	 *            the factory which creates the sockets
+	 */
+	InstrumentedSocketFactory(SSLSocketFactory delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Method {@code getDefaultCipherSuites}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the default cipher suites of the delegate
+	 * @see javax.net.ssl.SSLSocketFactory#getDefaultCipherSuites()
+	 */
+	@Override
+	public String[] getDefaultCipherSuites() {
+		return delegate.getDefaultCipherSuites();
+	}
+
+	/**
+	 * Method {@code getSupportedCipherSuites}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the supported cipher suites of the delegate
+	 * @see javax.net.ssl.SSLSocketFactory#getSupportedCipherSuites()
+	 */
+	@Override
+	public String[] getSupportedCipherSuites() {
+		return delegate.getSupportedCipherSuites();
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.SocketFactory#createSocket()
+	 */
+	@Override
+	public Socket createSocket() throws IOException {
+		return instrument(delegate.createSocket());
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param socket
+	 *            the connected socket to layer over
+	 * @param host
+	 *            the host
+	 * @param port
+	 *            the port
+	 * @param autoClose
+	 *            whether to close the socket with the layered one
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.ssl.SSLSocketFactory#createSocket(java.net.Socket,
+	 *      java.lang.String, int, boolean)
+	 */
+	@Override
+	public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+		return instrument(delegate.createSocket(socket, host, port, autoClose));
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param host
+	 *            the host
+	 * @param port
+	 *            the port
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.SocketFactory#createSocket(java.lang.String, int)
+	 */
+	@Override
+	public Socket createSocket(String host, int port) throws IOException {
+		return instrument(delegate.createSocket(host, port));
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param host
+	 *            the host
+	 * @param port
+	 *            the port
+	 * @param localHost
+	 *            the local address
+	 * @param localPort
+	 *            the local port
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.SocketFactory#createSocket(java.lang.String, int,
+	 *      java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+		return instrument(delegate.createSocket(host, port, localHost, localPort));
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param host
+	 *            the address
+	 * @param port
+	 *            the port
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.SocketFactory#createSocket(java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(InetAddress host, int port) throws IOException {
+		return instrument(delegate.createSocket(host, port));
+	}
+
+	/**
+	 * Method {@code createSocket}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param address
+	 *            the address
+	 * @param port
+	 *            the port
+	 * @param localAddress
+	 *            the local address
+	 * @param localPort
+	 *            the local port
+	 * @return the instrumented socket
+	 * @throws IOException
+	 * @see javax.net.SocketFactory#createSocket(java.net.InetAddress, int,
+	 *      java.net.InetAddress, int)
+	 */
+	@Override
+	public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+		return instrument(delegate.createSocket(address, port, localAddress, localPort));
+	}
+
+	/**
+	 * Method {@code instrument} counts the given socket and its handshake.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param socket
+	 *            the socket
+	 * @return the same socket
+	 */
+	private Socket instrument(Socket socket) {
+		metricsRegistry.counter("http.connections.opened").increment();
+
+		if (socket instanceof SSLSocket) {
+			long createdAt = System.currentTimeMillis();
+
+			((SSLSocket) socket).addHandshakeCompletedListener(event -> {
+				boolean resumed = event.getSession().getCreationTime() < createdAt;
+				metricsRegistry.counter(resumed ? "http.tls.resumed" : "http.tls.handshakes").increment();
+			});
+		}
+
+		return socket;
+	}
+}
@@ -0,0 +1,348 @@
+package com.edfx.rpi.app.utils.logger;
+
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.helpers.AppenderAttachableImpl;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.AppenderAttachable;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Class {@code RingBufferAppender} decouples the logging threads from the
+ * output. The events are put into a preallocated ring of slots by a
+ * compare-and-set, the appender itself takes no lock, and a single background
+ * writer drains them into the attached appenders. log4j still synchronizes on
+ * every Category up to the root in {@code Category.callAppenders} for each
+ * event, so the callers are serialized for the time of the claim, but no
+ * longer for the formatting and the I/O. When the ring is full the event is
+ * dropped instead of blocking the caller, and the number of dropped events is
+ * logged once the writer catches up. {@link RpiLoggerBenchmark} measures the
+ * per-call cost against the synchronous output.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+final class RingBufferAppender extends AppenderSkeleton implements AppenderAttachable {
+	private static final long IDLE_PARK = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final LoggingEvent[] entries;
+	private final AtomicLongArray published;
+	private final int mask;
+
+	private final AtomicLong claimed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AppenderAttachableImpl appenders = new AppenderAttachableImpl();
+	private final Thread writerThread;
+
+	private volatile long consumed;
+	private volatile boolean waiting;
+	private volatile boolean running = true;
+
+	/**
+	 * Constructor {@code RingBufferAppender}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param capacity
+	 *            the number of slots, rounded up to a power of two
+	 */
+	RingBufferAppender(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+		entries = new LoggingEvent[size];
+		published = new AtomicLongArray(size);
+		mask = size - 1;
+
+		for (int index = 0; index < size; index++) {
+			published.set(index, -1);
+		}
+
+		writerThread = new Thread(this::drain, "RpiLogWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Method {@code append} puts the event into the ring. The parts of the
+	 * event which depend on the calling thread are captured here.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param event
+	 *            the event to append
+	 * @see org.apache.log4j.AppenderSkeleton#append(org.apache.log4j.spi.LoggingEvent)
+	 */
+	@Override
+	protected void append(LoggingEvent event) {
+		long sequence;
+
+		do {
+			sequence = claimed.get();
+
+			if (sequence - consumed >= entries.length) {
+				dropped.incrementAndGet();
+				return;
+			}
+		} while (!claimed.compareAndSet(sequence, sequence + 1));
+
+		event.getThreadName();
+		event.getNDC();
+		event.getMDCCopy();
+		event.getRenderedMessage();
+
+		int index = (int) (sequence & mask);
+		entries[index] = event;
+		published.lazySet(index, sequence);
+
+		if (waiting) {
+			LockSupport.unpark(writerThread);
+		}
+	}
+
+	/**
+	 * Method {@code doAppend} overrides the synchronized implementation of
+	 * {@link AppenderSkeleton}, the ring needs no lock of its own.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param event
+	 *            the event to append
+	 * @see org.apache.log4j.AppenderSkeleton#doAppend(org.apache.log4j.spi.LoggingEvent)
+	 */
+	@Override
+	public void doAppend(LoggingEvent event) {
+		if (closed || !isAsSevereAsThreshold(event.getLevel())) {
+			return;
+		}
+
+		append(event);
+	}
+
+	/**
+	 * Method {@code drain} is the loop of the writer thread.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void drain() {
+		while (running) {
+			if (!drainAvailable()) {
+				waiting = true;
+
+				if (!drainAvailable() && running) {
+					LockSupport.parkNanos(this, IDLE_PARK);
+				}
+
+				waiting = false;
+			}
+		}
+
+		drainAvailable();
+	}
+
+	/**
+	 * Method {@code drainAvailable} writes the published events to the
+	 * attached appenders.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if any event was written
+	 */
+	private boolean drainAvailable() {
+		long next = consumed;
+		long start = next;
+
+		for (;;) {
+			int index = (int) (next & mask);
+
+			if (published.get(index) != next) {
+				break;
+			}
+
+			LoggingEvent event = entries[index];
+			entries[index] = null;
+			consumed = ++next;
+
+			write(event);
+		}
+
+		long droppedEvents = dropped.getAndSet(0);
+
+		if (droppedEvents > 0) {
+			Logger logger = Logger.getLogger(RingBufferAppender.class);
+			write(new LoggingEvent(Logger.class.getName(), logger, Level.WARN, droppedEvents + " log events dropped, the log buffer was full.", null));
+		}
+
+		return next != start;
+	}
+
+	/**
+	 * Method {@code write} passes the event to the attached appenders.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param event
+	 *            the event to write
+	 */
+	private void write(LoggingEvent event) {
+		try {
+			synchronized (appenders) {
+				appenders.appendLoopOnAppenders(event);
+			}
+		} catch (Throwable cause) {
+			LogLog.error("Unable to write the log event.", cause);
+		}
+	}
+
+	/**
+	 * Method {@code close} stops the writer after it has written the pending
+	 * events and closes the attached appenders.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.Appender#close()
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		running = false;
+		LockSupport.unpark(writerThread);
+
+		try {
+			writerThread.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException cause) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (appenders) {
+			Enumeration<?> attached = appenders.getAllAppenders();
+
+			while (attached != null && attached.hasMoreElements()) {
+				((Appender) attached.nextElement()).close();
+			}
+		}
+	}
+
+	/**
+	 * Method {@code requiresLayout}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return false, the attached appenders do the layout
+	 * @see org.apache.log4j.Appender#requiresLayout()
+	 */
+	@Override
+	public boolean requiresLayout() {
+		return false;
+	}
+
+	/**
+	 * Method {@code addAppender}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#addAppender
+	 */
+	@Override
+	public void addAppender(Appender appender) {
+		synchronized (appenders) {
+			appenders.addAppender(appender);
+		}
+	}
+
+	/**
+	 * Method {@code getAllAppenders}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#getAllAppenders
+	 */
+	@Override
+	public Enumeration<?> getAllAppenders() {
+		synchronized (appenders) {
+			return appenders.getAllAppenders();
+		}
+	}
+
+	/**
+	 * Method {@code getAppender}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#getAppender
+	 */
+	@Override
+	public Appender getAppender(String name) {
+		synchronized (appenders) {
+			return appenders.getAppender(name);
+		}
+	}
+
+	/**
+	 * Method {@code isAttached}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#isAttached
+	 */
+	@Override
+	public boolean isAttached(Appender appender) {
+		synchronized (appenders) {
+			return appenders.isAttached(appender);
+		}
+	}
+
+	/**
+	 * Method {@code removeAllAppenders}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#removeAllAppenders
+	 */
+	@Override
+	public void removeAllAppenders() {
+		synchronized (appenders) {
+			appenders.removeAllAppenders();
+		}
+	}
+
+	/**
+	 * Method {@code removeAppender}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#removeAppender
+	 */
+	@Override
+	public void removeAppender(Appender appender) {
+		synchronized (appenders) {
+			appenders.removeAppender(appender);
+		}
+	}
+
+	/**
+	 * Method {@code removeAppender}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @see org.apache.log4j.spi.AppenderAttachable#removeAppender
+	 */
+	@Override
+	public void removeAppender(String name) {
+		synchronized (appenders) {
+			appenders.removeAppender(name);
+		}
+	}
+}
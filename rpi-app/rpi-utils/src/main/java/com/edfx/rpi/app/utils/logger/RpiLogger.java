@@ -1,26 +1,121 @@
 package com.edfx.rpi.app.utils.logger;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.io.File;
 
+import org.apache.log4j.Appender;
 import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.helpers.LogLog;
 
 /**
- * Class {@code RpiLogger} is the global Logger for RPI
- * 
+ * Class {@code RpiLogger} is the global Logger for RPI. <br/>
+ * The output is configured once by the following system properties:
+ * <ul>
+ * <li>{@code rpi.log.dir}: the directory of the size rotated log files, e.g.
+ * a tmpfs mount to spare the SD card. The console is used if it is not set.</li>
+ * <li>{@code rpi.log.maxFileSize}: the size of a log file, 1MB by default.</li>
+ * <li>{@code rpi.log.maxBackups}: the number of rotated files, 3 by default.</li>
+ * <li>{@code rpi.log.async}: whether the events are written by a background
+ * writer through a ring buffer, true by default.</li>
+ * <li>{@code rpi.log.bufferSize}: the number of slots of the ring buffer, 1024
+ * by default.</li>
+ * </ul>
+ * The parameterized methods format the message only if the level is enabled.
+ *
  * @author Tapas Bose
  * @since RPI V1.0
  */
 public class RpiLogger {
-	private static final Lock LOCK = new ReentrantLock();
-	private static final AtomicBoolean CONFIGURED = new AtomicBoolean(Boolean.FALSE);
+	static final String PATTERN = "%d{yyy-MM-dd hh:mm:ss}=> %m%n";
+	private static final String PLACEHOLDER = "{}";
+
+	/**
+	 * Class {@code Configuration} configures log4j when it is initialized. The
+	 * JVM initializes it exactly once, so looking up a Logger needs no lock,
+	 * and a failure is reported once.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private static final class Configuration {
+		static {
+			configure();
+		}
+
+		/**
+		 * Method {@code initialize} does nothing, calling it makes the JVM
+		 * initialize the class and so configure log4j.
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		static void initialize() {
+
+		}
+
+		/**
+		 * Method {@code configure} attaches the appenders to the root Logger.
+		 * A failure is reported through the internal log of log4j.
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 */
+		private static void configure() {
+			try {
+				Logger rootLogger = Logger.getRootLogger();
+				rootLogger.removeAllAppenders();
+
+				Appender appender = createAppender(new PatternLayout(PATTERN));
+
+				if (Boolean.parseBoolean(System.getProperty("rpi.log.async", "true"))) {
+					RingBufferAppender ringBufferAppender = new RingBufferAppender(Integer.getInteger("rpi.log.bufferSize", 1024));
+					ringBufferAppender.setName("RpiAsync");
+					ringBufferAppender.addAppender(appender);
+					appender = ringBufferAppender;
+				}
+
+				rootLogger.addAppender(appender);
+			} catch (Throwable cause) {
+				LogLog.error("RPI logging is not configured.", cause);
+			}
+		}
+
+		/**
+		 * Method {@code createAppender} creates the appender writing the
+		 * output, a {@link RollingFileAppender} if {@code rpi.log.dir} is set
+		 * or else a {@link ConsoleAppender}.
+		 *
+		 * @author Tapas Bose
+		 * @since RPI V1.0
+		 * @param layout
+		 *            the layout of the lines
+		 * @return the appender
+		 * @throws Exception
+		 */
+		private static Appender createAppender(Layout layout) throws Exception {
+			String directory = System.getProperty("rpi.log.dir");
+
+			if (directory == null || directory.trim().isEmpty()) {
+				return new ConsoleAppender(layout, "System.out");
+			}
+
+			File logDirectory = new File(directory.trim());
+			logDirectory.mkdirs();
+
+			RollingFileAppender rollingFileAppender = new RollingFileAppender(layout, new File(logDirectory, "rpi.log").getAbsolutePath(), true);
+			rollingFileAppender.setMaxFileSize(System.getProperty("rpi.log.maxFileSize", "1MB"));
+			rollingFileAppender.setMaxBackupIndex(Integer.getInteger("rpi.log.maxBackups", 3));
+			return rollingFileAppender;
+		}
+	}
 
 	/**
 	 * Constructor {@code RpiLogger}
-	 * 
+	 *
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 */
@@ -30,7 +125,7 @@ public class RpiLogger {
 
 	/**
 	 * Method {@code getLogger} returns the Logger for the given class
-	 * 
+	 *
 	 * @author Tapas Bose
 	 * @since RPI V1.0
 	 * @param clazz
@@ -39,25 +134,111 @@ public class RpiLogger {
 	 * @see Logger
 	 */
 	public static Logger getLogger(Class<?> clazz) {
-		try {
-			LOCK.lock();
-			boolean configured = CONFIGURED.get();
+		Configuration.initialize();
+		return Logger.getLogger(clazz);
+	}
 
-			if (!configured) {
-				Logger rootLogger = Logger.getRootLogger();
-				rootLogger.removeAllAppenders();
+	/**
+	 * Method {@code shutdown} writes the pending log events and closes the
+	 * appenders.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public static void shutdown() {
+		LogManager.shutdown();
+	}
+
+	/**
+	 * Method {@code info} logs the message at INFO level, replacing each
+	 * {@code {}} of the pattern with the argument, if INFO is enabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger
+	 * @param pattern
+	 *            the message pattern
+	 * @param argument
+	 *            the argument
+	 */
+	public static void info(Logger logger, String pattern, Object argument) {
+		if (logger.isInfoEnabled()) {
+			logger.info(format(pattern, argument));
+		}
+	}
 
-				ConsoleAppender consoleAppender = new ConsoleAppender(new PatternLayout("%d{yyy-MM-dd hh:mm:ss}=> %m%n"), "System.out");
-				rootLogger.addAppender(consoleAppender);
+	/**
+	 * Method {@code info} logs the message at INFO level, replacing the
+	 * {@code {}} of the pattern with the arguments, if INFO is enabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger
+	 * @param pattern
+	 *            the message pattern
+	 * @param first
+	 *            the first argument
+	 * @param second
+	 *            the second argument
+	 */
+	public static void info(Logger logger, String pattern, Object first, Object second) {
+		if (logger.isInfoEnabled()) {
+			logger.info(format(pattern, first, second));
+		}
+	}
 
-				CONFIGURED.set(Boolean.TRUE);
+	/**
+	 * Method {@code debug} logs the message at DEBUG level, replacing each
+	 * {@code {}} of the pattern with the argument, if DEBUG is enabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger
+	 * @param pattern
+	 *            the message pattern
+	 * @param arguments
+	 *            the arguments
+	 */
+	public static void debug(Logger logger, String pattern, Object... arguments) {
+		if (logger.isDebugEnabled()) {
+			logger.debug(format(pattern, arguments));
+		}
+	}
+
+	/**
+	 * Method {@code format} replaces the {@code {}} of the pattern with the
+	 * arguments in order.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param pattern
+	 *            the message pattern
+	 * @param arguments
+	 *            the arguments
+	 * @return the message
+	 */
+	static String format(String pattern, Object... arguments) {
+		if (pattern == null || arguments.length == 0) {
+			return pattern;
+		}
+
+		StringBuilder builder = new StringBuilder(pattern.length() + 32 * arguments.length);
+		int start = 0;
+
+		for (Object argument : arguments) {
+			int index = pattern.indexOf(PLACEHOLDER, start);
+
+			if (index < 0) {
+				break;
 			}
-		} catch (Throwable cause) {
-			cause.printStackTrace();
-		} finally {
-			LOCK.unlock();
+
+			builder.append(pattern, start, index).append(argument);
+			start = index + PLACEHOLDER.length();
 		}
 
-		return Logger.getLogger(clazz);
+		return builder.append(pattern, start, pattern.length()).toString();
 	}
 }
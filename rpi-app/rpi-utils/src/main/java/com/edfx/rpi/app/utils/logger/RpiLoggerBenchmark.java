@@ -0,0 +1,204 @@
+package com.edfx.rpi.app.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Hierarchy;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.RootLogger;
+
+/**
+ * Class {@code RpiLoggerBenchmark} measures the time a logging call costs the
+ * calling thread, with the synchronous output and with the
+ * {@link RingBufferAppender}, both writing to size rotated files as
+ * {@link RpiLogger} does. It also measures a call below the enabled level, with
+ * the message concatenated and with a parameterized method of
+ * {@link RpiLogger}. <br/>
+ * The events are logged in bursts smaller than the ring, the way RPI logs a
+ * Job, with a pause for the writer to catch up, so no event is dropped and the
+ * asynchronous figure is not flattered by the drops. Run it on the device,
+ * with the log directory on the SD card or on tmpfs:
+ *
+ * <pre>
+ * java -cp rpi-utils.jar:log4j.jar com.edfx.rpi.app.utils.logger.RpiLoggerBenchmark [directory] [threads]
+ * </pre>
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class RpiLoggerBenchmark {
+	private static final int BUFFER_SIZE = 1024;
+	private static final int BURSTS = 200;
+	private static final int BURST_SIZE = 128;
+	private static final long PAUSE_MILLIS = 20;
+	private static final int DISABLED_CALLS = 1000000;
+
+	/**
+	 * Constructor {@code RpiLoggerBenchmark}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private RpiLoggerBenchmark() {
+
+	}
+
+	/**
+	 * Method {@code main} runs the benchmark.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param args
+	 *            the directory of the log files and the number of concurrent
+	 *            threads, both optional
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		File directory = args.length > 0 ? new File(args[0]) : Files.createTempDirectory("rpi-log-benchmark").toFile();
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+		directory.mkdirs();
+		System.out.println("Log directory: " + directory + ", bursts of " + BURST_SIZE + " events per thread");
+
+		for (boolean async : new boolean[] { false, true }) {
+			Hierarchy hierarchy = new Hierarchy(new RootLogger(Level.INFO));
+			Appender appender = createAppender(directory, async);
+			hierarchy.getRootLogger().addAppender(appender);
+
+			Logger logger = hierarchy.getLogger(RpiLoggerBenchmark.class.getName());
+			String mode = async ? "async" : "sync";
+
+			measure(logger, 1);
+			System.out.println(String.format("%-5s 1 thread:  %8.0f ns per call", mode, measure(logger, 1)));
+			System.out.println(String.format("%-5s %d threads: %8.0f ns per call", mode, threads, measure(logger, threads)));
+
+			hierarchy.shutdown();
+		}
+
+		Logger logger = new Hierarchy(new RootLogger(Level.INFO)).getLogger(RpiLoggerBenchmark.class.getName());
+		measureDisabled(logger);
+		System.out.println(String.format("debug disabled, concatenated:  %6.1f ns per call", measureDisabled(logger)));
+		measureParameterized(logger);
+		System.out.println(String.format("debug disabled, parameterized: %6.1f ns per call", measureParameterized(logger)));
+	}
+
+	/**
+	 * Method {@code createAppender} creates the output as configured by
+	 * {@link RpiLogger} with {@code rpi.log.dir} set.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param directory
+	 *            the directory of the log files
+	 * @param async
+	 *            whether the events go through the ring buffer
+	 * @return the appender
+	 * @throws IOException
+	 */
+	private static Appender createAppender(File directory, boolean async) throws IOException {
+		String fileName = new File(directory, (async ? "async" : "sync") + ".log").getAbsolutePath();
+		RollingFileAppender rollingFileAppender = new RollingFileAppender(new PatternLayout(RpiLogger.PATTERN), fileName, false);
+		rollingFileAppender.setMaxFileSize("1MB");
+		rollingFileAppender.setMaxBackupIndex(3);
+
+		if (!async) {
+			return rollingFileAppender;
+		}
+
+		RingBufferAppender ringBufferAppender = new RingBufferAppender(BUFFER_SIZE);
+		ringBufferAppender.addAppender(rollingFileAppender);
+		return ringBufferAppender;
+	}
+
+	/**
+	 * Method {@code measure} logs the bursts from the given number of threads
+	 * and returns the average time of a call, the pauses excluded.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger
+	 * @param threads
+	 *            the number of concurrent threads
+	 * @return the average time of a call in nanoseconds
+	 * @throws InterruptedException
+	 */
+	private static double measure(Logger logger, int threads) throws InterruptedException {
+		AtomicLong elapsed = new AtomicLong();
+		Thread[] workers = new Thread[threads];
+
+		for (int index = 0; index < threads; index++) {
+			workers[index] = new Thread(() -> {
+				String script = "/home/pi/rpi/scripts/capture.sh";
+
+				try {
+					for (int burst = 0; burst < BURSTS; burst++) {
+						long startedAt = System.nanoTime();
+
+						for (int call = 0; call < BURST_SIZE; call++) {
+							logger.info("Executing script: " + script + " " + burst + " " + call);
+						}
+
+						elapsed.addAndGet(System.nanoTime() - startedAt);
+						Thread.sleep(PAUSE_MILLIS);
+					}
+				} catch (InterruptedException cause) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			workers[index].start();
+		}
+
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		return (double) elapsed.get() / ((long) threads * BURSTS * BURST_SIZE);
+	}
+
+	/**
+	 * Method {@code measureDisabled} returns the average time of a DEBUG call
+	 * building its message by concatenation while DEBUG is disabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger, at INFO level
+	 * @return the average time of a call in nanoseconds
+	 */
+	private static double measureDisabled(Logger logger) {
+		long startedAt = System.nanoTime();
+
+		for (int call = 0; call < DISABLED_CALLS; call++) {
+			logger.debug("Direct message from " + call + ": " + DISABLED_CALLS);
+		}
+
+		return (double) (System.nanoTime() - startedAt) / DISABLED_CALLS;
+	}
+
+	/**
+	 * Method {@code measureParameterized} returns the average time of a DEBUG
+	 * call through {@link RpiLogger#debug} while DEBUG is disabled.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param logger
+	 *            the Logger, at INFO level
+	 * @return the average time of a call in nanoseconds
+	 */
+	private static double measureParameterized(Logger logger) {
+		long startedAt = System.nanoTime();
+
+		for (int call = 0; call < DISABLED_CALLS; call++) {
+			RpiLogger.debug(logger, "Direct message from {}: {}", call, DISABLED_CALLS);
+		}
+
+		return (double) (System.nanoTime() - startedAt) / DISABLED_CALLS;
+	}
+}
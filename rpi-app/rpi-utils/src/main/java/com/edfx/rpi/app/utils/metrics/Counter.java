@@ -0,0 +1,56 @@
+package com.edfx.rpi.app.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class {@code Counter} is a monotonically increasing, lock free metric.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class Counter {
+	private final LongAdder value = new LongAdder();
+
+	/**
+	 * Constructor {@code Counter}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	Counter() {
+
+	}
+
+	/**
+	 * Method {@code increment} increments the counter by one.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	public void increment() {
+		value.increment();
+	}
+
+	/**
+	 * Method {@code add} increments the counter by the given amount.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param amount
+	 *            the amount to add
+	 */
+	public void add(long amount) {
+		value.add(amount);
+	}
+
+	/**
+	 * Method {@code get} returns the current value.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the value
+	 */
+	public long get() {
+		return value.sum();
+	}
+}
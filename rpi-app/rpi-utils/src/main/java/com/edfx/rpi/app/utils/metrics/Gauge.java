@@ -0,0 +1,21 @@
+package com.edfx.rpi.app.utils.metrics;
+
+/**
+ * Interface {@code Gauge} is a metric which is sampled when the metrics are
+ * scraped, e.g. the depth of a queue.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+@FunctionalInterface
+public interface Gauge {
+
+	/**
+	 * Method {@code getValue} returns the current value of the gauge.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the value
+	 */
+	long getValue();
+}
@@ -0,0 +1,129 @@
+package com.edfx.rpi.app.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class {@code Histogram} is a lock free latency histogram with fixed buckets.
+ * Recording a value does not allocate, it only increments the counter of the
+ * bucket the value falls into.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class Histogram {
+
+	/**
+	 * The upper bounds of the buckets in milliseconds. The last bucket is
+	 * unbounded.
+	 */
+	static final long[] BUCKET_BOUNDS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 120000 };
+
+	private static final long[] BUCKET_BOUNDS_MICROS = new long[BUCKET_BOUNDS.length];
+
+	static {
+		for (int index = 0; index < BUCKET_BOUNDS.length; index++) {
+			BUCKET_BOUNDS_MICROS[index] = TimeUnit.MILLISECONDS.toMicros(BUCKET_BOUNDS[index]);
+		}
+	}
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumMicros = new LongAdder();
+	private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0);
+
+	/**
+	 * Constructor {@code Histogram}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	Histogram() {
+
+	}
+
+	/**
+	 * Method {@code recordNanos} records the given duration.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 */
+	public void recordNanos(long nanos) {
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+		int index = 0;
+
+		while (index < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[index]) {
+			index++;
+		}
+
+		buckets.incrementAndGet(index);
+		count.increment();
+		sumMicros.add(micros);
+		maxMicros.accumulate(micros);
+	}
+
+	/**
+	 * Method {@code recordSince} records the time elapsed since the given
+	 * {@link System#nanoTime()}.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param startNanos
+	 *            the start time obtained by {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		recordNanos(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Method {@code getCount} returns the number of recorded values.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Method {@code getSumMillis} returns the sum of the recorded values.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the sum in milliseconds
+	 */
+	public double getSumMillis() {
+		return sumMicros.sum() / 1000d;
+	}
+
+	/**
+	 * Method {@code getMaxMillis} returns the largest recorded value.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the maximum in milliseconds
+	 */
+	public double getMaxMillis() {
+		return maxMicros.get() / 1000d;
+	}
+
+	/**
+	 * Method {@code getBucketCount} returns the number of values recorded in
+	 * the bucket with the given index, the index {@code BUCKET_BOUNDS.length}
+	 * being the unbounded bucket.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param index
+	 *            the index of the bucket
+	 * @return the count of the bucket
+	 */
+	long getBucketCount(int index) {
+		return buckets.get(index);
+	}
+}
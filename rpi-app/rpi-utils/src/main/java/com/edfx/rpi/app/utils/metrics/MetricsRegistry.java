@@ -0,0 +1,237 @@
+package com.edfx.rpi.app.utils.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.common.JsonUtils;
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+
+/**
+ * Class {@code MetricsRegistry} holds the metrics of RPI. Metrics are created
+ * lazily by name and the same instance is returned for the same name, so the
+ * callers may keep the reference in a field. The names are dotted, e.g.
+ * {@code drive.upload}, and are rendered with the {@code rpi_} prefix and
+ * underscores in the text format.
+ * 
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum MetricsRegistry {
+	INSTANCE;
+
+	private static final String PREFIX = "rpi_";
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor {@code MetricsRegistry}
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private MetricsRegistry() {
+
+	}
+
+	/**
+	 * Method {@code counter} returns the counter of the given name, creating it
+	 * if needed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the counter
+	 * @return the counter
+	 */
+	public Counter counter(String name) {
+		Counter counter = counters.get(name);
+		return Objects.nonNull(counter) ? counter : counters.computeIfAbsent(name, key -> new Counter());
+	}
+
+	/**
+	 * Method {@code histogram} returns the latency histogram of the given name,
+	 * creating it if needed.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the histogram
+	 * @return the histogram
+	 */
+	public Histogram histogram(String name) {
+		Histogram histogram = histograms.get(name);
+		return Objects.nonNull(histogram) ? histogram : histograms.computeIfAbsent(name, key -> new Histogram());
+	}
+
+	/**
+	 * Method {@code gauge} registers the given gauge, replacing the one
+	 * registered earlier with the same name.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the gauge
+	 * @param gauge
+	 *            the gauge
+	 */
+	public void gauge(String name, Gauge gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * Method {@code removeGauge} unregisters the gauge of the given name.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the gauge
+	 */
+	public void removeGauge(String name) {
+		gauges.remove(name);
+	}
+
+	/**
+	 * Method {@code toText} renders every metric in the Prometheus text
+	 * exposition format. Histogram values are in milliseconds.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the metrics as text
+	 */
+	public String toText() {
+		StringBuilder builder = new StringBuilder(4096);
+
+		for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+			String name = toMetricName(entry.getKey()) + "_total";
+			builder.append("# TYPE ").append(name).append(" counter\n");
+			builder.append(name).append(' ').append(entry.getValue().get()).append('\n');
+		}
+
+		for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+			String name = toMetricName(entry.getKey());
+			builder.append("# TYPE ").append(name).append(" gauge\n");
+			builder.append(name).append(' ').append(sample(entry.getKey(), entry.getValue())).append('\n');
+		}
+
+		for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+			String name = toMetricName(entry.getKey()) + "_ms";
+			Histogram histogram = entry.getValue();
+			long cumulative = 0;
+
+			builder.append("# TYPE ").append(name).append(" histogram\n");
+
+			for (int index = 0; index <= Histogram.BUCKET_BOUNDS.length; index++) {
+				cumulative += histogram.getBucketCount(index);
+				String bound = index < Histogram.BUCKET_BOUNDS.length ? String.valueOf(Histogram.BUCKET_BOUNDS[index]) : "+Inf";
+				builder.append(name).append("_bucket{le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+			}
+
+			builder.append(name).append("_sum ").append(histogram.getSumMillis()).append('\n');
+			builder.append(name).append("_count ").append(cumulative).append('\n');
+			builder.append(name).append("_max ").append(histogram.getMaxMillis()).append('\n');
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Method {@code toJson} renders every metric as a JSON document. Histogram
+	 * values are in milliseconds and the buckets are not cumulative.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the metrics as JSON
+	 */
+	public String toJson() {
+		StringBuilder builder = new StringBuilder(4096).append("{\"counters\":{");
+		String separator = "";
+
+		for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+			builder.append(separator).append(JsonUtils.quote(entry.getKey())).append(':').append(entry.getValue().get());
+			separator = ",";
+		}
+
+		builder.append("},\"gauges\":{");
+		separator = "";
+
+		for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+			builder.append(separator).append(JsonUtils.quote(entry.getKey())).append(':').append(sample(entry.getKey(), entry.getValue()));
+			separator = ",";
+		}
+
+		builder.append("},\"histograms\":{");
+		separator = "";
+
+		for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+			Histogram histogram = entry.getValue();
+			long count = 0;
+
+			builder.append(separator).append(JsonUtils.quote(entry.getKey())).append(":{\"buckets\":{");
+
+			for (int index = 0; index <= Histogram.BUCKET_BOUNDS.length; index++) {
+				long bucketCount = histogram.getBucketCount(index);
+				count += bucketCount;
+				String bound = index < Histogram.BUCKET_BOUNDS.length ? String.valueOf(Histogram.BUCKET_BOUNDS[index]) : "+Inf";
+				builder.append(index == 0 ? "" : ",").append(JsonUtils.quote(bound)).append(':').append(bucketCount);
+			}
+
+			builder.append("},\"count\":").append(count);
+			builder.append(",\"sum\":").append(histogram.getSumMillis());
+			builder.append(",\"max\":").append(histogram.getMaxMillis()).append('}');
+			separator = ",";
+		}
+
+		return builder.append("}}").toString();
+	}
+
+	/**
+	 * Method {@code sample} reads the value of the given gauge. A failing gauge
+	 * is reported as zero.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the gauge
+	 * @param gauge
+	 *            the gauge
+	 * @return the value
+	 */
+	private long sample(String name, Gauge gauge) {
+		try {
+			return gauge.getValue();
+		} catch (Throwable cause) {
+			logger.error("Unable to sample gauge " + name + ". " + cause.getMessage());
+			return 0;
+		}
+	}
+
+	/**
+	 * Method {@code toMetricName} converts the given dotted name into a
+	 * Prometheus metric name.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the dotted name
+	 * @return the metric name
+	 */
+	private static String toMetricName(String name) {
+		StringBuilder builder = new StringBuilder(PREFIX.length() + name.length()).append(PREFIX);
+
+		for (int index = 0; index < name.length(); index++) {
+			char character = name.charAt(index);
+			builder.append((character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || (character >= '0' && character <= '9') ? Character.toLowerCase(character) : '_');
+		}
+
+		return builder.toString();
+	}
+}
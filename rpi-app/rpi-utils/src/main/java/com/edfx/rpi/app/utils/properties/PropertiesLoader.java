@@ -34,7 +34,7 @@ public enum PropertiesLoader {
 	 * @since RPI V1.0
 	 */
 	public enum Properties {
-		TWITTER("twitter.properties"), GOOGLE("google.properties"), GMAIL("gmail.properties");
+		TWITTER("twitter.properties"), GOOGLE("google.properties"), GMAIL("gmail.properties"), MEDIA("media.properties");
 
 		private String fileName;
 
@@ -0,0 +1,148 @@
+package com.edfx.rpi.app.utils.registry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code ServiceProvider} creates a service of the
+ * {@link ServiceRegistry} on its first use.
+ * <br/>
+ * The services it depends on are created first, in the declared order, before
+ * it takes its own lock, so a thread never waits for a service while holding
+ * the lock of another one. A service which asks for itself while being
+ * created fails fast instead of dead locking. The creation time is logged and
+ * recorded in the {@code service.<name>} histogram.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class ServiceProvider<T> {
+	private static final ThreadLocal<Deque<String>> CREATING = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+
+	private final String name;
+	private final Supplier<T> factory;
+	private final List<ServiceProvider<?>> dependencies;
+
+	private volatile T instance;
+	private long creationNanos;
+
+	/**
+	 * Constructor {@code ServiceProvider}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the unique name of the service
+	 * @param factory
+	 *            creates the service
+	 * @param dependencies
+	 *            the providers of the services which must be created first
+	 */
+	ServiceProvider(String name, Supplier<T> factory, List<ServiceProvider<?>> dependencies) {
+		this.name = name;
+		this.factory = factory;
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Method {@code get} returns the service, creating it and its
+	 * dependencies if needed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the service
+	 * @throws ServiceRegistryException
+	 *             if the service can not be created
+	 */
+	public T get() throws ServiceRegistryException {
+		T service = instance;
+
+		if (Objects.nonNull(service)) {
+			return service;
+		}
+
+		for (ServiceProvider<?> dependency : dependencies) {
+			dependency.get();
+		}
+
+		Deque<String> creating = CREATING.get();
+
+		if (creating.contains(name)) {
+			throw new ServiceRegistryException("Service " + name + " is used while being created: " + creating.stream().collect(Collectors.joining(" <- ")));
+		}
+
+		synchronized (this) {
+			if (Objects.isNull(instance)) {
+				long startedAt = System.nanoTime();
+				creating.push(name);
+
+				try {
+					service = factory.get();
+				} catch (ServiceRegistryException cause) {
+					throw cause;
+				} catch (Throwable cause) {
+					throw new ServiceRegistryException(name, cause);
+				} finally {
+					creating.pop();
+				}
+
+				if (Objects.isNull(service)) {
+					throw new ServiceRegistryException("Service " + name + " was created as null.");
+				}
+
+				creationNanos = System.nanoTime() - startedAt;
+				instance = service;
+
+				MetricsRegistry.INSTANCE.histogram("service." + name).recordNanos(creationNanos);
+				logger.info("Service " + name + " created in " + creationNanos / 1000000 + " ms.");
+			}
+
+			return instance;
+		}
+	}
+
+	/**
+	 * Method {@code getName} returns the name of the service.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Method {@code isCreated} tells if the service is created.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if created
+	 */
+	public boolean isCreated() {
+		return Objects.nonNull(instance);
+	}
+
+	/**
+	 * Method {@code getCreationNanos} returns the time taken to create the
+	 * service, not counting its dependencies.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in nanoseconds, or 0 if not created
+	 */
+	public synchronized long getCreationNanos() {
+		return creationNanos;
+	}
+}
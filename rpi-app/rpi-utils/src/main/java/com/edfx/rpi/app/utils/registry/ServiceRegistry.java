@@ -0,0 +1,121 @@
+package com.edfx.rpi.app.utils.registry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Class {@code ServiceRegistry} holds the services of RPI which are created
+ * on their first use.
+ * <br/>
+ * A service is registered with a name, a factory and the names of the
+ * services it depends on. Registering creates nothing, so a component only
+ * pays for the services it actually uses. The dependencies must be registered
+ * before the service which depends on them, which keeps the graph free from
+ * cycles and gives the order in which they are created. The creation of every
+ * service is timed, see {@link #getReport()}.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ * @see ServiceProvider
+ */
+public enum ServiceRegistry {
+	INSTANCE;
+
+	private final Map<String, ServiceProvider<?>> providers = new LinkedHashMap<>();
+
+	/**
+	 * Constructor {@code ServiceRegistry}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private ServiceRegistry() {
+
+	}
+
+	/**
+	 * Method {@code register} registers a service.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the unique name of the service
+	 * @param factory
+	 *            creates the service, it is called once
+	 * @param dependencies
+	 *            the names of the already registered services which must be
+	 *            created first
+	 * @return the provider of the service
+	 * @throws ServiceRegistryException
+	 *             if the name is taken or a dependency is unknown
+	 */
+	public synchronized <T> ServiceProvider<T> register(String name, Supplier<T> factory, String... dependencies) throws ServiceRegistryException {
+		if (providers.containsKey(name)) {
+			throw new ServiceRegistryException("Duplicate service: " + name);
+		}
+
+		List<ServiceProvider<?>> dependencyProviders = new ArrayList<>(dependencies.length);
+
+		for (String dependency : dependencies) {
+			ServiceProvider<?> provider = providers.get(dependency);
+
+			if (Objects.isNull(provider)) {
+				throw new ServiceRegistryException("Service " + name + " depends on unknown service: " + dependency);
+			}
+
+			dependencyProviders.add(provider);
+		}
+
+		ServiceProvider<T> provider = new ServiceProvider<>(name, factory, dependencyProviders);
+		providers.put(name, provider);
+
+		return provider;
+	}
+
+	/**
+	 * Method {@code getProvider} returns the provider of the service with the
+	 * given name.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name of the service
+	 * @return the provider
+	 * @throws ServiceRegistryException
+	 *             if the service is unknown
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> ServiceProvider<T> getProvider(String name) throws ServiceRegistryException {
+		ServiceProvider<?> provider = providers.get(name);
+
+		if (Objects.isNull(provider)) {
+			throw new ServiceRegistryException("Unknown service: " + name);
+		}
+
+		return (ServiceProvider<T>) provider;
+	}
+
+	/**
+	 * Method {@code getReport} returns the creation time of every created
+	 * service, in the order of registration.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the report
+	 */
+	public synchronized String getReport() {
+		StringBuilder builder = new StringBuilder("Services created:");
+
+		for (ServiceProvider<?> provider : providers.values()) {
+			if (provider.isCreated()) {
+				builder.append(' ').append(provider.getName()).append('=').append(provider.getCreationNanos() / 1000000).append("ms");
+			}
+		}
+
+		return builder.toString();
+	}
+}
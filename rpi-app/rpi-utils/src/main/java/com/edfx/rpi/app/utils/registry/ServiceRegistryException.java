@@ -0,0 +1,40 @@
+package com.edfx.rpi.app.utils.registry;
+
+/**
+ * Class {@code ServiceRegistryException} is thrown when the
+ * {@link ServiceRegistry} is wrongly assembled or a service can not be
+ * created.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public class ServiceRegistryException extends RuntimeException {
+
+	private static final long serialVersionUID = 3710485522937468149L;
+
+	/**
+	 * Constructor {@code ServiceRegistryException}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the detail message
+	 */
+	public ServiceRegistryException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructor {@code ServiceRegistryException}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param service
+	 *            the name of the service which could not be created
+	 * @param cause
+	 *            the cause of the failure
+	 */
+	public ServiceRegistryException(String service, Throwable cause) {
+		super("Unable to create service: " + service, cause);
+	}
+}
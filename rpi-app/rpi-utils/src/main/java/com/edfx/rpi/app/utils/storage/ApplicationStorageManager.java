@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
@@ -32,6 +33,9 @@ public enum ApplicationStorageManager {
 	private final String googleConfigFile = "google-config";
 	private final String secondaryConfigFile = "secondary-config";
 	private final String secureLock = "secure-lock";
+	private final String apiTokenFile = "api-token";
+	private final String shortUrlsFile = "short-urls";
+	private final String albumFoldersFile = "album-folders";
 	private final String googleCrdentialDir = "credential";
 
 	private Path appDirectory;
@@ -412,6 +416,112 @@ public enum ApplicationStorageManager {
 		delete(path);
 	}
 
+	/**
+	 * Method {@code writeShortUrls} writes the cached short URLs
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param serializable
+	 *            is the Serializable instance of the map of the long URLs to
+	 *            the short URLs
+	 */
+	public void writeShortUrls(Serializable serializable) {
+		writeSerializable(serializable, shortUrlsFile);
+	}
+
+	/**
+	 * Method {@code readShortUrls} reads the cached short URLs
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return a Serializable instance of the map of the long URLs to the short
+	 *         URLs
+	 */
+	public Serializable readShortUrls() {
+		return readSerializable(shortUrlsFile);
+	}
+
+	/**
+	 * Method {@code writeAlbumFolders} writes the cached album folders
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param serializable
+	 *            is the Serializable instance of the map of the album keys to
+	 *            the folders
+	 */
+	public void writeAlbumFolders(Serializable serializable) {
+		writeSerializable(serializable, albumFoldersFile);
+	}
+
+	/**
+	 * Method {@code readAlbumFolders} reads the cached album folders
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return a Serializable instance of the map of the album keys to the
+	 *         folders
+	 */
+	public Serializable readAlbumFolders() {
+		return readSerializable(albumFoldersFile);
+	}
+
+	/**
+	 * Method {@code writeApiToken} writes the token of the local HTTP API as
+	 * plain text, so that the owner can read it from the config directory.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param token
+	 *            is the token
+	 * @throws ApplicationStorageException
+	 */
+	public void writeApiToken(String token) throws ApplicationStorageException {
+		checkInitialized();
+
+		try {
+			Files.write(resolvePath(configDirectory, apiTokenFile), token.getBytes(StandardCharsets.UTF_8));
+		} catch (Throwable cause) {
+			throw getApplicationStorageException(cause);
+		}
+	}
+
+	/**
+	 * Method {@code readApiToken} reads the token of the local HTTP API
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the token or null if it is not written yet
+	 * @throws ApplicationStorageException
+	 */
+	public String readApiToken() throws ApplicationStorageException {
+		checkInitialized();
+
+		try {
+			Path path = resolvePath(configDirectory, apiTokenFile);
+
+			if (!Files.exists(path)) {
+				return null;
+			}
+
+			return StringUtils.trimToNull(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+		} catch (Throwable cause) {
+			throw getApplicationStorageException(cause);
+		}
+	}
+
+	/**
+	 * Method {@code getApiTokenFile} returns the path of the file holding the
+	 * token of the local HTTP API
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the path to the token file
+	 */
+	public Path getApiTokenFile() {
+		return resolvePath(configDirectory, apiTokenFile);
+	}
+
 	/**
 	 * Method {@code getApplicationDirectory} returns the path to the
 	 * application directory
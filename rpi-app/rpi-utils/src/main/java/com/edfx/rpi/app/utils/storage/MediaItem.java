@@ -0,0 +1,203 @@
+package com.edfx.rpi.app.utils.storage;
+
+import java.io.File;
+
+/**
+ * Class {@code MediaItem} is a capture kept by {@link MediaStore}, named after
+ * the hash of its content.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public final class MediaItem {
+	private final String hash;
+	private final File file;
+	private final String job;
+	private final long capturedAt;
+	private final long size;
+
+	private boolean uploaded;
+	private boolean covered;
+	private int slot;
+	private long derivedSize;
+
+	/**
+	 * Constructor {@code MediaItem}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hash
+	 *            the hash of the content in hex
+	 * @param file
+	 *            the stored file
+	 * @param job
+	 *            the name of the job which captured it
+	 * @param capturedAt
+	 *            the time it was stored in milliseconds since the epoch
+	 * @param size
+	 *            the size in bytes
+	 * @param uploaded
+	 *            whether it is uploaded
+	 * @param covered
+	 *            whether it is covered by an earlier upload
+	 * @param slot
+	 *            the slot of its record in the index
+	 */
+	MediaItem(String hash, File file, String job, long capturedAt, long size, boolean uploaded, boolean covered, int slot) {
+		this.hash = hash;
+		this.file = file;
+		this.job = job;
+		this.capturedAt = capturedAt;
+		this.size = size;
+		this.uploaded = uploaded;
+		this.covered = covered;
+		this.slot = slot;
+	}
+
+	/**
+	 * Method {@code getHash} returns the hash of the content.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the SHA-1 of the content in hex
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * Method {@code getFile} returns the stored file.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the stored file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Method {@code getJob} returns the name of the job which captured it.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the name of the job
+	 */
+	public String getJob() {
+		return job;
+	}
+
+	/**
+	 * Method {@code getCapturedAt} returns the time it was stored.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch
+	 */
+	public long getCapturedAt() {
+		return capturedAt;
+	}
+
+	/**
+	 * Method {@code getSize} returns the size of the file.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the size in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Method {@code isUploaded} tells if it is uploaded.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if uploaded
+	 */
+	public synchronized boolean isUploaded() {
+		return uploaded;
+	}
+
+	/**
+	 * Method {@code setUploaded} marks it as uploaded.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	synchronized void setUploaded() {
+		this.uploaded = true;
+		this.covered = false;
+	}
+
+	/**
+	 * Method {@code isCovered} tells if it was not uploaded because an earlier
+	 * upload shows the same scene.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if covered
+	 */
+	public synchronized boolean isCovered() {
+		return covered;
+	}
+
+	/**
+	 * Method {@code setCovered} marks it as covered by an earlier upload.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	synchronized void setCovered() {
+		this.covered = true;
+	}
+
+	/**
+	 * Method {@code getSlot} returns the slot of its record in the index.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the slot
+	 */
+	int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Method {@code setSlot} sets the slot of its record in the index.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param slot
+	 *            the slot
+	 */
+	void setSlot(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * Method {@code getDerivedSize} returns the size of the files derived from
+	 * the content, like its downsized copy.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the size in bytes
+	 */
+	long getDerivedSize() {
+		return derivedSize;
+	}
+
+	/**
+	 * Method {@code setDerivedSize} sets the size of the files derived from the
+	 * content.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param derivedSize
+	 *            the size in bytes
+	 */
+	void setDerivedSize(long derivedSize) {
+		this.derivedSize = derivedSize;
+	}
+}
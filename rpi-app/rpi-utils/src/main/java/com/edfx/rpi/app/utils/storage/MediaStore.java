@@ -0,0 +1,638 @@
+package com.edfx.rpi.app.utils.storage;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.edfx.rpi.app.utils.logger.RpiLogger;
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader;
+import com.edfx.rpi.app.utils.properties.PropertiesLoader.Properties;
+
+/**
+ * Class {@code MediaStore} keeps the captures of RPI until they are uploaded.
+ * <br/>
+ * A capture is moved into the {@code media} folder of the store directory
+ * under the SHA-1 of its content, so the next capture never overwrites it and
+ * the same content is kept once. The time, the job, the size and the upload
+ * state of each capture are kept in fixed size records of an index file which
+ * is memory mapped, and mirrored in memory for constant time lookups of the
+ * pending uploads. The files derived from a capture, named after its hash, are
+ * counted along with it. When the captures exceed the disk budget,
+ * {@code store.maxMegabytes} of {@code media.properties}, the oldest uploaded
+ * ones are deleted. The pending ones are never evicted, they stay listed by
+ * {@link #getPendingUploads()} until an upload is retried. A capture which is
+ * not uploaded because an earlier upload shows the same scene is marked
+ * covered. It is never retried, and it is evicted like an uploaded one once
+ * it is older than {@code store.coveredRetentionHours}.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ */
+public enum MediaStore {
+	INSTANCE;
+
+	private static final String INDEX_FILE = "index";
+
+	private static final int MAGIC = 0x52504d53;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int COUNT_OFFSET = 8;
+
+	private static final int CAPACITY = 4096;
+	private static final int RECORD_SIZE = 64;
+	private static final int STATE_OFFSET = 0;
+	private static final int EXTENSION_LENGTH_OFFSET = 1;
+	private static final int JOB_LENGTH_OFFSET = 2;
+	private static final int HASH_OFFSET = 4;
+	private static final int HASH_LENGTH = 20;
+	private static final int CAPTURED_AT_OFFSET = 24;
+	private static final int SIZE_OFFSET = 32;
+	private static final int EXTENSION_OFFSET = 40;
+	private static final int EXTENSION_LENGTH = 8;
+	private static final int JOB_OFFSET = 48;
+	private static final int JOB_LENGTH = 16;
+
+	private static final byte FREE = 0;
+	private static final byte PENDING = 1;
+	private static final byte UPLOADED = 2;
+	private static final byte COVERED = 3;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Logger logger = RpiLogger.getLogger(getClass());
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final LinkedHashMap<String, MediaItem> items = new LinkedHashMap<>();
+	private final LinkedHashMap<String, MediaItem> pending = new LinkedHashMap<>();
+
+	private File directory;
+	private MappedByteBuffer index;
+	private int count;
+	private long usedBytes;
+	private long budget;
+	private long coveredRetention;
+
+	/**
+	 * Constructor {@code MediaStore}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private MediaStore() {
+
+	}
+
+	/**
+	 * Method {@code store} moves the given capture into the store.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param source
+	 *            the captured file
+	 * @param job
+	 *            the name of the job which captured it
+	 * @return the stored item, the existing one if the same content is already
+	 *         stored
+	 * @throws ApplicationStorageException
+	 */
+	public synchronized MediaItem store(File source, String job) throws ApplicationStorageException {
+		open();
+
+		try {
+			String hash = hash(source);
+			MediaItem existing = items.get(hash);
+
+			if (Objects.nonNull(existing)) {
+				Files.deleteIfExists(source.toPath());
+				return existing;
+			}
+
+			if (count == CAPACITY) {
+				compact();
+			}
+
+			String extension = StringUtils.left(StringUtils.substringAfterLast(source.getName(), "."), EXTENSION_LENGTH);
+			File target = new File(directory, StringUtils.isEmpty(extension) ? hash : hash + "." + extension);
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			MediaItem item = new MediaItem(hash, target, StringUtils.left(job, JOB_LENGTH), System.currentTimeMillis(), target.length(), false, false, count);
+			writeRecord(item, extension);
+			index.putInt(COUNT_OFFSET, ++count);
+
+			items.put(hash, item);
+			pending.put(hash, item);
+			usedBytes += item.getSize();
+
+			evict();
+			index.force();
+
+			return item;
+		} catch (Throwable cause) {
+			throw getApplicationStorageException("Unable to store " + source + ".", cause);
+		}
+	}
+
+	/**
+	 * Method {@code markUploaded} marks the item with the given hash as
+	 * uploaded, making it evictable.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hash
+	 *            the hash of the item
+	 */
+	public synchronized void markUploaded(String hash) {
+		open();
+		MediaItem item = pending.remove(hash);
+
+		if (Objects.isNull(item)) {
+			return;
+		}
+
+		item.setUploaded();
+		index.put(item.getSlot() * RECORD_SIZE + HEADER_SIZE + STATE_OFFSET, UPLOADED);
+
+		evict();
+		index.force();
+	}
+
+	/**
+	 * Method {@code markCovered} marks the pending item with the given hash as
+	 * covered by an earlier upload of the same scene. It is no longer pending,
+	 * and it is kept for the retention period before it may be evicted.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hash
+	 *            the hash of the item
+	 */
+	public synchronized void markCovered(String hash) {
+		open();
+		MediaItem item = pending.remove(hash);
+
+		if (Objects.isNull(item)) {
+			return;
+		}
+
+		item.setCovered();
+		index.put(item.getSlot() * RECORD_SIZE + HEADER_SIZE + STATE_OFFSET, COVERED);
+		index.force();
+	}
+
+	/**
+	 * Method {@code countDerived} counts the files derived from the stored
+	 * item the given file belongs to in the budget. It should be called after
+	 * a derived file is written or rewritten. A file which does not belong to
+	 * an item is ignored.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param derived
+	 *            the derived file, named after the hash of its item
+	 */
+	public synchronized void countDerived(File derived) {
+		MediaItem item = items.get(StringUtils.substringBefore(derived.getName(), "."));
+
+		if (Objects.isNull(item)) {
+			return;
+		}
+
+		long derivedSize = 0;
+		File[] files = directory.listFiles((parent, name) -> name.startsWith(item.getHash()) && !name.equals(item.getFile().getName()));
+
+		if (Objects.nonNull(files)) {
+			for (File file : files) {
+				derivedSize += file.length();
+			}
+		}
+
+		usedBytes += derivedSize - item.getDerivedSize();
+		item.setDerivedSize(derivedSize);
+
+		evict();
+	}
+
+	/**
+	 * Method {@code getPending} returns the pending item with the given hash.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param hash
+	 *            the hash of the item
+	 * @return the item, or null if it is not pending
+	 */
+	public synchronized MediaItem getPending(String hash) {
+		open();
+		return pending.get(hash);
+	}
+
+	/**
+	 * Method {@code getPendingUploads} returns the items which are not
+	 * uploaded yet, oldest first.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the pending items
+	 */
+	public synchronized List<MediaItem> getPendingUploads() {
+		open();
+		return new ArrayList<>(pending.values());
+	}
+
+	/**
+	 * Method {@code getUsedBytes} returns the size of the stored items and of
+	 * the files derived from them.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the size in bytes
+	 */
+	public synchronized long getUsedBytes() {
+		open();
+		return usedBytes;
+	}
+
+	/**
+	 * Method {@code open} maps the index and loads the records on the first
+	 * use.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws ApplicationStorageException
+	 */
+	private void open() throws ApplicationStorageException {
+		if (Objects.nonNull(index)) {
+			return;
+		}
+
+		try {
+			java.util.Properties properties = PropertiesLoader.INSTANCE.getProperties(Properties.MEDIA);
+			String maxMegabytes = Objects.isNull(properties) ? null : properties.getProperty("store.maxMegabytes");
+			budget = Long.parseLong(StringUtils.defaultIfBlank(maxMegabytes, "512").trim()) * 1024 * 1024;
+
+			String coveredRetentionHours = Objects.isNull(properties) ? null : properties.getProperty("store.coveredRetentionHours");
+			coveredRetention = TimeUnit.HOURS.toMillis(Long.parseLong(StringUtils.defaultIfBlank(coveredRetentionHours, "24").trim()));
+
+			directory = new File(ApplicationStorageManager.INSTANCE.getStoreDirectory(), "media");
+			Files.createDirectories(directory.toPath());
+
+			try (FileChannel channel = FileChannel.open(new File(directory, INDEX_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				index = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) CAPACITY * RECORD_SIZE);
+			}
+
+			if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+				index.putInt(0, MAGIC);
+				index.putInt(4, VERSION);
+				index.putInt(COUNT_OFFSET, 0);
+			}
+
+			load();
+
+			metricsRegistry.gauge("media.store.bytes", this::getUsedBytes);
+			metricsRegistry.gauge("media.store.pending", () -> getPendingUploads().size());
+		} catch (Throwable cause) {
+			index = null;
+			throw getApplicationStorageException("Unable to open the media store.", cause);
+		}
+	}
+
+	/**
+	 * Method {@code load} reads the records of the index. The records of the
+	 * files which no longer exist are freed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void load() {
+		count = Math.min(Math.max(index.getInt(COUNT_OFFSET), 0), CAPACITY);
+
+		Map<String, Long> sizes = new HashMap<>();
+		File[] files = directory.listFiles();
+
+		if (Objects.nonNull(files)) {
+			for (File file : files) {
+				sizes.merge(StringUtils.substringBefore(file.getName(), "."), file.length(), Long::sum);
+			}
+		}
+
+		for (int slot = 0; slot < count; slot++) {
+			int offset = HEADER_SIZE + slot * RECORD_SIZE;
+			byte state = index.get(offset + STATE_OFFSET);
+
+			if (state == FREE) {
+				continue;
+			}
+
+			byte[] hashBytes = new byte[HASH_LENGTH];
+			getBytes(offset + HASH_OFFSET, hashBytes);
+			String hash = toHex(hashBytes);
+
+			String extension = readString(offset + EXTENSION_OFFSET, index.get(offset + EXTENSION_LENGTH_OFFSET));
+			String job = readString(offset + JOB_OFFSET, index.get(offset + JOB_LENGTH_OFFSET));
+			File file = new File(directory, StringUtils.isEmpty(extension) ? hash : hash + "." + extension);
+
+			if (!file.exists()) {
+				index.put(offset + STATE_OFFSET, FREE);
+				continue;
+			}
+
+			MediaItem item = new MediaItem(hash, file, job, index.getLong(offset + CAPTURED_AT_OFFSET), index.getLong(offset + SIZE_OFFSET), state == UPLOADED, state == COVERED, slot);
+			items.put(hash, item);
+
+			if (state == PENDING) {
+				pending.put(hash, item);
+			}
+
+			item.setDerivedSize(Math.max(0, sizes.getOrDefault(hash, 0L) - item.getSize()));
+			usedBytes += item.getSize() + item.getDerivedSize();
+		}
+	}
+
+	/**
+	 * Method {@code evict} deletes the oldest evictable items, along with the
+	 * files derived from them, until the items fit in the budget.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 */
+	private void evict() {
+		Iterator<MediaItem> iterator = items.values().iterator();
+		long now = System.currentTimeMillis();
+
+		while (usedBytes > budget && iterator.hasNext()) {
+			MediaItem item = iterator.next();
+
+			if (isEvictable(item, now)) {
+				iterator.remove();
+				remove(item);
+				metricsRegistry.counter("media.store.evicted").increment();
+			}
+		}
+
+		if (usedBytes > budget) {
+			logger.warn("Media store is over budget with pending uploads: " + usedBytes + " bytes.");
+		}
+	}
+
+	/**
+	 * Method {@code isEvictable} tells if the given item may be deleted, that
+	 * is if it is uploaded, or covered by an earlier upload and older than the
+	 * retention period.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param item
+	 *            the item
+	 * @param now
+	 *            the current time in milliseconds since the epoch
+	 * @return true if evictable
+	 */
+	private boolean isEvictable(MediaItem item, long now) {
+		return item.isUploaded() || (item.isCovered() && now - item.getCapturedAt() > coveredRetention);
+	}
+
+	/**
+	 * Method {@code compact} rewrites the records of the live items at the
+	 * beginning of the index. If the index is still full the oldest evictable
+	 * item is dropped. The pending items are never dropped.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @throws ApplicationStorageException
+	 *             if the index is full of pending items
+	 */
+	private void compact() throws ApplicationStorageException {
+		Iterator<MediaItem> iterator = items.values().iterator();
+		long now = System.currentTimeMillis();
+
+		while (items.size() >= CAPACITY && iterator.hasNext()) {
+			MediaItem item = iterator.next();
+
+			if (isEvictable(item, now)) {
+				iterator.remove();
+				remove(item);
+				logger.warn("Media store index is full, dropped: " + item.getFile());
+			}
+		}
+
+		if (items.size() >= CAPACITY) {
+			throw new ApplicationStorageException("Media store index is full of pending and retained captures.");
+		}
+
+		int slot = 0;
+
+		for (MediaItem item : items.values()) {
+			item.setSlot(slot++);
+			writeRecord(item, StringUtils.substringAfterLast(item.getFile().getName(), "."));
+		}
+
+		count = slot;
+		index.putInt(COUNT_OFFSET, count);
+	}
+
+	/**
+	 * Method {@code remove} deletes the files of the given item and frees its
+	 * record.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param item
+	 *            the item
+	 */
+	private void remove(MediaItem item) {
+		File[] files = directory.listFiles((parent, name) -> name.startsWith(item.getHash()));
+
+		if (Objects.nonNull(files)) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+
+		index.put(HEADER_SIZE + item.getSlot() * RECORD_SIZE + STATE_OFFSET, FREE);
+		usedBytes -= item.getSize() + item.getDerivedSize();
+	}
+
+	/**
+	 * Method {@code writeRecord} writes the record of the given item at its
+	 * slot.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param item
+	 *            the item
+	 * @param extension
+	 *            the extension of its file
+	 */
+	private void writeRecord(MediaItem item, String extension) {
+		int offset = HEADER_SIZE + item.getSlot() * RECORD_SIZE;
+
+		byte[] hashBytes = new byte[HASH_LENGTH];
+
+		for (int index = 0; index < HASH_LENGTH; index++) {
+			hashBytes[index] = (byte) Integer.parseInt(item.getHash().substring(index * 2, index * 2 + 2), 16);
+		}
+
+		index.put(offset + STATE_OFFSET, FREE);
+		putBytes(offset + HASH_OFFSET, hashBytes);
+		index.putLong(offset + CAPTURED_AT_OFFSET, item.getCapturedAt());
+		index.putLong(offset + SIZE_OFFSET, item.getSize());
+		index.put(offset + EXTENSION_LENGTH_OFFSET, (byte) writeString(offset + EXTENSION_OFFSET, extension, EXTENSION_LENGTH));
+		index.put(offset + JOB_LENGTH_OFFSET, (byte) writeString(offset + JOB_OFFSET, item.getJob(), JOB_LENGTH));
+		index.put(offset + STATE_OFFSET, item.isUploaded() ? UPLOADED : item.isCovered() ? COVERED : PENDING);
+	}
+
+	/**
+	 * Method {@code writeString} writes the given value as ASCII, truncated to
+	 * the given length.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param offset
+	 *            the offset in the index
+	 * @param value
+	 *            the value
+	 * @param maxLength
+	 *            the maximum length
+	 * @return the number of bytes written
+	 */
+	private int writeString(int offset, String value, int maxLength) {
+		byte[] bytes = StringUtils.left(StringUtils.defaultString(value), maxLength).getBytes(StandardCharsets.US_ASCII);
+		putBytes(offset, bytes);
+		return bytes.length;
+	}
+
+	/**
+	 * Method {@code readString} reads an ASCII value of the given length.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param offset
+	 *            the offset in the index
+	 * @param length
+	 *            the length
+	 * @return the value
+	 */
+	private String readString(int offset, int length) {
+		byte[] bytes = new byte[Math.max(0, length)];
+		getBytes(offset, bytes);
+		return new String(bytes, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Method {@code putBytes} writes the given bytes at the given offset.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param offset
+	 *            the offset in the index
+	 * @param bytes
+	 *            the bytes
+	 */
+	private void putBytes(int offset, byte[] bytes) {
+		for (int index = 0; index < bytes.length; index++) {
+			this.index.put(offset + index, bytes[index]);
+		}
+	}
+
+	/**
+	 * Method {@code getBytes} reads bytes at the given offset.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param offset
+	 *            the offset in the index
+	 * @param bytes
+	 *            the array to fill
+	 */
+	private void getBytes(int offset, byte[] bytes) {
+		for (int index = 0; index < bytes.length; index++) {
+			bytes[index] = this.index.get(offset + index);
+		}
+	}
+
+	/**
+	 * Method {@code hash} returns the SHA-1 of the content of the given file.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param file
+	 *            the file
+	 * @return the hash in hex
+	 * @throws Exception
+	 */
+	private static String hash(File file) throws Exception {
+		MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+		byte[] buffer = new byte[65536];
+
+		try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				messageDigest.update(buffer, 0, read);
+			}
+		}
+
+		return toHex(messageDigest.digest());
+	}
+
+	/**
+	 * Method {@code toHex} returns the given bytes in hex.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param bytes
+	 *            the bytes
+	 * @return the hex String
+	 */
+	private static String toHex(byte[] bytes) {
+		char[] characters = new char[bytes.length * 2];
+
+		for (int index = 0; index < bytes.length; index++) {
+			characters[index * 2] = HEX[(bytes[index] >> 4) & 0x0F];
+			characters[index * 2 + 1] = HEX[bytes[index] & 0x0F];
+		}
+
+		return new String(characters);
+	}
+
+	/**
+	 * Method {@code getApplicationStorageException} returns a new instance of
+	 * {@link ApplicationStorageException} with the given {@code message} and
+	 * {@code cause}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param message
+	 *            the error message
+	 * @param cause
+	 *            the Throwable instance
+	 * @return an instance of ApplicationStorageException
+	 */
+	private static ApplicationStorageException getApplicationStorageException(String message, Throwable cause) {
+		if (cause instanceof ApplicationStorageException) {
+			return (ApplicationStorageException) cause;
+		}
+
+		ApplicationStorageException exception = new ApplicationStorageException(message + StringUtils.SPACE + cause.getMessage());
+		exception.initCause(cause);
+		return exception;
+	}
+}
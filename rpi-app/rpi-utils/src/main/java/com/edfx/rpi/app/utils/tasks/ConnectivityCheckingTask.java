@@ -47,6 +47,7 @@ public enum ConnectivityCheckingTask implements Runnable {
 
 	private final Condition condition = lock.newCondition();
 	private volatile boolean tested = false;
+	private volatile long lastCheckedAt;
 
 	/**
 	 * Constructor {@code ConnectivityCheckingTask}
@@ -128,6 +129,7 @@ public enum ConnectivityCheckingTask implements Runnable {
 				logger.error(cause.getMessage(), cause);
 			}
 
+			lastCheckedAt = System.currentTimeMillis();
 			tested = true;
 			condition.signalAll();
 		} finally {
@@ -159,6 +161,31 @@ public enum ConnectivityCheckingTask implements Runnable {
 		return connected.get();
 	}
 
+	/**
+	 * Method {@code isLastKnownConnected} returns the result of the latest
+	 * connectivity check without waiting for a check or performing one.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return true if RPI was connected at the latest check
+	 */
+	public boolean isLastKnownConnected() {
+		return connected.get();
+	}
+
+	/**
+	 * Method {@code getLastCheckedAt} returns the time of the latest
+	 * connectivity check.
+	 * 
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @return the time in milliseconds since the epoch, or 0 if no check is
+	 *         performed yet
+	 */
+	public long getLastCheckedAt() {
+		return lastCheckedAt;
+	}
+
 	/**
 	 * Method {@code isConnectedToNetworkWithSpeech} checks if RPI is connected
 	 * to the Internet and speaks appropriate messages
@@ -228,6 +255,7 @@ public enum ConnectivityCheckingTask implements Runnable {
 			}
 
 			lastConnectivityStatus.set(computerIsConnectedToNetwork);
+			lastCheckedAt = System.currentTimeMillis();
 		} finally {
 			lock.unlock();
 		}
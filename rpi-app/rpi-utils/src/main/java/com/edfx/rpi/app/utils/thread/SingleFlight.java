@@ -0,0 +1,184 @@
+package com.edfx.rpi.app.utils.thread;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.edfx.rpi.app.utils.metrics.MetricsRegistry;
+
+/**
+ * Class {@code SingleFlight} runs at most one computation per key at a time.
+ * <br/>
+ * A caller asking for a key which is being computed waits for that
+ * computation and gets its result instead of starting another one. A
+ * successful result is also handed to the callers arriving within the grace
+ * window after it completed, unless they ask for a shorter one. Failures and
+ * {@code null} results are never shared with later callers.
+ *
+ * @author Tapas Bose
+ * @since RPI V1.0
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the results
+ */
+public final class SingleFlight<K, V> {
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.INSTANCE;
+
+	private final String name;
+	private final long graceNanos;
+	private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+	/**
+	 * Class {@code Flight} is one computation along with the time it completed.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param <V>
+	 *            the type of the result
+	 */
+	private static final class Flight<V> {
+		private final CompletableFuture<V> future = new CompletableFuture<>();
+		private volatile long completedAt;
+	}
+
+	/**
+	 * Constructor {@code SingleFlight}
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param name
+	 *            the name used for the metrics
+	 * @param grace
+	 *            how long a result is shared after it completed
+	 * @param unit
+	 *            the unit of the grace window
+	 */
+	public SingleFlight(String name, long grace, TimeUnit unit) {
+		this.name = name;
+		this.graceNanos = unit.toNanos(grace);
+	}
+
+	/**
+	 * Method {@code execute} returns the result of the computation for the
+	 * given key, running the given supplier in the calling thread only if no
+	 * computation is in flight and no result is within the grace window.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param key
+	 *            the key
+	 * @param supplier
+	 *            the computation
+	 * @return the result
+	 */
+	public V execute(K key, Supplier<V> supplier) {
+		return execute(key, graceNanos, TimeUnit.NANOSECONDS, supplier);
+	}
+
+	/**
+	 * Method {@code execute} returns the result of the computation for the
+	 * given key, running the given supplier in the calling thread only if no
+	 * computation is in flight and no result is within the given grace window.
+	 * A grace of 0 joins only a running computation, it never gets a result
+	 * which completed before the call.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param key
+	 *            the key
+	 * @param grace
+	 *            how old a completed result may be, capped by the grace window
+	 *            of this instance
+	 * @param unit
+	 *            the unit of the grace
+	 * @param supplier
+	 *            the computation
+	 * @return the result
+	 */
+	public V execute(K key, long grace, TimeUnit unit, Supplier<V> supplier) {
+		long acceptedNanos = Math.min(unit.toNanos(grace), graceNanos);
+
+		while (true) {
+			Flight<V> flight = new Flight<>();
+			Flight<V> existing = flights.putIfAbsent(key, flight);
+
+			if (Objects.isNull(existing)) {
+				return run(key, flight, supplier);
+			}
+
+			if (!existing.future.isDone() || (acceptedNanos > 0 && System.nanoTime() - existing.completedAt <= acceptedNanos)) {
+				metricsRegistry.counter("singleflight." + name + ".shared").increment();
+				return join(existing);
+			}
+
+			flights.remove(key, existing);
+		}
+	}
+
+	/**
+	 * Method {@code run} runs the computation of the given flight and
+	 * publishes its result to the waiting callers.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param key
+	 *            the key
+	 * @param flight
+	 *            the flight
+	 * @param supplier
+	 *            the computation
+	 * @return the result
+	 */
+	private V run(K key, Flight<V> flight, Supplier<V> supplier) {
+		V value;
+
+		try {
+			value = supplier.get();
+		} catch (Throwable cause) {
+			flights.remove(key, flight);
+			flight.future.completeExceptionally(cause);
+			throw cause;
+		}
+
+		flight.completedAt = System.nanoTime();
+
+		if (Objects.isNull(value) || graceNanos <= 0) {
+			flights.remove(key, flight);
+		}
+
+		flight.future.complete(value);
+		return value;
+	}
+
+	/**
+	 * Method {@code join} waits for the result of the given flight.
+	 *
+	 * @author Tapas Bose
+	 * @since RPI V1.0
+	 * @param flight
+	 *            the flight
+	 * @return the result
+	 */
+	private V join(Flight<V> flight) {
+		try {
+			return flight.future.join();
+		} catch (CompletionException exception) {
+			Throwable cause = exception.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw exception;
+		}
+	}
+}